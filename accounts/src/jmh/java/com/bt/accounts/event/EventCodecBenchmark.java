@@ -0,0 +1,140 @@
+package com.bt.accounts.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Serialize/deserialize cost of the binary event encoding against the Jackson
+ * path the services used before. Run with
+ * {@code mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bt.accounts.event.EventCodecBenchmark}; bytes per message
+ * are printed before the JMH run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final String TOPIC = "bench";
+
+    @Param({"binary", "json"})
+    public String codec;
+
+    @Param({"ProductDetailsResponse", "FdCalculationResponseEvent", "CustomerValidationRequest"})
+    public String event;
+
+    private BinaryEventSerializer serializer;
+    private BinaryEventDeserializer deserializer;
+    private Object value;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = serializer(codec);
+        deserializer = deserializer(eventType(event));
+        value = sample(event);
+        payload = serializer.serialize(TOPIC, value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String name : new String[] {"ProductDetailsResponse", "FdCalculationResponseEvent",
+                "CustomerValidationRequest"}) {
+            Object sample = sample(name);
+            System.out.printf("%-28s binary=%d B json=%d B%n", name,
+                    serializer("binary").serialize(TOPIC, sample).length,
+                    serializer("json").serialize(TOPIC, sample).length);
+        }
+        new Runner(new OptionsBuilder().include(EventCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static BinaryEventSerializer serializer(String codec) {
+        BinaryEventSerializer serializer = new BinaryEventSerializer();
+        serializer.configure(Map.of(BinaryEventSerializer.CODEC_CONFIG, codec,
+                JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        return serializer;
+    }
+
+    private static BinaryEventDeserializer deserializer(Class<?> type) {
+        BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, type.getName()), false);
+        return deserializer;
+    }
+
+    private static Class<?> eventType(String name) {
+        return sample(name).getClass();
+    }
+
+    private static Object sample(String name) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+        return switch (name) {
+            case "ProductDetailsResponse" -> ProductDetailsResponse.builder()
+                    .requestId("6f1c2a9e-8a53-4d8f-9a55-2f4b1c7f0e11")
+                    .productId(42L)
+                    .productCode("FD-REGULAR-12M")
+                    .productName("Fixed Deposit - Regular 12 Months")
+                    .status("ACTIVE")
+                    .minAmount(new BigDecimal("1000.00"))
+                    .maxAmount(new BigDecimal("10000000.00"))
+                    .minTermMonths(6)
+                    .maxTermMonths(120)
+                    .minInterestRate(new BigDecimal("6.50"))
+                    .maxInterestRate(new BigDecimal("7.50"))
+                    .currency("KWD")
+                    .compoundingFrequency("QUARTERLY")
+                    .timestamp(now)
+                    .build();
+            case "FdCalculationResponseEvent" -> FdCalculationResponseEvent.builder()
+                    .requestId("0d3b7c55-31f4-4d7e-b1a2-5e0c4f8a9b61")
+                    .calculationId(981_233L)
+                    .customerId(10_024L)
+                    .productCode("FD-REGULAR-12M")
+                    .principalAmount(new BigDecimal("250000.00"))
+                    .maturityAmount(new BigDecimal("268103.56"))
+                    .interestEarned(new BigDecimal("18103.56"))
+                    .effectiveRate(new BigDecimal("7.2135"))
+                    .tenureMonths(12)
+                    .timestamp(now)
+                    .build();
+            case "CustomerValidationRequest" -> CustomerValidationRequest.builder()
+                    .customerId(10_024L)
+                    .requestId("a2b4c6d8-1357-4e9f-8a0b-c1d2e3f40516")
+                    .timestamp(now)
+                    .build();
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+}
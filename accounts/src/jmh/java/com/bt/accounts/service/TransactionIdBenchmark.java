@@ -0,0 +1,117 @@
+package com.bt.accounts.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares the old {@code TXN-<accountNo>-<millis>-<uuid8>} ids with
+ * {@link TransactionIdGenerator}: the cost of generating an id, and batch
+ * insert cost per row into an in-memory H2 table with a unique index on
+ * {@code transaction_id}. Run with
+ * {@code mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bt.accounts.service.TransactionIdBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIdBenchmark {
+
+    private static final String ACCOUNT_NO = "FD-BR001-20251023-10000001";
+    private static final int BATCH = 1000;
+
+    @Param({"legacy", "snowflake"})
+    public String scheme;
+
+    private Supplier<String> ids;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, System::currentTimeMillis);
+        ids = "legacy".equals(scheme) ? TransactionIdBenchmark::legacyId : generator::nextTransactionId;
+        connection = DriverManager.getConnection("jdbc:h2:mem:txnids;DB_CLOSE_DELAY=-1", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE account_transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "transaction_id VARCHAR(64) NOT NULL UNIQUE, account_no VARCHAR(50) NOT NULL, "
+                    + "amount DECIMAL(19, 2) NOT NULL, transaction_date TIMESTAMP NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO account_transactions "
+                + "(transaction_id, account_no, amount, transaction_date) VALUES (?, ?, ?, ?)");
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE account_transactions");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE account_transactions");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return ids.get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] insertBatch() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, ids.get());
+            insert.setString(2, ACCOUNT_NO);
+            insert.setInt(3, 1);
+            insert.setTimestamp(4, now);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(TransactionIdBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static String legacyId() {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return String.format("TXN-%s-%s-%s", ACCOUNT_NO, timestamp, uuid);
+    }
+}
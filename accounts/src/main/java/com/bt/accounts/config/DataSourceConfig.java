@@ -0,0 +1,55 @@
+package com.bt.accounts.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * The application datasource, plus a small pool used only by transaction
+ * exports. MySQL's {@code useCursorFetch} turns every statement with a fetch
+ * size into a server-side cursor; only the export stream wants that, so it is
+ * set on the export pool's URL and not on the shared one.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public HikariDataSource exportDataSource(DataSourceProperties properties,
+            @Value("${accounts.transactions.export-datasource.url:}") String url,
+            @Value("${accounts.transactions.export-datasource.maximum-pool-size:2}") int maximumPoolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (!url.isBlank()) {
+            dataSource.setJdbcUrl(url);
+        }
+        dataSource.setPoolName("accounts-export");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(0);
+        return dataSource;
+    }
+
+    @Bean
+    public JdbcTemplate exportJdbcTemplate(@Qualifier("exportDataSource") DataSource exportDataSource) {
+        return new JdbcTemplate(exportDataSource);
+    }
+}
@@ -2,6 +2,7 @@ package com.bt.accounts.controller;
 
 import com.bt.accounts.dto.*;
 import com.bt.accounts.service.AccountService;
+import com.bt.accounts.service.CustomerPortfolioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -23,6 +24,7 @@ import java.util.List;
 public class AccountController {
 
         private final AccountService accountService;
+        private final CustomerPortfolioService customerPortfolioService;
 
         @PostMapping("/create")
         @PreAuthorize("hasAnyRole('BANKOFFICER', 'ADMIN', 'CUSTOMER')")
@@ -74,6 +76,22 @@ public class AccountController {
                 return ResponseEntity.ok(response);
         }
 
+        @GetMapping("/customer/{customerId}/portfolio")
+        @Operation(summary = "Get customer portfolio", description = "Retrieves account counts, active balances, accrued interest and next maturity for a customer")
+        public ResponseEntity<ApiResponse<CustomerPortfolioResponse>> getCustomerPortfolio(
+                        @Parameter(description = "Customer ID") @PathVariable String customerId) {
+
+                CustomerPortfolioResponse portfolio = customerPortfolioService.getPortfolio(customerId);
+
+                ApiResponse<CustomerPortfolioResponse> response = ApiResponse.<CustomerPortfolioResponse>builder()
+                                .success(true)
+                                .message("Customer portfolio retrieved successfully")
+                                .data(portfolio)
+                                .build();
+
+                return ResponseEntity.ok(response);
+        }
+
         @PutMapping("/{accountNo}/close")
         @PreAuthorize("hasAnyRole('BANKOFFICER', 'ADMIN')")
         @Operation(summary = "Close FD account", description = "Closes an active Fixed Deposit account with closure reason")
@@ -0,0 +1,36 @@
+package com.bt.accounts.controller;
+
+import com.bt.accounts.dto.ApiResponse;
+import com.bt.accounts.scheduler.AccrualScheduler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/accounts/admin/accrual")
+@RequiredArgsConstructor
+@Tag(name = "Admin Accrual", description = "Progress of scheduled interest accrual")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminAccrualController {
+
+    private final AccrualScheduler accrualScheduler;
+
+    @GetMapping("/metrics")
+    @PreAuthorize("hasAnyRole('ADMIN','BANKOFFICER')")
+    @Operation(summary = "Get accrual worker pool metrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMetrics() {
+        return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
+                .success(true)
+                .message("OK")
+                .data(accrualScheduler.accrualMetrics())
+                .build());
+    }
+}
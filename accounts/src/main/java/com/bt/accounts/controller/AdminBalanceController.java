@@ -0,0 +1,45 @@
+package com.bt.accounts.controller;
+
+import com.bt.accounts.dto.ApiResponse;
+import com.bt.accounts.service.AccountBalanceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/accounts/admin/balances")
+@RequiredArgsConstructor
+@Tag(name = "Admin Balances", description = "Consistency checks for stored account balances")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminBalanceController {
+
+    private final AccountBalanceService accountBalanceService;
+
+    @PostMapping("/verify")
+    @PreAuthorize("hasAnyRole('ADMIN','BANKOFFICER')")
+    @Operation(summary = "Compare stored balances with the transaction ledger")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> verify() {
+        return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
+                .success(true)
+                .message("Balance check finished")
+                .data(accountBalanceService.verifyBalances())
+                .build());
+    }
+
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Set every stored balance from the transaction ledger, after upgrading")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> backfill() {
+        return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
+                .success(true)
+                .message("Balance backfill finished")
+                .data(accountBalanceService.backfillBalances())
+                .build());
+    }
+}
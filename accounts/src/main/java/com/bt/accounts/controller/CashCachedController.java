@@ -27,6 +27,8 @@ import com.bt.accounts.dto.CashCachedSummaryResponse;
 import com.bt.accounts.dto.CashCachedTransferRequest;
 import com.bt.accounts.entity.CashCachedLedgerEntry;
 import com.bt.accounts.service.CashCachedService;
+import com.bt.accounts.service.IdempotencyService;
+import com.fasterxml.jackson.core.type.TypeReference;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -42,7 +44,11 @@ import lombok.RequiredArgsConstructor;
 @SecurityRequirement(name = "Bearer Authentication")
 public class CashCachedController {
 
+        private static final TypeReference<ApiResponse<List<CashCachedLedgerEntryResponse>>> TRANSFER_RESPONSE = new TypeReference<>() {
+        };
+
         private final CashCachedService cashCachedService;
+        private final IdempotencyService idempotencyService;
 
         @PostMapping("/issue")
         @PreAuthorize("hasAnyRole('ADMIN','BANKOFFICER')")
@@ -61,16 +67,20 @@ public class CashCachedController {
         @PreAuthorize("hasAnyRole('ADMIN','BANKOFFICER')")
         @Operation(summary = "Transfer CashCached", description = "Transfers CashCached between two accounts")
         public ResponseEntity<ApiResponse<List<CashCachedLedgerEntryResponse>>> transfer(
-                        @Valid @RequestBody CashCachedTransferRequest request) {
-                CashCachedService.TransferResult result = cashCachedService.transfer(request);
-                List<CashCachedLedgerEntryResponse> entries = List.of(
-                                CashCachedLedgerEntryResponse.fromEntity(result.getDebitEntry()),
-                                CashCachedLedgerEntryResponse.fromEntity(result.getCreditEntry()));
-                return ResponseEntity.ok(ApiResponse.<List<CashCachedLedgerEntryResponse>>builder()
-                                .success(true)
-                                .message("Transfer recorded")
-                                .data(entries)
-                                .build());
+                        @Valid @RequestBody CashCachedTransferRequest request,
+                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+                return idempotencyService.execute(idempotencyKey, "stablecoin/transfer", request, TRANSFER_RESPONSE,
+                                () -> {
+                                        CashCachedService.TransferResult result = cashCachedService.transfer(request);
+                                        List<CashCachedLedgerEntryResponse> entries = List.of(
+                                                        CashCachedLedgerEntryResponse.fromEntity(result.getDebitEntry()),
+                                                        CashCachedLedgerEntryResponse.fromEntity(result.getCreditEntry()));
+                                        return ResponseEntity.ok(ApiResponse.<List<CashCachedLedgerEntryResponse>>builder()
+                                                        .success(true)
+                                                        .message("Transfer recorded")
+                                                        .data(entries)
+                                                        .build());
+                                });
         }
 
         @PostMapping("/redeem")
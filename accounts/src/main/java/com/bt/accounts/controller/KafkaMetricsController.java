@@ -0,0 +1,44 @@
+package com.bt.accounts.controller;
+
+import com.bt.accounts.dto.ApiResponse;
+import com.bt.accounts.event.KafkaProducerService;
+import com.bt.accounts.event.KafkaRequestReplyClient;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/accounts/kafka")
+@RequiredArgsConstructor
+@Tag(name = "Kafka Metrics", description = "Inter-service messaging metrics")
+@SecurityRequirement(name = "Bearer Authentication")
+public class KafkaMetricsController {
+
+    private final KafkaRequestReplyClient requestReplyClient;
+    private final KafkaProducerService kafkaProducerService;
+
+    @GetMapping("/metrics")
+    @PreAuthorize("hasAnyRole('ADMIN','BANKOFFICER')")
+    @Operation(summary = "Get request/reply metrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMetrics() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("productLookups", requestReplyClient.productLookupMetrics());
+        data.put("productCatalog", requestReplyClient.productCatalogMetrics());
+        data.put("deadlines", requestReplyClient.deadlineMetrics());
+        data.put("producer", kafkaProducerService.producerMetrics());
+        return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
+                .success(true)
+                .message("OK")
+                .data(data)
+                .build());
+    }
+}
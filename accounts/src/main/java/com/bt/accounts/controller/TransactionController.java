@@ -1,20 +1,32 @@
 package com.bt.accounts.controller;
 
 import com.bt.accounts.dto.ApiResponse;
+import com.bt.accounts.dto.BatchTransactionRequest;
+import com.bt.accounts.dto.BatchTransactionResponse;
 import com.bt.accounts.dto.CashCachedAccountTransferRequest;
+import com.bt.accounts.dto.TransactionPageResponse;
 import com.bt.accounts.dto.TransactionRequest;
 import com.bt.accounts.dto.TransactionResponse;
+import com.bt.accounts.service.BatchTransactionService;
+import com.bt.accounts.service.IdempotencyService;
+import com.bt.accounts.service.TransactionExportService;
 import com.bt.accounts.service.TransactionService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,24 +36,56 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class TransactionController {
 
+    private static final TypeReference<ApiResponse<TransactionResponse>> TRANSACTION_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<ApiResponse<BatchTransactionResponse>> BATCH_RESPONSE = new TypeReference<>() {
+    };
+
     private final TransactionService transactionService;
+    private final BatchTransactionService batchTransactionService;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/{accountNo}/transactions")
     @PreAuthorize("hasAnyRole('BANKOFFICER', 'ADMIN')")
     @Operation(summary = "Record transaction", description = "Records a transaction (deposit, withdrawal, interest credit, etc.) for an account")
     public ResponseEntity<ApiResponse<TransactionResponse>> recordTransaction(
             @Parameter(description = "FD Account number") @PathVariable String accountNo,
-            @Valid @RequestBody TransactionRequest request) {
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
-        TransactionResponse transaction = transactionService.recordTransaction(accountNo, request);
+        return idempotencyService.execute(idempotencyKey, "transactions:" + accountNo, request, TRANSACTION_RESPONSE, () -> {
+            TransactionResponse transaction = transactionService.recordTransaction(accountNo, request);
 
-        ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
-                .success(true)
-                .message("Transaction recorded successfully")
-                .data(transaction)
-                .build();
+            ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
+                    .success(true)
+                    .message("Transaction recorded successfully")
+                    .data(transaction)
+                    .build();
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
+    }
+
+    @PostMapping("/transactions/batch")
+    @PreAuthorize("hasAnyRole('BANKOFFICER', 'ADMIN')")
+    @Operation(summary = "Record transactions in bulk", description = "Records many postings across accounts in one call and returns a result for each posting. Invalid postings are rejected individually")
+    public ResponseEntity<ApiResponse<BatchTransactionResponse>> recordTransactionBatch(
+            @Valid @RequestBody BatchTransactionRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        return idempotencyService.execute(idempotencyKey, "transactions/batch", request, BATCH_RESPONSE, () -> {
+            BatchTransactionResponse batch = batchTransactionService.postBatch(request.getPostings());
+
+            ApiResponse<BatchTransactionResponse> response = ApiResponse.<BatchTransactionResponse>builder()
+                    .success(batch.getFailed() == 0)
+                    .message(String.format("Batch processed: %d posted, %d rejected, %d failed",
+                            batch.getPosted(), batch.getRejected(), batch.getFailed()))
+                    .data(batch)
+                    .build();
+
+            return ResponseEntity.ok(response);
+        });
     }
 
     @GetMapping("/{accountNo}/transactions")
@@ -60,6 +104,52 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{accountNo}/transactions/page")
+    @PreAuthorize("hasAnyRole('BANKOFFICER', 'ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Get account transactions page", description = "Retrieves one page of transactions, newest first. Pass the returned nextCursor to get the following page")
+    public ResponseEntity<ApiResponse<TransactionPageResponse>> getAccountTransactionsPage(
+            @Parameter(description = "FD Account number") @PathVariable String accountNo,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 500)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Only transactions at or after this time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only transactions at or before this time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader) {
+
+        transactionService.requireHistoryAccess(accountNo, userIdHeader);
+        TransactionPageResponse page = transactionService.getAccountTransactionsPage(accountNo, cursor, limit, from, to);
+
+        ApiResponse<TransactionPageResponse> response = ApiResponse.<TransactionPageResponse>builder()
+                .success(true)
+                .message("Transactions retrieved successfully")
+                .data(page)
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{accountNo}/transactions/export")
+    @PreAuthorize("hasAnyRole('BANKOFFICER', 'ADMIN', 'CUSTOMER')")
+    @Operation(summary = "Export account transactions", description = "Streams the full transaction history as NDJSON or CSV, newest first")
+    public ResponseEntity<StreamingResponseBody> exportAccountTransactions(
+            @Parameter(description = "FD Account number") @PathVariable String accountNo,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Only transactions at or after this time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only transactions at or before this time") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader) {
+
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.from(format);
+        // Checked before the response is committed, so a refusal is a normal error rather than a truncated stream
+        transactionService.requireHistoryAccess(accountNo, userIdHeader);
+
+        StreamingResponseBody body = out -> transactionExportService.export(accountNo, from, to, exportFormat, out);
+        String filename = String.format("transactions-%s.%s", accountNo, exportFormat.getExtension());
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
     @PostMapping("/{accountNo}/transactions/self")
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(summary = "Record self transaction", description = "Customers can record deposit/withdrawal on their own account")
@@ -67,17 +157,20 @@ public class TransactionController {
             @Parameter(description = "FD Account number") @PathVariable String accountNo,
             @Valid @RequestBody TransactionRequest request,
             @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
-        TransactionResponse transaction = transactionService.recordSelfTransaction(accountNo, request, userIdHeader, authHeader);
+        return idempotencyService.execute(idempotencyKey, "transactions/self:" + accountNo, request, TRANSACTION_RESPONSE, () -> {
+            TransactionResponse transaction = transactionService.recordSelfTransaction(accountNo, request, userIdHeader, authHeader);
 
-        ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
-                .success(true)
-                .message("Transaction recorded successfully")
-                .data(transaction)
-                .build();
+            ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
+                    .success(true)
+                    .message("Transaction recorded successfully")
+                    .data(transaction)
+                    .build();
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
     @PostMapping("/{accountNo}/wallet/deposit")
@@ -87,7 +180,8 @@ public class TransactionController {
             @PathVariable String accountNo,
             @Valid @RequestBody CashCachedAccountTransferRequest request,
             @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         TransactionRequest txnRequest = TransactionRequest.builder()
                 .transactionType("DEPOSIT")
@@ -97,15 +191,17 @@ public class TransactionController {
                 .remarks(request.getRemarks())
                 .build();
 
-        TransactionResponse transaction = transactionService.recordSelfTransaction(accountNo, txnRequest, userIdHeader, authHeader);
+        return idempotencyService.execute(idempotencyKey, "wallet/deposit:" + accountNo, request, TRANSACTION_RESPONSE, () -> {
+            TransactionResponse transaction = transactionService.recordSelfTransaction(accountNo, txnRequest, userIdHeader, authHeader);
 
-        ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
-                .success(true)
-                .message("Deposit recorded successfully")
-                .data(transaction)
-                .build();
+            ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
+                    .success(true)
+                    .message("Deposit recorded successfully")
+                    .data(transaction)
+                    .build();
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
     @PostMapping("/{accountNo}/wallet/withdraw")
@@ -115,7 +211,8 @@ public class TransactionController {
             @PathVariable String accountNo,
             @Valid @RequestBody CashCachedAccountTransferRequest request,
             @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         TransactionRequest txnRequest = TransactionRequest.builder()
                 .transactionType("WITHDRAWAL")
@@ -125,14 +222,16 @@ public class TransactionController {
                 .remarks(request.getRemarks())
                 .build();
 
-        TransactionResponse transaction = transactionService.recordSelfTransaction(accountNo, txnRequest, userIdHeader, authHeader);
+        return idempotencyService.execute(idempotencyKey, "wallet/withdraw:" + accountNo, request, TRANSACTION_RESPONSE, () -> {
+            TransactionResponse transaction = transactionService.recordSelfTransaction(accountNo, txnRequest, userIdHeader, authHeader);
 
-        ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
-                .success(true)
-                .message("Withdrawal recorded successfully")
-                .data(transaction)
-                .build();
+            ApiResponse<TransactionResponse> response = ApiResponse.<TransactionResponse>builder()
+                    .success(true)
+                    .message("Withdrawal recorded successfully")
+                    .data(transaction)
+                    .build();
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 }
@@ -0,0 +1,16 @@
+package com.bt.accounts.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransactionRequest {
+
+    @NotEmpty(message = "At least one posting is required")
+    private List<BatchTransactionItem> postings;
+}
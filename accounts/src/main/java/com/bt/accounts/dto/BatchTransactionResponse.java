@@ -0,0 +1,17 @@
+package com.bt.accounts.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransactionResponse {
+
+    private Integer posted;
+    private Integer rejected;
+    private Integer failed;
+    private List<BatchTransactionResult> results;
+}
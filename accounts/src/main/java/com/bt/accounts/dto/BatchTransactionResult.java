@@ -0,0 +1,25 @@
+package com.bt.accounts.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransactionResult {
+
+    public enum Status {
+        POSTED,
+        REJECTED,
+        FAILED
+    }
+
+    private Integer index;
+    private String accountNo;
+    private Status status;
+    private String transactionId;
+    private BigDecimal balanceAfter;
+    private String error;
+}
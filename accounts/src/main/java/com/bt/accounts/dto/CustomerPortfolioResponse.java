@@ -0,0 +1,38 @@
+package com.bt.accounts.dto;
+
+import com.bt.accounts.entity.CustomerPortfolio;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerPortfolioResponse {
+
+    private String customerId;
+    private Integer accountCount;
+    private Integer activeAccountCount;
+    private BigDecimal totalPrincipal;
+    private BigDecimal totalBalance;
+    private BigDecimal totalInterestAccrued;
+    private String nextMaturityAccountNo;
+    private LocalDateTime nextMaturityDate;
+    private LocalDateTime updatedAt;
+
+    public static CustomerPortfolioResponse fromEntity(CustomerPortfolio portfolio) {
+        return CustomerPortfolioResponse.builder()
+                .customerId(portfolio.getCustomerId())
+                .accountCount(portfolio.getAccountCount())
+                .activeAccountCount(portfolio.getActiveAccountCount())
+                .totalPrincipal(portfolio.getTotalPrincipal())
+                .totalBalance(portfolio.getTotalBalance())
+                .totalInterestAccrued(portfolio.getTotalInterestAccrued())
+                .nextMaturityAccountNo(portfolio.getNextMaturityAccountNo())
+                .nextMaturityDate(portfolio.getNextMaturityDate())
+                .updatedAt(portfolio.getUpdatedAt())
+                .build();
+    }
+}
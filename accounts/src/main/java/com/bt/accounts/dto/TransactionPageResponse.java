@@ -0,0 +1,17 @@
+package com.bt.accounts.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPageResponse {
+
+    private List<TransactionResponse> items;
+    private String nextCursor;
+    private Boolean hasMore;
+    private Integer limit;
+}
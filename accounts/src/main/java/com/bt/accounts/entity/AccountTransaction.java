@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "account_transactions", indexes = {
-        @Index(name = "idx_account_no", columnList = "account_no"),
+        @Index(name = "idx_account_txn_date_id", columnList = "account_no, transaction_date, id"),
+        @Index(name = "idx_account_txn_id", columnList = "account_no, id"),
         @Index(name = "idx_transaction_date", columnList = "transaction_date"),
         @Index(name = "idx_transaction_type", columnList = "transaction_type")
 })
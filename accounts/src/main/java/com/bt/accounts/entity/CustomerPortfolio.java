@@ -0,0 +1,66 @@
+package com.bt.accounts.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One row per customer summarising their FD accounts. Totals cover active
+ * accounts only. Maintained by
+ * {@link com.bt.accounts.service.CustomerPortfolioService}.
+ */
+@Entity
+@Table(name = "customer_portfolios")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerPortfolio {
+
+    @Id
+    @Column(name = "customer_id", length = 64)
+    private String customerId;
+
+    @Column(name = "account_count", nullable = false)
+    private Integer accountCount;
+
+    @Column(name = "active_account_count", nullable = false)
+    private Integer activeAccountCount;
+
+    @Column(name = "total_principal", nullable = false, precision = 38, scale = 18)
+    private BigDecimal totalPrincipal;
+
+    @Column(name = "total_balance", nullable = false, precision = 38, scale = 18)
+    private BigDecimal totalBalance;
+
+    @Column(name = "total_interest_accrued", nullable = false, precision = 38, scale = 18)
+    private BigDecimal totalInterestAccrued;
+
+    @Column(name = "next_maturity_account_no", length = 50)
+    private String nextMaturityAccountNo;
+
+    @Column(name = "next_maturity_date")
+    private LocalDateTime nextMaturityDate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
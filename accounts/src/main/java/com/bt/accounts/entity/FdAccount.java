@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 @Table(name = "fd_accounts", indexes = {
         @Index(name = "idx_account_no", columnList = "account_no", unique = true),
         @Index(name = "idx_customer_id", columnList = "customer_id"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_status", columnList = "status"),
+        @Index(name = "idx_status_next_accrual", columnList = "status, next_interest_accrual_at"),
+        @Index(name = "idx_status_next_payout", columnList = "status, next_payout_at")
 })
 @Getter
 @Setter
@@ -49,6 +51,11 @@ public class FdAccount {
     @Column(name = "product_max_tenure_months")
     private Integer productMaxTenureMonths;
 
+    // Written on insert and afterwards only by FdAccountRepository.updateCurrentBalance,
+    // so saving a stale copy of the account can never roll the balance back.
+    @Column(name = "current_balance", precision = 38, scale = 18, updatable = false)
+    private BigDecimal currentBalance;
+
     @Column(name = "maturity_amount", precision = 38, scale = 18)
     private BigDecimal maturityAmount;
 
@@ -114,6 +121,9 @@ public class FdAccount {
         if (baseInterestRate == null) {
             baseInterestRate = interestRate;
         }
+        if (currentBalance == null) {
+            currentBalance = principalAmount;
+        }
         if (createdAt != null) {
             Integer tenure = productMaxTenureMonths != null ? productMaxTenureMonths : tenureMonths;
             if (maturityDate == null && tenure != null && tenure > 0) {
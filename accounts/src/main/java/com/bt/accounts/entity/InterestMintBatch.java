@@ -0,0 +1,79 @@
+package com.bt.accounts.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One on-chain mint covering the interest credited to many accounts. The
+ * accounts it covers are the {@link InterestMintItem} rows carrying its id.
+ */
+@Entity
+@Table(name = "interest_mint_batches", indexes = {
+        @Index(name = "idx_mint_batch_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestMintBatch {
+
+    public enum Status {
+        PENDING,
+        MINTED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 38, scale = 18)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_hash", length = 80)
+    private String transactionHash;
+
+    @Column(name = "ledger_entry_id")
+    private Long ledgerEntryId;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    void assignTimestamp() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bt.accounts.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Interest credited to an account that still has to be, or has been, backed
+ * by a mint. Written in the same transaction as the {@code INTEREST_CREDIT}
+ * row. {@code batchId} stays empty until a mint batch claims the row.
+ */
+@Entity
+@Table(name = "interest_mint_items", indexes = {
+        @Index(name = "idx_mint_item_batch", columnList = "batch_id, id"),
+        @Index(name = "idx_mint_item_account", columnList = "account_no")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestMintItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "batch_id")
+    private Long batchId;
+
+    @Column(name = "account_no", nullable = false, length = 50)
+    private String accountNo;
+
+    @Column(name = "transaction_id", nullable = false, length = 50)
+    private String transactionId;
+
+    @Column(name = "amount", nullable = false, precision = 38, scale = 18)
+    private BigDecimal amount;
+
+    @Column(name = "accrued_for", nullable = false)
+    private LocalDateTime accruedFor;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void assignTimestamp() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bt.accounts.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published on {@link KafkaTopics#ACCOUNT_CREATED} and
+ * {@link KafkaTopics#ACCOUNT_UPDATED}, keyed by account number. Transaction
+ * fields are only set for {@code TRANSACTION_RECORDED}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String ACCOUNT_CREATED = "ACCOUNT_CREATED";
+    public static final String ACCOUNT_CLOSED = "ACCOUNT_CLOSED";
+    public static final String TRANSACTION_RECORDED = "TRANSACTION_RECORDED";
+
+    private Long eventId;
+    private String eventType;
+    private String accountNo;
+    private String customerId;
+    private String productCode;
+    private String status;
+    private BigDecimal currentBalance;
+    private String transactionId;
+    private String transactionType;
+    private BigDecimal amount;
+    private String actor;
+    private LocalDateTime occurredAt;
+}
@@ -15,6 +15,7 @@ public class KafkaTopics {
     public static final String PRODUCT_UPDATED = "product.updated";
     public static final String PRODUCT_DETAILS_REQUEST = "product.details.request";
     public static final String PRODUCT_DETAILS_RESPONSE = "product.details.response";
+    public static final String PRODUCT_CATALOG = "product.catalog";
 
     // FD Calculator Service Topics
     public static final String FD_CALCULATION_REQUEST = "fd.calculation.request";
@@ -25,6 +26,7 @@ public class KafkaTopics {
     // Account Service Topics
     public static final String ACCOUNT_CREATED = "account.created";
     public static final String ACCOUNT_UPDATED = "account.updated";
+    public static final String ACCOUNTS_REPLY = "accounts.reply";
 
     private KafkaTopics() {
         // Utility class
@@ -0,0 +1,26 @@
+package com.bt.accounts.event;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * The absolute time after which a request's caller no longer waits for the
+ * reply, carried in the {@value #HEADER} record header as epoch milliseconds.
+ * Requests without the header have no deadline.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "x-request-deadline";
+
+    private RequestDeadline() {
+    }
+
+    public static <K, V> ProducerRecord<K, V> attach(ProducerRecord<K, V> record, Instant deadline) {
+        if (deadline != null) {
+            record.headers().add(HEADER, ByteBuffer.allocate(Long.BYTES).putLong(deadline.toEpochMilli()).array());
+        }
+        return record;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bt.accounts.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one in-flight request.
+ * The first caller runs the loader; callers arriving before it completes get
+ * the same result. Nothing is cached once the request finishes.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        calls.incrementAndGet();
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        executions.incrementAndGet();
+        try {
+            loader.get().whenComplete((value, error) -> {
+                inFlight.remove(key, leader);
+                if (error != null) {
+                    leader.completeExceptionally(error);
+                } else {
+                    leader.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+        }
+        return leader.copy();
+    }
+
+    public Map<String, Object> metrics() {
+        long totalCalls = calls.get();
+        long totalExecutions = executions.get();
+        long coalesced = totalCalls - totalExecutions;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("calls", totalCalls);
+        metrics.put("executions", totalExecutions);
+        metrics.put("coalesced", coalesced);
+        metrics.put("coalescingRatio", totalCalls == 0 ? 0.0 : (double) coalesced / totalCalls);
+        metrics.put("inFlight", inFlight.size());
+        return metrics;
+    }
+}
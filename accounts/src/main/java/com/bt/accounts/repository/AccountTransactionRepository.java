@@ -1,11 +1,13 @@
 package com.bt.accounts.repository;
 
 import com.bt.accounts.entity.AccountTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,19 @@ public interface AccountTransactionRepository extends JpaRepository<AccountTrans
 
     List<AccountTransaction> findByAccountNoOrderByTransactionDateDesc(String accountNo);
 
+    /**
+     * The most recently inserted row, whose balanceAfter is the running balance.
+     * Ordered by id rather than transaction date because accrual credits carry
+     * the date of the period they cover, which may be earlier than rows
+     * already posted.
+     */
+    Optional<AccountTransaction> findFirstByAccountNoOrderByIdDesc(String accountNo);
+
+    /** Bulk form of {@link #findFirstByAccountNoOrderByIdDesc}: the latest inserted row per account. */
+    @Query("SELECT t FROM AccountTransaction t WHERE t.accountNo IN :accountNos " +
+            "AND t.id = (SELECT MAX(n.id) FROM AccountTransaction n WHERE n.accountNo = t.accountNo)")
+    List<AccountTransaction> findLatestByAccountNoIn(@Param("accountNos") Collection<String> accountNos);
+
     Optional<AccountTransaction> findTopByAccountNoAndTransactionTypeOrderByTransactionDateDesc(
             String accountNo, AccountTransaction.TransactionType transactionType);
 
@@ -34,6 +49,23 @@ public interface AccountTransactionRepository extends JpaRepository<AccountTrans
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * One keyset page, newest first: rows strictly older than the
+     * {@code (beforeDate, beforeId)} cursor and no older than {@code from}.
+     * Served from the {@code (account_no, transaction_date, id)} index however
+     * deep the page is.
+     */
+    @Query("SELECT t FROM AccountTransaction t WHERE t.accountNo = :accountNo " +
+            "AND t.transactionDate >= :from " +
+            "AND (t.transactionDate < :beforeDate OR (t.transactionDate = :beforeDate AND t.id < :beforeId)) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<AccountTransaction> findPageBefore(
+            @Param("accountNo") String accountNo,
+            @Param("from") LocalDateTime from,
+            @Param("beforeDate") LocalDateTime beforeDate,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
     @Query("SELECT COUNT(t) FROM AccountTransaction t WHERE t.accountNo = :accountNo")
     Long countByAccountNo(@Param("accountNo") String accountNo);
 
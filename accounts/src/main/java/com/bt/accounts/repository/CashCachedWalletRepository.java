@@ -1,14 +1,25 @@
 package com.bt.accounts.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.bt.accounts.entity.CashCachedWallet;
 
+import jakarta.persistence.LockModeType;
+
 public interface CashCachedWalletRepository extends JpaRepository<CashCachedWallet, Long> {
 
     Optional<CashCachedWallet> findByCustomerId(String customerId);
 
     boolean existsByCustomerId(String customerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM CashCachedWallet w WHERE w.customerId IN :customerIds ORDER BY w.customerId")
+    List<CashCachedWallet> findByCustomerIdInForUpdate(@Param("customerIds") Collection<String> customerIds);
 }
@@ -0,0 +1,35 @@
+package com.bt.accounts.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bt.accounts.entity.CustomerPortfolio;
+
+public interface CustomerPortfolioRepository extends JpaRepository<CustomerPortfolio, String> {
+
+    @Modifying
+    @Query("UPDATE CustomerPortfolio p SET p.totalBalance = p.totalBalance + :balanceDelta, "
+            + "p.totalInterestAccrued = p.totalInterestAccrued + :interestDelta, p.updatedAt = :updatedAt "
+            + "WHERE p.customerId = :customerId")
+    int applyDelta(@Param("customerId") String customerId, @Param("balanceDelta") BigDecimal balanceDelta,
+            @Param("interestDelta") BigDecimal interestDelta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT p.customerId FROM CustomerPortfolio p WHERE p.customerId IN :customerIds")
+    List<String> findExistingCustomerIds(@Param("customerIds") Collection<String> customerIds);
+
+    /**
+     * Reads the columns a portfolio is built from as scalars, so the values come
+     * from the database rather than from accounts already loaded in the session.
+     */
+    @Query("SELECT new com.bt.accounts.repository.PortfolioAccountSnapshot(a.accountNo, "
+            + "a.status, a.principalAmount, a.currentBalance, a.totalInterestAccrued, a.maturityDate, "
+            + "a.nextPayoutAt, a.createdAt, a.tenureMonths) FROM FdAccount a WHERE a.customerId = :customerId")
+    List<PortfolioAccountSnapshot> findAccountSnapshots(@Param("customerId") String customerId);
+}
@@ -1,10 +1,19 @@
 package com.bt.accounts.repository;
 
 import com.bt.accounts.entity.FdAccount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +22,25 @@ public interface FdAccountRepository extends JpaRepository<FdAccount, Long> {
 
     Optional<FdAccount> findByAccountNo(String accountNo);
 
+    /**
+     * Loads the account with a row lock held until the surrounding transaction
+     * ends. Balance-changing writes take it first, so writes to one account are
+     * applied one at a time while other accounts proceed in parallel.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "10000"))
+    @Query("SELECT a FROM FdAccount a WHERE a.accountNo = :accountNo")
+    Optional<FdAccount> findByAccountNoForUpdate(@Param("accountNo") String accountNo);
+
+    /**
+     * Row-locks a set of accounts in account number order, so concurrent batches
+     * always lock in the same order and cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "10000"))
+    @Query("SELECT a FROM FdAccount a WHERE a.accountNo IN :accountNos ORDER BY a.accountNo")
+    List<FdAccount> findByAccountNoInForUpdate(@Param("accountNos") Collection<String> accountNos);
+
     List<FdAccount> findByCustomerId(String customerId);
 
     List<FdAccount> findByCustomerIdAndStatus(String customerId, FdAccount.AccountStatus status);
@@ -21,8 +49,40 @@ public interface FdAccountRepository extends JpaRepository<FdAccount, Long> {
 
     List<FdAccount> findByStatus(FdAccount.AccountStatus status);
 
-    @Query("SELECT COUNT(a) FROM FdAccount a WHERE a.branchCode = :branchCode AND a.createdAt >= CURRENT_DATE")
-    Long countTodayAccountsByBranch(@Param("branchCode") String branchCode);
+    /**
+     * Next chunk of accounts whose interest accrual is due, in
+     * (next_interest_accrual_at, id) order starting after the given key. Served
+     * by the (status, next_interest_accrual_at) index, so the cost follows the
+     * number of due accounts rather than the size of the table. Only accounts in
+     * the given {@code id % shardCount} shards are returned.
+     */
+    @Query("SELECT a FROM FdAccount a WHERE a.status = :status AND a.nextInterestAccrualAt <= :now "
+            + "AND (a.nextInterestAccrualAt > :afterAt OR (a.nextInterestAccrualAt = :afterAt AND a.id > :afterId)) "
+            + "AND MOD(a.id, :shardCount) IN :shards ORDER BY a.nextInterestAccrualAt, a.id")
+    List<FdAccount> findDueForAccrual(@Param("status") FdAccount.AccountStatus status,
+            @Param("now") LocalDateTime now, @Param("afterAt") LocalDateTime afterAt,
+            @Param("afterId") Long afterId, @Param("shardCount") int shardCount,
+            @Param("shards") Collection<Integer> shards, Pageable pageable);
+
+    /** Same as {@link #findDueForAccrual} for accounts whose payout is due. */
+    @Query("SELECT a FROM FdAccount a WHERE a.status = :status AND a.nextPayoutAt <= :now "
+            + "AND (a.nextPayoutAt > :afterAt OR (a.nextPayoutAt = :afterAt AND a.id > :afterId)) "
+            + "AND MOD(a.id, :shardCount) IN :shards ORDER BY a.nextPayoutAt, a.id")
+    List<FdAccount> findDueForPayout(@Param("status") FdAccount.AccountStatus status,
+            @Param("now") LocalDateTime now, @Param("afterAt") LocalDateTime afterAt,
+            @Param("afterId") Long afterId, @Param("shardCount") int shardCount,
+            @Param("shards") Collection<Integer> shards, Pageable pageable);
+
+    /**
+     * Accounts created before the schedule columns were filled in. Processing
+     * them once writes the columns, after which the due queries find them.
+     */
+    @Query("SELECT a FROM FdAccount a WHERE a.status = :status "
+            + "AND (a.nextInterestAccrualAt IS NULL OR a.nextPayoutAt IS NULL) AND a.id > :afterId "
+            + "AND MOD(a.id, :shardCount) IN :shards ORDER BY a.id")
+    List<FdAccount> findUnscheduled(@Param("status") FdAccount.AccountStatus status,
+            @Param("afterId") Long afterId, @Param("shardCount") int shardCount,
+            @Param("shards") Collection<Integer> shards, Pageable pageable);
 
     @Query("SELECT a FROM FdAccount a WHERE a.customerId = :customerId ORDER BY a.createdAt DESC")
     List<FdAccount> findAllByCustomerIdOrderByCreatedAtDesc(@Param("customerId") String customerId);
@@ -31,4 +91,23 @@ public interface FdAccountRepository extends JpaRepository<FdAccount, Long> {
     Long countByStatus(@Param("status") FdAccount.AccountStatus status);
 
     boolean existsByAccountNo(String accountNo);
+
+    @Query("SELECT a.currentBalance FROM FdAccount a WHERE a.accountNo = :accountNo")
+    Optional<BigDecimal> findCurrentBalanceByAccountNo(@Param("accountNo") String accountNo);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE fd_accounts SET current_balance = :balance WHERE account_no = :accountNo", nativeQuery = true)
+    int updateCurrentBalance(@Param("accountNo") String accountNo, @Param("balance") BigDecimal balance);
+
+    /**
+     * Sets the balance only if it still holds {@code expected}, so a repair
+     * never overwrites a balance that a posting changed after it was read.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE FdAccount a SET a.currentBalance = :balance WHERE a.accountNo = :accountNo "
+            + "AND (a.currentBalance = :expected OR (:expected IS NULL AND a.currentBalance IS NULL))")
+    int repairCurrentBalance(@Param("accountNo") String accountNo, @Param("expected") BigDecimal expected,
+            @Param("balance") BigDecimal balance);
+
+    List<FdAccount> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
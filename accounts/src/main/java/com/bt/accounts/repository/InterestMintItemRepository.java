@@ -0,0 +1,36 @@
+package com.bt.accounts.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bt.accounts.entity.InterestMintItem;
+
+public interface InterestMintItemRepository extends JpaRepository<InterestMintItem, Long> {
+
+    @Query("SELECT i.id FROM InterestMintItem i WHERE i.batchId IS NULL ORDER BY i.id")
+    List<Long> findUnclaimedIds(Pageable pageable);
+
+    /**
+     * Claims items for a batch. Rows another instance claimed first are
+     * skipped, so each item ends up in exactly one batch.
+     */
+    @Modifying
+    @Query("UPDATE InterestMintItem i SET i.batchId = :batchId WHERE i.batchId IS NULL AND i.id IN :ids")
+    int claim(@Param("batchId") Long batchId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE InterestMintItem i SET i.batchId = NULL WHERE i.batchId = :batchId")
+    int release(@Param("batchId") Long batchId);
+
+    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM InterestMintItem i WHERE i.batchId = :batchId")
+    BigDecimal sumAmountByBatchId(@Param("batchId") Long batchId);
+
+    List<InterestMintItem> findByBatchIdOrderById(Long batchId);
+}
@@ -0,0 +1,11 @@
+package com.bt.accounts.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.bt.accounts.entity.FdAccount;
+
+public record PortfolioAccountSnapshot(String accountNo, FdAccount.AccountStatus status, BigDecimal principalAmount,
+        BigDecimal currentBalance, BigDecimal totalInterestAccrued, LocalDateTime maturityDate,
+        LocalDateTime nextPayoutAt, LocalDateTime createdAt, Integer tenureMonths) {
+}
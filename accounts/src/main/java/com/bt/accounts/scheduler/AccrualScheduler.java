@@ -4,24 +4,48 @@ import com.bt.accounts.dto.TransactionRequest;
 import com.bt.accounts.dto.TransactionResponse;
 import com.bt.accounts.entity.AccountTransaction;
 import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.entity.InterestMintBatch;
+import com.bt.accounts.entity.InterestMintItem;
+import com.bt.accounts.service.AccountBalanceService;
 import com.bt.accounts.service.TransactionService;
-import com.bt.accounts.service.CashCachedService;
+import com.bt.accounts.service.BatchTransactionService;
+import com.bt.accounts.service.InterestMintService;
+import com.bt.accounts.service.CustomerPortfolioService;
 import com.bt.accounts.service.PricingRuleEvaluator;
 import com.bt.accounts.exception.ServiceIntegrationException;
-import com.bt.accounts.exception.AccountNotFoundException;
-import com.bt.accounts.repository.AccountTransactionRepository;
 import com.bt.accounts.repository.FdAccountRepository;
 import com.bt.accounts.time.TimeProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.math.RoundingMode;
 
@@ -31,33 +55,224 @@ import java.math.RoundingMode;
 @Slf4j
 public class AccrualScheduler {
 
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final FdAccountRepository accountRepository;
-    private final AccountTransactionRepository txnRepository;
+    private final AccountBalanceService accountBalanceService;
     private final TransactionService transactionService;
-    private final CashCachedService cashCachedService;
+    private final InterestMintService interestMintService;
+    private final BatchTransactionService batchTransactionService;
+    private final TransactionTemplate transactionTemplate;
     private final PricingRuleEvaluator pricingRuleEvaluator;
     private final TimeProvider timeProvider;
+    private final CustomerPortfolioService customerPortfolioService;
+    private final AccrualShardLeases shardLeases;
+
+    @Value("${accounts.accrual.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${accounts.accrual.catch-up-min-periods:2}")
+    private int catchUpMinPeriods;
+
+    @Value("${accounts.accrual.workers:4}")
+    private int workers;
+
+    private ExecutorService workerPool;
+    private Semaphore dispatchPermits;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong accountsProcessed = new AtomicLong();
+    private final AtomicLong accountsFailed = new AtomicLong();
+    private final AtomicLong accountsSkipped = new AtomicLong();
+    private final AtomicLong runDispatched = new AtomicLong();
+    private final AtomicLong runCompleted = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong mintBatches = new AtomicLong();
+    private final AtomicLong mintFailures = new AtomicLong();
+    private final AtomicReference<Instant> lastRunFinishedAt = new AtomicReference<>();
+
+    /**
+     * Accounts are processed by a fixed pool of {@code workers} threads. Each
+     * account is one transaction, so each worker holds at most one pooled
+     * connection at a time and the pool size bounds database use. Workers only
+     * credit interest; the chain is called once the run's accounts are done, see
+     * {@link #settleMints()}. The dispatcher stops reading chunks while two
+     * accounts per worker are already queued.
+     */
+    @PostConstruct
+    void startWorkers() {
+        if (workers < 1) {
+            throw new IllegalArgumentException("accounts.accrual.workers must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "accrual-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatchPermits = new Semaphore(workers * 2);
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workerPool.shutdownNow();
+    }
 
     @Scheduled(fixedDelay = 60_000)
     public void runAccruals() {
         Instant nowInstant = timeProvider.now();
         ZoneId zone = ZoneId.systemDefault();
         LocalDateTime now = LocalDateTime.ofInstant(nowInstant, zone);
-        List<FdAccount> accounts = accountRepository.findAll()
-                .stream()
-                .filter(a -> a.getStatus() == FdAccount.AccountStatus.ACTIVE)
-                .collect(Collectors.toList());
-
-        for (FdAccount a : accounts) {
-            try {
-                processAccountAccrual(a, now);
-            } catch (Exception ex) {
-                log.warn("Accrual failed for account {}: {}", a.getAccountNo(), ex.getMessage());
+        FdAccount.AccountStatus active = FdAccount.AccountStatus.ACTIVE;
+        List<Integer> shards = shardLeases.ownedShards();
+        if (shards.isEmpty()) {
+            log.debug("Accrual run skipped, no shards leased");
+            return;
+        }
+        int shardCount = shardLeases.shardCount();
+
+        // An account that fails in one pass is not retried by a later pass in the same run
+        Set<Long> attempted = ConcurrentHashMap.newKeySet();
+        long started = System.nanoTime();
+        runDispatched.set(0);
+        runCompleted.set(0);
+        shardLeases.runStarted();
+        try {
+            drain((afterAt, afterId) -> accountRepository.findUnscheduled(active, afterId, shardCount, shards,
+                    chunk()), account -> KEYSET_START, attempted, now);
+            drain((afterAt, afterId) -> accountRepository.findDueForAccrual(active, now, afterAt, afterId,
+                    shardCount, shards, chunk()), FdAccount::getNextInterestAccrualAt, attempted, now);
+            drain((afterAt, afterId) -> accountRepository.findDueForPayout(active, now, afterAt, afterId,
+                    shardCount, shards, chunk()), FdAccount::getNextPayoutAt, attempted, now);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Accrual run interrupted after dispatching {} accounts", runDispatched.get());
+        } finally {
+            awaitWorkers();
+            shardLeases.runFinished();
+            settleMints();
+            runs.incrementAndGet();
+            lastRunMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            lastRunFinishedAt.set(Instant.now());
+        }
+        if (runDispatched.get() > 0) {
+            log.info("Accrual run processed {} due accounts in {} ms", runDispatched.get(), lastRunMillis.get());
+        }
+    }
+
+    public Map<String, Object> accrualMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("workers", workers);
+        metrics.put("runs", runs.get());
+        metrics.put("accountsProcessed", accountsProcessed.get());
+        metrics.put("accountsFailed", accountsFailed.get());
+        metrics.put("accountsSkipped", accountsSkipped.get());
+        metrics.put("currentRunDispatched", runDispatched.get());
+        metrics.put("currentRunCompleted", runCompleted.get());
+        metrics.put("mintBatches", mintBatches.get());
+        metrics.put("mintFailures", mintFailures.get());
+        metrics.put("lastRunMillis", lastRunMillis.get());
+        Instant finished = lastRunFinishedAt.get();
+        metrics.put("lastRunFinishedAt", finished != null ? finished.toString() : null);
+        return metrics;
+    }
+
+    /**
+     * Walks one due query in keyset order and hands each account to the worker
+     * pool. The key is taken before the chunk is dispatched, because processing
+     * moves the account's schedule forward.
+     */
+    private void drain(BiFunction<LocalDateTime, Long, List<FdAccount>> chunkAfter,
+            Function<FdAccount, LocalDateTime> sortKey, Set<Long> attempted, LocalDateTime now)
+            throws InterruptedException {
+        LocalDateTime afterAt = KEYSET_START;
+        long afterId = 0L;
+        while (true) {
+            List<FdAccount> accounts = chunkAfter.apply(afterAt, afterId);
+            if (accounts.isEmpty()) {
+                return;
             }
+            FdAccount last = accounts.get(accounts.size() - 1);
+            afterAt = sortKey.apply(last);
+            afterId = last.getId();
 
+            for (FdAccount a : accounts) {
+                if (!attempted.add(a.getId()) || !shardLeases.owns(a.getId())) {
+                    continue;
+                }
+                dispatch(a, now);
+            }
+            if (accounts.size() < chunkSize) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(FdAccount account, LocalDateTime now) throws InterruptedException {
+        dispatchPermits.acquire();
+        runDispatched.incrementAndGet();
+        try {
+            workerPool.execute(() -> {
+                try {
+                    processIfStillDue(account, now);
+                } catch (Exception ex) {
+                    accountsFailed.incrementAndGet();
+                    log.warn("Accrual failed for account {}: {}", account.getAccountNo(), ex.getMessage());
+                } finally {
+                    runCompleted.incrementAndGet();
+                    dispatchPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            dispatchPermits.release();
+            throw ex;
         }
     }
 
+    /**
+     * Processes one account in a single transaction, on a row-locked copy
+     * reloaded from the database. The dispatched copy may be stale: the shard
+     * can move to another instance while the account waits in the queue, and
+     * that instance may already have accrued it. If the schedule no longer
+     * matches what was dispatched the account is skipped, so each period is
+     * credited once and nothing overwrites a newer version of the account.
+     */
+    private void processIfStillDue(FdAccount dispatched, LocalDateTime now) {
+        boolean processed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            FdAccount account = accountRepository.findByAccountNoForUpdate(dispatched.getAccountNo())
+                    .orElse(null);
+            if (account == null || !isUnchanged(dispatched, account)) {
+                return false;
+            }
+            processAccountAccrual(account, now);
+            return true;
+        }));
+        if (processed) {
+            accountsProcessed.incrementAndGet();
+        } else {
+            accountsSkipped.incrementAndGet();
+            log.debug("Accrual skipped for account {}, changed since it was dispatched",
+                    dispatched.getAccountNo());
+        }
+    }
+
+    private boolean isUnchanged(FdAccount dispatched, FdAccount current) {
+        return current.getStatus() == dispatched.getStatus()
+                && Objects.equals(current.getNextInterestAccrualAt(), dispatched.getNextInterestAccrualAt())
+                && Objects.equals(current.getNextPayoutAt(), dispatched.getNextPayoutAt());
+    }
+
+    /** Waits for every dispatched account, so runs never overlap. */
+    private void awaitWorkers() {
+        int all = workers * 2;
+        dispatchPermits.acquireUninterruptibly(all);
+        dispatchPermits.release(all);
+    }
+
+    private Pageable chunk() {
+        return PageRequest.of(0, chunkSize);
+    }
+
     private PricingRuleEvaluator.EvaluationResult evaluatePricing(FdAccount account, BigDecimal balance) {
         try {
             return pricingRuleEvaluator.evaluate(account, balance, null);
@@ -96,59 +311,135 @@ public class AccrualScheduler {
         String accountNo = account.getAccountNo();
         BigDecimal totalAccrued = account.getTotalInterestAccrued() != null ? account.getTotalInterestAccrued()
                 : BigDecimal.ZERO;
+        // Unscheduled accounts get their schedule columns written so the due queries can find them
+        boolean metadataUpdated = account.getNextInterestAccrualAt() == null;
         LocalDateTime nextAccrual = resolveNextAccrual(account);
         LocalDateTime createdAt = account.getCreatedAt() != null ? account.getCreatedAt() : now;
+        if (account.getNextPayoutAt() == null) {
+            LocalDateTime payoutAt = resolvePayoutAt(account, account.getCreatedAt());
+            if (payoutAt != null) {
+                account.setNextPayoutAt(payoutAt);
+                metadataUpdated = true;
+            }
+        }
 
-        boolean metadataUpdated = false;
+        if (isCatchUpDue(nextAccrual, now)) {
+            catchUp(account, nextAccrual, now);
+        } else {
+            while (nextAccrual != null && !nextAccrual.isAfter(now)
+                    && account.getStatus() == FdAccount.AccountStatus.ACTIVE) {
+                BigDecimal currentBalance = calculateCurrentBalance(accountNo);
+                if (applyPricing(account, currentBalance, now)) {
+                    metadataUpdated = true;
+                }
+                BigDecimal interest = annualInterest(account, currentBalance);
 
-        while (nextAccrual != null && !nextAccrual.isAfter(now)
-                && account.getStatus() == FdAccount.AccountStatus.ACTIVE) {
-            BigDecimal currentBalance = calculateCurrentBalance(accountNo);
-            PricingRuleEvaluator.EvaluationResult pricing = evaluatePricing(account, currentBalance);
-            BigDecimal appliedRate = resolveAppliedRate(account, pricing);
-            if (shouldUpdatePricingMetadata(account, pricing, appliedRate)) {
-                account.setInterestRate(appliedRate);
-                account.setActivePricingRuleId(pricing.getRule() != null ? pricing.getRule().getId() : null);
-                account.setActivePricingRuleName(pricing.getRule() != null ? pricing.getRule().getRuleName() : null);
-                account.setPricingRuleAppliedAt(pricing.getRule() != null ? now : null);
+                if (interest.compareTo(BigDecimal.ONE) >= 0) {
+                    creditInterest(account, interest, nextAccrual);
+                    totalAccrued = totalAccrued.add(interest);
+                    log.info("Accrued {} tokens interest for account {} on {}", interest, accountNo,
+                            nextAccrual.toLocalDate());
+                } else {
+                    log.debug("Accrual skipped for account={} on {} due to interest {} < 1", accountNo,
+                            nextAccrual.toLocalDate(), interest);
+                }
+
+                account.setLastInterestAccrualAt(nextAccrual);
+                nextAccrual = nextAccrual.plusYears(1);
+                account.setNextInterestAccrualAt(nextAccrual);
+                account.setTotalInterestAccrued(totalAccrued);
                 metadataUpdated = true;
+
+                if (isAtMaturity(account, nextAccrual)) {
+                    break;
+                }
+            }
+
+            if (metadataUpdated) {
+                accountRepository.save(account);
             }
-            BigDecimal annualRate = account.getInterestRate() != null ? account.getInterestRate() : BigDecimal.ZERO;
-            BigDecimal annualRateDecimal = annualRate.divide(BigDecimal.valueOf(100));
-            BigDecimal interestRaw = currentBalance.multiply(annualRateDecimal);
-            BigDecimal interest = interestRaw.setScale(0, RoundingMode.CEILING);
+        }
 
+        if (shouldFinalizeMaturity(account, createdAt, now)) {
+            BigDecimal currentBalance = calculateCurrentBalance(accountNo);
+            finalizeMaturity(account, currentBalance, now);
+        }
+    }
+
+    private boolean isCatchUpDue(LocalDateTime nextAccrual, LocalDateTime now) {
+        return nextAccrual != null && catchUpMinPeriods > 0
+                && !nextAccrual.plusYears(catchUpMinPeriods - 1L).isAfter(now);
+    }
+
+    /**
+     * Accrues every period the account is behind on in one pass. Pricing is
+     * evaluated once, and each period compounds on the previous one in memory.
+     * The credits, their pending mints and the account's new schedule are then
+     * written in one transaction with batch inserts, and the run settles them
+     * with its usual aggregated mint.
+     */
+    private void catchUp(FdAccount account, LocalDateTime nextAccrual, LocalDateTime now) {
+        String accountNo = account.getAccountNo();
+        BigDecimal balance = calculateCurrentBalance(accountNo);
+        applyPricing(account, balance, now);
+        BigDecimal totalAccrued = account.getTotalInterestAccrued() != null ? account.getTotalInterestAccrued()
+                : BigDecimal.ZERO;
+
+        int periods = 0;
+        List<BatchTransactionService.InterestCredit> credits = new ArrayList<>();
+        while (!nextAccrual.isAfter(now)) {
+            BigDecimal interest = annualInterest(account, balance);
             if (interest.compareTo(BigDecimal.ONE) >= 0) {
-                mintInterestTokens(account, interest, nextAccrual);
-                TransactionResponse txn = creditInterest(account, interest, nextAccrual);
-                currentBalance = txn.getBalanceAfter();
+                credits.add(new BatchTransactionService.InterestCredit(interest, nextAccrual,
+                        "Annual interest credit", "System accrual"));
+                balance = balance.add(interest);
                 totalAccrued = totalAccrued.add(interest);
-                log.info("Accrued {} tokens interest for account {} on {}", interest, accountNo,
-                        nextAccrual.toLocalDate());
-            } else {
-                log.debug("Accrual skipped for account={} on {} due to interest {} < 1", accountNo,
-                        nextAccrual.toLocalDate(), interest);
             }
-
+            periods++;
             account.setLastInterestAccrualAt(nextAccrual);
             nextAccrual = nextAccrual.plusYears(1);
             account.setNextInterestAccrualAt(nextAccrual);
-            account.setTotalInterestAccrued(totalAccrued);
-            metadataUpdated = true;
-
             if (isAtMaturity(account, nextAccrual)) {
                 break;
             }
         }
+        account.setTotalInterestAccrued(totalAccrued);
 
-        if (metadataUpdated) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<BatchTransactionService.PostedCredit> posted = batchTransactionService
+                    .postInterestCredits(accountNo, credits);
+            interestMintService.recordPending(posted.stream()
+                    .map(credit -> InterestMintItem.builder()
+                            .accountNo(accountNo)
+                            .transactionId(credit.transactionId())
+                            .amount(credit.amount())
+                            .accruedFor(credit.accruedFor())
+                            .build())
+                    .collect(Collectors.toList()));
             accountRepository.save(account);
-        }
+        });
+        log.info("Caught up {} accrual periods for account {}: {} credits, balance {}", periods, accountNo,
+                credits.size(), balance);
+    }
 
-        if (shouldFinalizeMaturity(account, createdAt, now)) {
-            BigDecimal currentBalance = calculateCurrentBalance(accountNo);
-            finalizeMaturity(account, currentBalance, now);
+    /** Refreshes the account's rate from its pricing rule and returns whether anything changed. */
+    private boolean applyPricing(FdAccount account, BigDecimal balance, LocalDateTime now) {
+        PricingRuleEvaluator.EvaluationResult pricing = evaluatePricing(account, balance);
+        BigDecimal appliedRate = resolveAppliedRate(account, pricing);
+        if (!shouldUpdatePricingMetadata(account, pricing, appliedRate)) {
+            return false;
         }
+        account.setInterestRate(appliedRate);
+        account.setActivePricingRuleId(pricing.getRule() != null ? pricing.getRule().getId() : null);
+        account.setActivePricingRuleName(pricing.getRule() != null ? pricing.getRule().getRuleName() : null);
+        account.setPricingRuleAppliedAt(pricing.getRule() != null ? now : null);
+        return true;
+    }
+
+    private BigDecimal annualInterest(FdAccount account, BigDecimal balance) {
+        BigDecimal annualRate = account.getInterestRate() != null ? account.getInterestRate() : BigDecimal.ZERO;
+        BigDecimal annualRateDecimal = annualRate.divide(BigDecimal.valueOf(100));
+        return balance.multiply(annualRateDecimal).setScale(0, RoundingMode.CEILING);
     }
 
     private LocalDateTime resolveNextAccrual(FdAccount account) {
@@ -173,32 +464,39 @@ public class AccrualScheduler {
     }
 
     private BigDecimal calculateCurrentBalance(String accountNo) {
-        List<AccountTransaction> txns = txnRepository.findByAccountNoOrderByTransactionDateDesc(accountNo);
-        if (txns.isEmpty()) {
-            FdAccount account = accountRepository.findByAccountNo(accountNo)
-                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo));
-            return account.getPrincipalAmount();
-        }
-        return txns.get(0).getBalanceAfter();
+        return accountBalanceService.currentBalance(accountNo);
     }
 
+    /** Records the credit and its pending mint together, so neither can exist without the other. */
     private TransactionResponse creditInterest(FdAccount account, BigDecimal amount, LocalDateTime when) {
-        return transactionService.recordTransaction(account.getAccountNo(), TransactionRequest.builder()
-                .transactionType(AccountTransaction.TransactionType.INTEREST_CREDIT.name())
-                .amount(amount)
-                .description("Annual interest credit")
-                .remarks("System accrual")
-                .build(), when);
+        return transactionTemplate.execute(status -> {
+            TransactionResponse txn = transactionService.recordTransaction(account.getAccountNo(),
+                    TransactionRequest.builder()
+                            .transactionType(AccountTransaction.TransactionType.INTEREST_CREDIT.name())
+                            .amount(amount)
+                            .description("Annual interest credit")
+                            .remarks("System accrual")
+                            .build(), when);
+            interestMintService.recordPending(account.getAccountNo(), txn.getTransactionId(), amount, when);
+            return txn;
+        });
     }
 
-    private void mintInterestTokens(FdAccount account, BigDecimal amount, LocalDateTime when) {
-        String reference = "Interest accrual " + account.getAccountNo() + " @ " + when.toLocalDate();
+    /**
+     * Submits one mint per batch of pending interest credits, instead of one per
+     * account. Credits left over by an earlier failed mint are picked up here too.
+     */
+    private void settleMints() {
         try {
-            cashCachedService.mintForInterest(amount, reference);
-            log.info("Minted {} CCHD interest backing for account {}", amount, account.getAccountNo());
+            for (InterestMintBatch batch : interestMintService.settlePending()) {
+                mintBatches.incrementAndGet();
+                if (batch.getStatus() == InterestMintBatch.Status.FAILED) {
+                    mintFailures.incrementAndGet();
+                }
+            }
         } catch (Exception ex) {
-            log.error("Minting interest failed for account {}: {}", account.getAccountNo(), ex.getMessage(), ex);
-            throw ex;
+            mintFailures.incrementAndGet();
+            log.error("Settling interest mints failed: {}", ex.getMessage(), ex);
         }
     }
 
@@ -225,32 +523,29 @@ public class AccrualScheduler {
         account.setNextInterestAccrualAt(null);
         account.setNextPayoutAt(null);
         accountRepository.save(account);
+        customerPortfolioService.rebuild(account.getCustomerId());
     }
 
     private boolean shouldFinalizeMaturity(FdAccount account, LocalDateTime createdAt, LocalDateTime now) {
-        LocalDateTime payoutAt = account.getNextPayoutAt();
-        if (payoutAt == null) {
-            Integer tenure = account.getTenureMonths();
-            Integer productMax = account.getProductMaxTenureMonths();
-            int effectiveTenure = tenure != null ? tenure : (productMax != null ? productMax : 0);
-            if (effectiveTenure > 0 && createdAt != null) {
-                payoutAt = createdAt.plusMonths(effectiveTenure);
-            }
-        }
+        LocalDateTime payoutAt = resolvePayoutAt(account, createdAt);
         return payoutAt != null && !payoutAt.isAfter(now) && account.getStatus() == FdAccount.AccountStatus.ACTIVE;
     }
 
     private boolean isAtMaturity(FdAccount account, LocalDateTime nextAccrual) {
+        LocalDateTime payoutAt = resolvePayoutAt(account, account.getCreatedAt());
+        return payoutAt != null && !nextAccrual.isBefore(payoutAt);
+    }
+
+    private LocalDateTime resolvePayoutAt(FdAccount account, LocalDateTime createdAt) {
         LocalDateTime payoutAt = account.getNextPayoutAt();
         if (payoutAt == null) {
             Integer tenure = account.getTenureMonths();
             Integer productMax = account.getProductMaxTenureMonths();
             int effectiveTenure = tenure != null ? tenure : (productMax != null ? productMax : 0);
-            LocalDateTime createdAt = account.getCreatedAt();
             if (effectiveTenure > 0 && createdAt != null) {
                 payoutAt = createdAt.plusMonths(effectiveTenure);
             }
         }
-        return payoutAt != null && !nextAccrual.isBefore(payoutAt);
+        return payoutAt;
     }
 }
@@ -0,0 +1,191 @@
+package com.bt.accounts.scheduler;
+
+import com.bt.accounts.service.RedisDistributedLockService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Splits accrual work across accounts instances. Accounts are divided into
+ * {@code shards} buckets by {@code id % shards}, and each bucket is a Redis
+ * lease taken through {@link RedisDistributedLockService}. Only the holder of a
+ * shard's lease accrues that shard's accounts.
+ *
+ * Every heartbeat an instance records itself in a members set, renews the
+ * leases it holds and works out its fair share from the number of live
+ * members. It releases shards above that share and picks up free ones up to
+ * it, so shards move to new instances as they join and are taken over when a
+ * lease from a dead instance expires. Shards are not released while an accrual
+ * run is in progress, since accounts from them may still be queued.
+ *
+ * With partitioning disabled the instance owns every shard, which is only
+ * safe when a single replica runs.
+ */
+@Component
+@Slf4j
+public class AccrualShardLeases {
+
+    private static final String LEASE_PREFIX = "accounts:accrual-shard:";
+    private static final String MEMBERS_KEY = "accounts:accrual:members";
+
+    private final RedisDistributedLockService lockService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LongSupplier clock;
+    private final boolean partitioningEnabled;
+    private final int shardCount;
+    private final long leaseSeconds;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Integer, String> held = new ConcurrentHashMap<>();
+    private volatile boolean runInProgress;
+
+    public AccrualShardLeases(RedisDistributedLockService lockService, StringRedisTemplate stringRedisTemplate,
+            @Value("${accounts.accrual.partitioning-enabled:true}") boolean partitioningEnabled,
+            @Value("${accounts.accrual.shards:64}") int shardCount,
+            @Value("${accounts.accrual.lease-seconds:30}") long leaseSeconds) {
+        this(lockService, stringRedisTemplate, System::currentTimeMillis, partitioningEnabled, shardCount,
+                leaseSeconds);
+    }
+
+    AccrualShardLeases(RedisDistributedLockService lockService, StringRedisTemplate stringRedisTemplate,
+            LongSupplier clock, boolean partitioningEnabled, int shardCount, long leaseSeconds) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("accounts.accrual.shards must be positive");
+        }
+        this.lockService = lockService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clock = clock;
+        this.partitioningEnabled = partitioningEnabled;
+        this.shardCount = shardCount;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /** Shards this instance may process right now, in ascending order. */
+    public List<Integer> ownedShards() {
+        if (!partitioningEnabled) {
+            List<Integer> all = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                all.add(shard);
+            }
+            return all;
+        }
+        return new ArrayList<>(new TreeSet<>(held.keySet()));
+    }
+
+    /** Checked per account, so work stops soon after a lease is lost or handed over. */
+    public boolean owns(long accountId) {
+        return !partitioningEnabled || held.containsKey(shardOf(accountId));
+    }
+
+    /** Holds shards above the fair share until {@link #runFinished()}. */
+    public void runStarted() {
+        runInProgress = true;
+    }
+
+    public void runFinished() {
+        runInProgress = false;
+    }
+
+    public int shardOf(long accountId) {
+        return (int) Math.floorMod(accountId, (long) shardCount);
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.accrual.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (!partitioningEnabled) {
+            return;
+        }
+        try {
+            int fairShare = fairShare(registerMember());
+            renewHeld();
+            releaseAbove(fairShare);
+            acquireUpTo(fairShare);
+        } catch (DataAccessException ex) {
+            // Without Redis we cannot prove ownership, so stop processing until it is back
+            log.warn("Accrual shard heartbeat failed, dropping {} leases: {}", held.size(), ex.getMessage());
+            held.clear();
+        }
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        if (!partitioningEnabled) {
+            return;
+        }
+        try {
+            held.forEach((shard, lockValue) -> lockService.releaseLock(LEASE_PREFIX + shard, lockValue));
+            stringRedisTemplate.opsForZSet().remove(MEMBERS_KEY, instanceId);
+        } catch (DataAccessException ex) {
+            log.warn("Could not release accrual shard leases on shutdown: {}", ex.getMessage());
+        }
+        held.clear();
+    }
+
+    /** Records this instance as alive and returns how many instances are. */
+    private long registerMember() {
+        long now = clock.getAsLong();
+        stringRedisTemplate.opsForZSet().add(MEMBERS_KEY, instanceId, now);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(MEMBERS_KEY, 0, now - leaseSeconds * 1000);
+        Long members = stringRedisTemplate.opsForZSet().zCard(MEMBERS_KEY);
+        return members != null && members > 0 ? members : 1;
+    }
+
+    private int fairShare(long members) {
+        return (int) ((shardCount + members - 1) / members);
+    }
+
+    private void renewHeld() {
+        held.entrySet().removeIf(entry -> {
+            boolean renewed = lockService.extendLock(LEASE_PREFIX + entry.getKey(), entry.getValue(), leaseSeconds);
+            if (!renewed) {
+                log.warn("Lost accrual shard {} lease", entry.getKey());
+            }
+            return !renewed;
+        });
+    }
+
+    private void releaseAbove(int fairShare) {
+        if (runInProgress) {
+            return;
+        }
+        List<Integer> shards = new ArrayList<>(new TreeSet<>(held.keySet()));
+        for (int i = shards.size() - 1; i >= 0 && held.size() > fairShare; i--) {
+            Integer shard = shards.get(i);
+            String lockValue = held.remove(shard);
+            lockService.releaseLock(LEASE_PREFIX + shard, lockValue);
+            log.info("Released accrual shard {} for rebalancing", shard);
+        }
+    }
+
+    private void acquireUpTo(int fairShare) {
+        // Start at a random shard so instances joining together do not contend for the same leases
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount && held.size() < fairShare; i++) {
+            int shard = (start + i) % shardCount;
+            if (held.containsKey(shard)) {
+                continue;
+            }
+            String lockValue = lockService.acquireLock(LEASE_PREFIX + shard, leaseSeconds);
+            if (lockValue != null) {
+                held.put(shard, lockValue);
+                log.info("Acquired accrual shard {}", shard);
+            }
+        }
+    }
+}
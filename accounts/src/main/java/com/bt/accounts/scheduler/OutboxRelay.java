@@ -0,0 +1,151 @@
+package com.bt.accounts.scheduler;
+
+import com.bt.accounts.entity.OutboxEvent;
+import com.bt.accounts.event.AccountEvent;
+import com.bt.accounts.repository.OutboxEventRepository;
+import com.bt.accounts.service.RedisDistributedLockService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka. One instance at a time holds the relay lock
+ * and sends rows in id order, keyed by account number, so all events for an
+ * account land on one partition in the order they were committed. The whole
+ * batch is sent before waiting for acknowledgements, and rows are marked
+ * published only up to the first failed send. Delivery is at least once:
+ * consumers should ignore an {@code eventId} they have already seen.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LOCK_KEY = "accounts:outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RedisDistributedLockService lockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${accounts.outbox.relay-enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${accounts.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${accounts.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${accounts.outbox.send-timeout-seconds:30}")
+    private long sendTimeoutSeconds;
+
+    @Value("${accounts.outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Scheduled(fixedDelayString = "${accounts.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!relayEnabled) {
+            return;
+        }
+        long lockSeconds = sendTimeoutSeconds * 2;
+        String lockValue;
+        try {
+            lockValue = lockService.acquireLock(LOCK_KEY, lockSeconds);
+        } catch (DataAccessException ex) {
+            log.warn("Outbox relay skipped, lock store unavailable: {}", ex.getMessage());
+            return;
+        }
+        if (lockValue == null) {
+            return;
+        }
+        try {
+            for (int run = 0; run < maxBatchesPerRun; run++) {
+                if (publishBatch() < batchSize || !lockService.extendLock(LOCK_KEY, lockValue, lockSeconds)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Outbox relay run failed: {}", ex.getMessage(), ex);
+        } finally {
+            lockService.releaseLock(LOCK_KEY, lockValue);
+        }
+    }
+
+    /**
+     * Sends one batch and returns how many rows were marked published. Anything
+     * short of a full batch ends the run.
+     */
+    int publishBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent row : batch) {
+            AccountEvent event = readEvent(row);
+            sends.add(event != null ? kafkaTemplate.send(row.getTopic(), row.getMessageKey(), event)
+                    : CompletableFuture.completedFuture(null));
+        }
+
+        List<Long> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(sendTimeoutSeconds, TimeUnit.SECONDS);
+                published.add(batch.get(i).getId());
+            } catch (Exception ex) {
+                if (ex instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                log.warn("Outbox event {} not published, will retry: {}", batch.get(i).getId(), ex.getMessage());
+                break;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markPublished(published, now));
+            log.debug("Published {} outbox events", published.size());
+        }
+        return published.size() == batch.size() ? published.size() : 0;
+    }
+
+    @Scheduled(cron = "${accounts.outbox.cleanup-cron:0 15 3 * * *}")
+    @Transactional
+    public void purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} published outbox events older than {} days", deleted, retentionDays);
+        }
+    }
+
+    private AccountEvent readEvent(OutboxEvent row) {
+        try {
+            AccountEvent event = objectMapper.readValue(row.getPayload(), AccountEvent.class);
+            event.setEventId(row.getId());
+            return event;
+        } catch (JsonProcessingException ex) {
+            // Cannot be retried into success; skip it rather than block the queue
+            log.error("Dropping unreadable outbox event {}: {}", row.getId(), ex.getMessage());
+            return null;
+        }
+    }
+}
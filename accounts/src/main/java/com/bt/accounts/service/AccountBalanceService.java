@@ -0,0 +1,204 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.exception.AccountNotFoundException;
+import com.bt.accounts.repository.AccountTransactionRepository;
+import com.bt.accounts.repository.FdAccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the running balance kept on {@link FdAccount#getCurrentBalance()}. The
+ * balance is written in the same transaction as each {@link AccountTransaction}
+ * insert, so reads are a single-row lookup however long the history is. The
+ * transaction ledger stays the source of truth, and a nightly check compares
+ * every stored balance with the most recently inserted ledger row.
+ *
+ * Instances from before the column existed insert ledger rows without updating
+ * it, so the column is only trusted once {@code accounts.balance.read-stored}
+ * is on. Upgrading takes three steps: roll out with it off, so reads still come
+ * from the ledger; call {@link #backfillBalances()} once no old instance is
+ * left; then turn it on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceService {
+
+    private static final int CHECK_PAGE_SIZE = 500;
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final FdAccountRepository accountRepository;
+    private final AccountTransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${accounts.balance.repair-mismatches:false}")
+    private boolean repairMismatches;
+
+    @Value("${accounts.balance.read-stored:true}")
+    private boolean readStored;
+
+    public BigDecimal currentBalance(FdAccount account) {
+        BigDecimal balance = readStored ? account.getCurrentBalance() : null;
+        return balance != null ? balance : ledgerBalance(account);
+    }
+
+    /**
+     * Balances for several accounts, keyed by account number. Accounts without a
+     * stored balance are resolved together with one latest-row ledger query
+     * instead of one query each.
+     */
+    public Map<String, BigDecimal> currentBalances(Collection<FdAccount> accounts) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        List<FdAccount> missing = new ArrayList<>();
+        for (FdAccount account : accounts) {
+            if (readStored && account.getCurrentBalance() != null) {
+                balances.put(account.getAccountNo(), account.getCurrentBalance());
+            } else {
+                missing.add(account);
+            }
+        }
+        if (!missing.isEmpty()) {
+            balances.putAll(ledgerBalances(missing));
+        }
+        return balances;
+    }
+
+    /**
+     * Reads the column directly rather than through the persistence context, so
+     * it sees balances written earlier in the same transaction.
+     */
+    public BigDecimal currentBalance(String accountNo) {
+        Optional<BigDecimal> stored = readStored ? accountRepository.findCurrentBalanceByAccountNo(accountNo)
+                : Optional.empty();
+        return stored.orElseGet(() -> ledgerBalance(accountRepository.findByAccountNo(accountNo)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo))));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(String accountNo, BigDecimal balanceAfter) {
+        if (accountRepository.updateCurrentBalance(accountNo, balanceAfter) != 1) {
+            throw new AccountNotFoundException("Account not found: " + accountNo);
+        }
+    }
+
+    /**
+     * Compares every stored balance with the latest ledger row. Accounts are
+     * read in id-ordered pages, each checked in its own transaction with one
+     * ledger query. Mismatches are logged and, when
+     * {@code accounts.balance.repair-mismatches} is set, overwritten with the
+     * ledger value unless a posting has changed the balance since it was read.
+     */
+    @Scheduled(cron = "${accounts.balance.check-cron:0 30 2 * * *}")
+    public Map<String, Object> verifyBalances() {
+        return checkBalances(repairMismatches);
+    }
+
+    /**
+     * One-off migration that sets every stored balance from the ledger, in the
+     * same pages as the nightly check. Run it after a rollout from a version
+     * that did not maintain the column, and before turning on
+     * {@code accounts.balance.read-stored}.
+     */
+    public Map<String, Object> backfillBalances() {
+        return checkBalances(true);
+    }
+
+    private Map<String, Object> checkBalances(boolean repair) {
+        BalanceCheck check = new BalanceCheck();
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            Long lastId = transactionTemplate.execute(status -> checkPage(cursor, check, repair));
+            if (lastId == null) {
+                break;
+            }
+            afterId = lastId;
+        }
+        log.info("Balance check finished: {} accounts checked, {} mismatched, {} repaired", check.checked,
+                check.mismatched, check.repaired);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("checked", check.checked);
+        report.put("mismatched", check.mismatched);
+        report.put("repaired", check.repaired);
+        report.put("mismatchedAccounts", check.accounts);
+        return report;
+    }
+
+    /** Checks the page after {@code afterId} and returns its last id, or null when there are no more accounts. */
+    private Long checkPage(long afterId, BalanceCheck check, boolean repair) {
+        List<FdAccount> accounts = accountRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+                PageRequest.of(0, CHECK_PAGE_SIZE));
+        if (accounts.isEmpty()) {
+            return null;
+        }
+        Map<String, BigDecimal> ledgerBalances = ledgerBalances(accounts);
+        for (FdAccount account : accounts) {
+            check.checked++;
+            BigDecimal stored = account.getCurrentBalance();
+            BigDecimal ledger = ledgerBalances.get(account.getAccountNo());
+            if (stored != null && stored.compareTo(ledger) == 0) {
+                continue;
+            }
+            check.mismatched++;
+            if (check.accounts.size() < MAX_REPORTED_MISMATCHES) {
+                check.accounts.add(account.getAccountNo());
+            }
+            log.warn("Balance mismatch for account {}: stored={}, ledger={}", account.getAccountNo(), stored,
+                    ledger);
+            if (repair && accountRepository.repairCurrentBalance(account.getAccountNo(), stored,
+                    ledger) == 1) {
+                check.repaired++;
+            }
+        }
+        return accounts.get(accounts.size() - 1).getId();
+    }
+
+    private Map<String, BigDecimal> ledgerBalances(Collection<FdAccount> accounts) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        List<String> accountNos = accounts.stream().map(FdAccount::getAccountNo).collect(Collectors.toList());
+        for (AccountTransaction latest : transactionRepository.findLatestByAccountNoIn(accountNos)) {
+            balances.put(latest.getAccountNo(), latest.getBalanceAfter());
+        }
+        for (FdAccount account : accounts) {
+            balances.computeIfAbsent(account.getAccountNo(), accountNo -> principal(account));
+        }
+        return balances;
+    }
+
+    private BigDecimal ledgerBalance(FdAccount account) {
+        return transactionRepository.findFirstByAccountNoOrderByIdDesc(account.getAccountNo())
+                .map(AccountTransaction::getBalanceAfter)
+                .orElseGet(() -> principal(account));
+    }
+
+    private BigDecimal principal(FdAccount account) {
+        return account.getPrincipalAmount() != null ? account.getPrincipalAmount() : BigDecimal.ZERO;
+    }
+
+    private static final class BalanceCheck {
+        private long checked;
+        private long mismatched;
+        private long repaired;
+        private final List<String> accounts = new ArrayList<>();
+    }
+}
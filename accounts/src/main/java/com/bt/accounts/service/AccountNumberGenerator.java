@@ -1,25 +1,106 @@
 package com.bt.accounts.service;
 
-import com.bt.accounts.repository.FdAccountRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Hands out account numbers of the form {@code FD-<branch>-<yyyyMMdd>-<seq>}.
+ * Each branch and day has a counter in Redis. An instance leases a block of
+ * sequence numbers from it with one INCRBY, then serves numbers from that block
+ * with an atomic increment and no database access. Blocks never overlap, so
+ * numbers are unique across instances. An instance that restarts or leaves a
+ * block unused only leaves a gap.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class AccountNumberGenerator {
 
-    private final FdAccountRepository accountRepository;
-    private final AtomicLong sequenceCounter = new AtomicLong(10000001);
+    private static final String KEY_PREFIX = "accounts:seq:";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
 
-    public synchronized String generateAccountNumber(String branchCode) {
-        String dateComponent = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String prefix;
+    private final long initialValue;
+    private final long blockSize;
+    private final Duration keyTtl;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
 
-        Long todayCount = accountRepository.countTodayAccountsByBranch(branchCode);
-        long sequence = sequenceCounter.incrementAndGet() + todayCount;
+    public AccountNumberGenerator(StringRedisTemplate stringRedisTemplate,
+            @Value("${accounts.sequence.prefix:FD}") String prefix,
+            @Value("${accounts.sequence.initial-value:10000001}") long initialValue,
+            @Value("${accounts.sequence.block-size:100}") long blockSize,
+            @Value("${accounts.sequence.key-ttl-days:3}") long keyTtlDays) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("accounts.sequence.block-size must be positive");
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.prefix = prefix;
+        this.initialValue = initialValue;
+        this.blockSize = blockSize;
+        this.keyTtl = Duration.ofDays(keyTtlDays);
+    }
+
+    public String generateAccountNumber(String branchCode) {
+        String dateComponent = LocalDate.now().format(DATE_FORMAT);
+        String key = branchCode + ":" + dateComponent;
+
+        Block block = blocks.get(key);
+        long sequence = block != null ? block.next() : -1;
+        if (sequence < 0) {
+            sequence = nextFromNewBlock(key, dateComponent);
+        }
+
+        return String.format("%s-%s-%s-%08d", prefix, branchCode, dateComponent, sequence);
+    }
+
+    /**
+     * Slow path, taken once per block: only one thread per instance leases the
+     * next range, and threads that raced it take numbers from the new block.
+     */
+    private synchronized long nextFromNewBlock(String key, String dateComponent) {
+        Block current = blocks.get(key);
+        long sequence = current != null ? current.next() : -1;
+        if (sequence >= 0) {
+            return sequence;
+        }
+
+        String redisKey = KEY_PREFIX + key;
+        Long leasedEnd = stringRedisTemplate.opsForValue().increment(redisKey, blockSize);
+        if (leasedEnd == null) {
+            throw new IllegalStateException("Could not lease account numbers for " + key);
+        }
+        stringRedisTemplate.expire(redisKey, keyTtl);
+
+        // The counter holds how many numbers were leased so far today
+        long first = initialValue + leasedEnd - blockSize;
+        // Keep the first number for this caller before other threads can drain the block
+        blocks.keySet().removeIf(existing -> !existing.endsWith(":" + dateComponent));
+        blocks.put(key, new Block(first + 1, first + blockSize));
+        log.debug("Leased account numbers {}..{} for {}", first, first + blockSize - 1, key);
+        return first;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
 
-        return String.format("FD-%s-%s-%08d", branchCode, dateComponent, sequence);
+        /** Next number in the block, or -1 once it is used up. */
+        long next() {
+            long value = next.getAndIncrement();
+            return value < end ? value : -1;
+        }
     }
 }
@@ -6,22 +6,21 @@ import com.bt.accounts.entity.FdAccount;
 import com.bt.accounts.exception.*;
 import com.bt.accounts.event.*;
 import com.bt.accounts.repository.FdAccountRepository;
-import com.bt.accounts.repository.AccountTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.math.RoundingMode;
 
@@ -31,11 +30,12 @@ import java.math.RoundingMode;
 public class AccountService {
 
     private final FdAccountRepository accountRepository;
-    private final AccountTransactionRepository transactionRepository;
     private final CashCachedService cashCachedService;
     private final AccountNumberGenerator accountNumberGenerator;
-    private final KafkaProducerService kafkaProducerService;
-    private final RedisRequestResponseStore requestResponseStore;
+    private final KafkaRequestReplyClient requestReplyClient;
+    private final AccountBalanceService accountBalanceService;
+    private final OutboxService outboxService;
+    private final CustomerPortfolioService customerPortfolioService;
 
     @Value("${accounts.sequence.prefix:FD}")
     private String accountPrefix;
@@ -44,12 +44,14 @@ public class AccountService {
     private int requestTimeoutSeconds;
 
     @Transactional
-    @CacheEvict(value = { "accounts", "customerAccounts" }, allEntries = true)
     public AccountResponse createAccount(AccountCreationRequest request, String authToken) {
         validateUserRole();
 
-        validateCustomer(request.getCustomerId(), authToken);
-        ProductDto product = validateProduct(request.getProductCode(), authToken);
+        Instant deadline = requestDeadline();
+        CompletableFuture<CustomerDto> customer = validateCustomer(request.getCustomerId(), deadline);
+        CompletableFuture<ProductDto> productLookup = validateProduct(request.getProductCode(), deadline);
+        await(customer);
+        ProductDto product = await(productLookup);
 
         validateProductRules(request, product);
 
@@ -58,7 +60,7 @@ public class AccountService {
             throw new InvalidAccountDataException("Principal must be at least 1 CashCached token (1 KWD)");
         }
 
-        FdCalculationDto calculation = calculateMaturity(request, authToken);
+        FdCalculationDto calculation = await(calculateMaturity(request, deadline));
         BigDecimal maturityTokens = requireWholeTokens(calculation.getMaturityAmount());
 
         String accountNo = accountNumberGenerator.generateAccountNumber(request.getBranchCode());
@@ -80,6 +82,8 @@ public class AccountService {
                 .build();
 
         FdAccount savedAccount = accountRepository.save(account);
+        outboxService.accountCreated(savedAccount, getCurrentUsername());
+        customerPortfolioService.rebuild(savedAccount.getCustomerId());
         CashCachedIssueRequest issueRequest = new CashCachedIssueRequest();
         issueRequest.setCustomerId(request.getCustomerId());
         issueRequest.setAmount(principalTokens);
@@ -95,7 +99,7 @@ public class AccountService {
         FdAccount account = accountRepository.findByAccountNo(accountNo)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo));
         AccountResponse resp = AccountResponse.fromEntity(account);
-        resp.setCurrentBalance(computeCurrentBalance(accountNo));
+        resp.setCurrentBalance(accountBalanceService.currentBalance(account));
         return resp;
     }
 
@@ -123,7 +127,8 @@ public class AccountService {
             newPrincipal = new BigDecimal(String.valueOf(request.get("principalAmount")));
         }
 
-        ProductDto product = validateProduct(newProductCode, authToken);
+        Instant deadline = requestDeadline();
+        ProductDto product = await(validateProduct(newProductCode, deadline));
 
         AccountCreationRequest temp = AccountCreationRequest.builder()
                 .customerId(account.getCustomerId())
@@ -141,7 +146,7 @@ public class AccountService {
             throw new InvalidAccountDataException("Principal must be at least 1 CashCached token (1 KWD)");
         }
 
-        FdCalculationDto calc = calculateMaturity(temp, authToken);
+        FdCalculationDto calc = await(calculateMaturity(temp, deadline));
 
         account.setProductCode(newProductCode);
         account.setInterestRate(newInterestRate);
@@ -154,27 +159,28 @@ public class AccountService {
         account.setProductMaxTenureMonths(product.getMaxTermMonths());
 
         FdAccount saved = accountRepository.save(account);
+        customerPortfolioService.rebuild(saved.getCustomerId());
         AccountResponse resp = AccountResponse.fromEntity(saved);
-        resp.setCurrentBalance(computeCurrentBalance(accountNo));
+        resp.setCurrentBalance(accountBalanceService.currentBalance(saved));
         log.info("Upgraded FD account: {} by user: {}", accountNo, getCurrentUsername());
         return resp;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "customerAccounts", key = "#customerId")
+    @Cacheable(value = CustomerPortfolioService.CUSTOMER_ACCOUNTS_CACHE, key = "#customerId")
     public List<AccountResponse> getCustomerAccounts(String customerId) {
         List<FdAccount> accounts = accountRepository.findAllByCustomerIdOrderByCreatedAtDesc(customerId);
+        Map<String, BigDecimal> balances = accountBalanceService.currentBalances(accounts);
         return accounts.stream()
                 .map(a -> {
                     AccountResponse r = AccountResponse.fromEntity(a);
-                    r.setCurrentBalance(computeCurrentBalance(a.getAccountNo()));
+                    r.setCurrentBalance(balances.get(a.getAccountNo()));
                     return r;
                 })
                 .collect(Collectors.toList());
     }
 
     @Transactional
-    @CacheEvict(value = { "accounts", "customerAccounts" }, allEntries = true)
     public AccountResponse closeAccount(String accountNo, AccountClosureRequest request) {
         validateUserRole();
 
@@ -191,6 +197,8 @@ public class AccountService {
         account.setClosureReason(request.getClosureReason());
 
         FdAccount savedAccount = accountRepository.save(account);
+        outboxService.accountClosed(savedAccount, getCurrentUsername());
+        customerPortfolioService.rebuild(savedAccount.getCustomerId());
         log.info("Closed FD account: {} by user: {}", accountNo, getCurrentUsername());
 
         return AccountResponse.fromEntity(savedAccount);
@@ -213,8 +221,9 @@ public class AccountService {
         account.setClosureReason(null);
 
         FdAccount saved = accountRepository.save(account);
+        customerPortfolioService.rebuild(saved.getCustomerId());
         AccountResponse resp = AccountResponse.fromEntity(saved);
-        resp.setCurrentBalance(computeCurrentBalance(accountNo));
+        resp.setCurrentBalance(accountBalanceService.currentBalance(saved));
         log.info("Reopened FD account: {} by user: {}", accountNo, getCurrentUsername());
         return resp;
     }
@@ -234,81 +243,39 @@ public class AccountService {
         }
     }
 
-    private CustomerDto validateCustomer(String customerId, String authToken) {
-        String requestId = UUID.randomUUID().toString();
-        log.info("========== VALIDATING CUSTOMER {} ==========", customerId);
-        log.info("Generated requestId: {}", requestId);
-
-        CustomerValidationRequest request = CustomerValidationRequest.builder()
-                .customerId(Long.parseLong(customerId))
-                .requestId(requestId)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        log.info("Storing pending request with requestId: {}", requestId);
-        requestResponseStore.putRequest(requestId, null);
-
-        log.info("Sending customer validation request to Kafka...");
-        kafkaProducerService.sendCustomerValidationRequest(request);
-        log.info("Request sent. Now waiting for response (timeout: {} seconds)...", requestTimeoutSeconds);
-
-        try {
-            CustomerValidationResponse response = requestResponseStore
-                    .getResponse(requestId, CustomerValidationResponse.class, requestTimeoutSeconds, TimeUnit.SECONDS);
-
-            log.info("========== RESPONSE RECEIVED ==========");
-            log.info("Response: {}", response != null ? "NOT NULL" : "NULL");
-
-            if (response == null || !Boolean.TRUE.equals(response.getValid())) {
-                log.error("Customer validation FAILED - response null or invalid");
-                throw new CustomerNotFoundException("Customer not found or invalid: " + customerId);
-            }
-
-            log.info("Customer validation SUCCESSFUL");
-            CustomerDto dto = new CustomerDto();
-            dto.setId(response.getCustomerId());
-            return dto;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Customer validation INTERRUPTED");
-            throw new ServiceIntegrationException("Customer validation request timeout", e);
-        }
+    private CompletableFuture<CustomerDto> validateCustomer(String customerId, Instant deadline) {
+        log.info("Validating customer {} via Kafka", customerId);
+        return requestReplyClient.validateCustomer(Long.parseLong(customerId), deadline)
+                .thenApply(response -> {
+                    if (response == null || !Boolean.TRUE.equals(response.getValid())) {
+                        log.error("Customer validation FAILED - response null or invalid");
+                        throw new CustomerNotFoundException("Customer not found or invalid: " + customerId);
+                    }
+                    CustomerDto dto = new CustomerDto();
+                    dto.setId(response.getCustomerId());
+                    return dto;
+                });
     }
 
-    private ProductDto validateProduct(String productCode, String authToken) {
-        String requestId = UUID.randomUUID().toString();
-        ProductDetailsRequest request = ProductDetailsRequest.builder()
-                .productCode(productCode)
-                .requestId(requestId)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        requestResponseStore.putRequest(requestId, null);
-        kafkaProducerService.sendProductDetailsRequest(request);
-
-        try {
-            ProductDetailsResponse response = requestResponseStore
-                    .getResponse(requestId, ProductDetailsResponse.class, requestTimeoutSeconds, TimeUnit.SECONDS);
-
-            if (response == null || response.getProductId() == null) {
-                throw new ProductNotFoundException("Product not found: " + productCode);
-            }
-
-            ProductDto dto = new ProductDto();
-            dto.setId(response.getProductId());
-            dto.setProductCode(response.getProductCode());
-            dto.setProductName(response.getProductName());
-            dto.setMinAmount(response.getMinAmount());
-            dto.setMaxAmount(response.getMaxAmount());
-            dto.setMinTermMonths(response.getMinTermMonths());
-            dto.setMaxTermMonths(response.getMaxTermMonths());
-            dto.setMinInterestRate(response.getMinInterestRate());
-            dto.setMaxInterestRate(response.getMaxInterestRate());
-            return dto;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ServiceIntegrationException("Product details request timeout", e);
-        }
+    private CompletableFuture<ProductDto> validateProduct(String productCode, Instant deadline) {
+        return requestReplyClient.fetchProductDetails(productCode, deadline)
+                .thenApply(response -> {
+                    if (response == null || response.getProductId() == null) {
+                        throw new ProductNotFoundException("Product not found: " + productCode);
+                    }
+
+                    ProductDto dto = new ProductDto();
+                    dto.setId(response.getProductId());
+                    dto.setProductCode(response.getProductCode());
+                    dto.setProductName(response.getProductName());
+                    dto.setMinAmount(response.getMinAmount());
+                    dto.setMaxAmount(response.getMaxAmount());
+                    dto.setMinTermMonths(response.getMinTermMonths());
+                    dto.setMaxTermMonths(response.getMaxTermMonths());
+                    dto.setMinInterestRate(response.getMinInterestRate());
+                    dto.setMaxInterestRate(response.getMaxInterestRate());
+                    return dto;
+                });
     }
 
     private void validateProductRules(AccountCreationRequest request, ProductDto product) {
@@ -345,36 +312,40 @@ public class AccountService {
         }
     }
 
-    private FdCalculationDto calculateMaturity(AccountCreationRequest request, String authToken) {
-        String requestId = UUID.randomUUID().toString();
+    private CompletableFuture<FdCalculationDto> calculateMaturity(AccountCreationRequest request, Instant deadline) {
         FdCalculationRequestEvent event = FdCalculationRequestEvent.builder()
                 .customerId(Long.parseLong(request.getCustomerId()))
                 .productCode(request.getProductCode())
                 .principalAmount(request.getPrincipalAmount())
                 .tenureMonths(request.getTenureMonths())
-                .requestId(requestId)
-                .timestamp(LocalDateTime.now())
                 .build();
 
-        requestResponseStore.putRequest(requestId, null);
-        kafkaProducerService.sendFdCalculationRequest(event);
+        return requestReplyClient.calculateFd(event, deadline)
+                .thenApply(response -> {
+                    if (response == null || response.getMaturityAmount() == null) {
+                        throw new ServiceIntegrationException("Failed to calculate FD maturity");
+                    }
+
+                    FdCalculationDto dto = new FdCalculationDto();
+                    dto.setMaturityAmount(response.getMaturityAmount());
+                    dto.setInterestEarned(response.getInterestEarned());
+                    dto.setEffectiveRate(response.getEffectiveRate());
+                    return dto;
+                });
+    }
 
-        try {
-            FdCalculationResponseEvent response = requestResponseStore
-                    .getResponse(requestId, FdCalculationResponseEvent.class, requestTimeoutSeconds, TimeUnit.SECONDS);
+    private Instant requestDeadline() {
+        return Instant.now().plusSeconds(requestTimeoutSeconds);
+    }
 
-            if (response == null || response.getMaturityAmount() == null) {
-                throw new ServiceIntegrationException("Failed to calculate FD maturity");
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-
-            FdCalculationDto dto = new FdCalculationDto();
-            dto.setMaturityAmount(response.getMaturityAmount());
-            dto.setInterestEarned(response.getInterestEarned());
-            dto.setEffectiveRate(response.getEffectiveRate());
-            return dto;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ServiceIntegrationException("FD calculation request timeout", e);
+            throw new ServiceIntegrationException("Cross-service request failed", e.getCause());
         }
     }
 
@@ -398,15 +369,4 @@ public class AccountService {
             throw new InvalidAccountDataException("CashCached tokens must be whole numbers");
         }
     }
-
-    private BigDecimal computeCurrentBalance(String accountNo) {
-        List<com.bt.accounts.entity.AccountTransaction> txns = transactionRepository
-                .findByAccountNoOrderByTransactionDateDesc(accountNo);
-        if (txns == null || txns.isEmpty()) {
-            FdAccount account = accountRepository.findByAccountNo(accountNo).orElseThrow();
-            BigDecimal pa = account.getPrincipalAmount();
-            return pa != null ? pa : BigDecimal.ZERO;
-        }
-        return txns.get(0).getBalanceAfter();
-    }
 }
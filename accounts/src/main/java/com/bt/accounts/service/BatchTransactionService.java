@@ -0,0 +1,385 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.dto.BatchTransactionItem;
+import com.bt.accounts.dto.BatchTransactionResponse;
+import com.bt.accounts.dto.BatchTransactionResult;
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.CashCachedLedgerEntry;
+import com.bt.accounts.entity.CashCachedWallet;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.event.AccountEvent;
+import com.bt.accounts.exception.AccountNotFoundException;
+import com.bt.accounts.exception.InvalidAccountDataException;
+import com.bt.accounts.repository.CashCachedWalletRepository;
+import com.bt.accounts.repository.FdAccountRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Posts many transactions in one call. Postings are grouped by account, and
+ * accounts are processed in chunks, each in its own database transaction:
+ * <ol>
+ * <li>row-lock the chunk's accounts and the wallets they touch, in key order;</li>
+ * <li>walk each account's postings in request order, keeping the running
+ * balance and the wallet balances in memory;</li>
+ * <li>write every ledger row, balance, wallet change and outbox event with JDBC
+ * batch statements.</li>
+ * </ol>
+ * A posting that breaks a business rule is rejected on its own, and the rest of
+ * the batch continues. If a chunk fails to commit, all of its postings are
+ * reported as failed and nothing from that chunk is written.
+ *
+ * Pricing rules are not evaluated per posting. Officer-posted transactions
+ * carry no auth token, so the single-posting path always falls back to the
+ * base rate with no penalty, which leaves the balance unchanged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTransactionService {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO account_transactions (transaction_id, account_no, "
+            + "transaction_type, amount, balance_after, description, reference_no, transaction_date, processed_by, "
+            + "remarks) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_BALANCE = "UPDATE fd_accounts SET current_balance = ? WHERE account_no = ?";
+    private static final String INSERT_LEDGER = "INSERT INTO cashcached_ledger (customer_id, change_amount, "
+            + "balance_after, operation, reference, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_WALLET = "UPDATE cashcached_wallet SET balance = ?, version = version + 1, "
+            + "updated_at = ? WHERE id = ?";
+
+    private final FdAccountRepository accountRepository;
+    private final CashCachedWalletRepository walletRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final OutboxService outboxService;
+    private final CustomerPortfolioService customerPortfolioService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    @Value("${accounts.transactions.batch.max-size:20000}")
+    private int maxBatchSize;
+
+    @Value("${accounts.transactions.batch.accounts-per-chunk:200}")
+    private int accountsPerChunk;
+
+    public BatchTransactionResponse postBatch(List<BatchTransactionItem> items) {
+        if (items.size() > maxBatchSize) {
+            throw new InvalidAccountDataException("A batch may contain at most " + maxBatchSize + " postings");
+        }
+        String processedBy = getCurrentUsername();
+        BatchTransactionResult[] results = new BatchTransactionResult[items.size()];
+
+        Map<String, List<Posting>> byAccount = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchTransactionItem item = items.get(i);
+            String error = validate(item);
+            if (error != null) {
+                results[i] = rejected(i, item, error);
+                continue;
+            }
+            byAccount.computeIfAbsent(item.getAccountNo(), key -> new ArrayList<>())
+                    .add(new Posting(i, item, AccountTransaction.TransactionType.valueOf(item.getTransactionType()),
+                            item.getAmount().stripTrailingZeros().setScale(0, RoundingMode.UNNECESSARY)));
+        }
+
+        List<String> accountNos = new ArrayList<>(byAccount.keySet());
+        for (int from = 0; from < accountNos.size(); from += accountsPerChunk) {
+            List<String> chunk = accountNos.subList(from, Math.min(from + accountsPerChunk, accountNos.size()));
+            try {
+                List<BatchTransactionResult> chunkResults = transactionTemplate
+                        .execute(status -> postChunk(chunk, byAccount, processedBy));
+                chunkResults.forEach(result -> results[result.getIndex()] = result);
+            } catch (RuntimeException ex) {
+                log.error("Batch chunk of {} accounts failed: {}", chunk.size(), ex.getMessage(), ex);
+                for (String accountNo : chunk) {
+                    for (Posting posting : byAccount.get(accountNo)) {
+                        results[posting.index()] = result(posting, BatchTransactionResult.Status.FAILED, null, null,
+                                "Batch chunk failed: " + ex.getMessage());
+                    }
+                }
+            }
+        }
+
+        List<BatchTransactionResult> ordered = Arrays.asList(results);
+        Map<BatchTransactionResult.Status, Long> counts = ordered.stream()
+                .collect(Collectors.groupingBy(BatchTransactionResult::getStatus, Collectors.counting()));
+        log.info("Batch posting by {}: {} posted, {} rejected, {} failed", processedBy,
+                counts.getOrDefault(BatchTransactionResult.Status.POSTED, 0L),
+                counts.getOrDefault(BatchTransactionResult.Status.REJECTED, 0L),
+                counts.getOrDefault(BatchTransactionResult.Status.FAILED, 0L));
+        return BatchTransactionResponse.builder()
+                .posted(counts.getOrDefault(BatchTransactionResult.Status.POSTED, 0L).intValue())
+                .rejected(counts.getOrDefault(BatchTransactionResult.Status.REJECTED, 0L).intValue())
+                .failed(counts.getOrDefault(BatchTransactionResult.Status.FAILED, 0L).intValue())
+                .results(ordered)
+                .build();
+    }
+
+    private List<BatchTransactionResult> postChunk(List<String> accountNos, Map<String, List<Posting>> byAccount,
+            String processedBy) {
+        Map<String, FdAccount> accounts = accountRepository.findByAccountNoInForUpdate(accountNos).stream()
+                .collect(Collectors.toMap(FdAccount::getAccountNo, account -> account));
+        Map<String, BigDecimal> balances = new HashMap<>(accountBalanceService.currentBalances(accounts.values()));
+        Map<String, CashCachedWallet> wallets = lockWallets(accountNos, byAccount, accounts);
+        Map<String, BigDecimal> walletBalances = new HashMap<>();
+        wallets.forEach((customerId, wallet) -> walletBalances.put(customerId, wallet.getBalance()));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<BatchTransactionResult> results = new ArrayList<>();
+        List<Object[]> transactionRows = new ArrayList<>();
+        List<Object[]> ledgerRows = new ArrayList<>();
+        List<AccountEvent> events = new ArrayList<>();
+        Set<String> touchedAccounts = new TreeSet<>();
+        Map<String, CustomerPortfolioService.Delta> portfolioDeltas = new TreeMap<>();
+        Set<String> portfolioRebuilds = new TreeSet<>();
+        Set<String> touchedWallets = new TreeSet<>();
+
+        for (String accountNo : accountNos) {
+            FdAccount account = accounts.get(accountNo);
+            for (Posting posting : byAccount.get(accountNo)) {
+                if (account == null) {
+                    results.add(result(posting, BatchTransactionResult.Status.REJECTED, null, null,
+                            "Account not found: " + accountNo));
+                    continue;
+                }
+                if (account.getStatus() == FdAccount.AccountStatus.CLOSED) {
+                    results.add(result(posting, BatchTransactionResult.Status.REJECTED, null, null,
+                            "Cannot record transaction on closed account: " + accountNo));
+                    continue;
+                }
+
+                String customerId = account.getCustomerId();
+                BigDecimal walletChange = walletChange(posting);
+                if (walletChange.signum() != 0) {
+                    BigDecimal walletBalance = walletBalances.get(customerId).add(walletChange);
+                    if (walletBalance.signum() < 0) {
+                        results.add(result(posting, BatchTransactionResult.Status.REJECTED, null, null,
+                                "Insufficient CashCached balance"));
+                        continue;
+                    }
+                    walletBalances.put(customerId, walletBalance);
+                    touchedWallets.add(customerId);
+                    String reference = posting.item().getReferenceNo() != null ? posting.item().getReferenceNo()
+                            : accountNo;
+                    ledgerRows.add(new Object[] { customerId, walletChange, walletBalance,
+                            walletChange.signum() < 0 ? CashCachedLedgerEntry.Operation.TRANSFER_OUT.name()
+                                    : CashCachedLedgerEntry.Operation.TRANSFER_IN.name(),
+                            (walletChange.signum() < 0 ? "Deposit to account " : "Withdrawal from account ")
+                                    + reference,
+                            now });
+                }
+
+                BigDecimal balanceBefore = balances.get(accountNo);
+                BigDecimal balanceAfter = applyToBalance(balanceBefore, posting);
+                balances.put(accountNo, balanceAfter);
+                touchedAccounts.add(accountNo);
+                if (account.getStatus() == FdAccount.AccountStatus.ACTIVE) {
+                    portfolioDeltas.merge(customerId, CustomerPortfolioService.Delta.of(posting.type(),
+                            posting.amount(), balanceAfter.subtract(balanceBefore)),
+                            CustomerPortfolioService.Delta::plus);
+                } else {
+                    portfolioRebuilds.add(customerId);
+                }
+                String transactionId = transactionIdGenerator.nextTransactionId();
+                BatchTransactionItem item = posting.item();
+                transactionRows.add(new Object[] { transactionId, accountNo, posting.type().name(), posting.amount(),
+                        balanceAfter, item.getDescription(), item.getReferenceNo(), now, processedBy,
+                        item.getRemarks() });
+                events.add(outboxService.transactionEvent(account, transactionId, posting.type(), posting.amount(),
+                        balanceAfter, processedBy, now.toLocalDateTime()));
+                results.add(result(posting, BatchTransactionResult.Status.POSTED, transactionId, balanceAfter, null));
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactionRows);
+        jdbcTemplate.batchUpdate(UPDATE_BALANCE, touchedAccounts.stream()
+                .map(accountNo -> new Object[] { balances.get(accountNo), accountNo })
+                .collect(Collectors.toList()));
+        if (!ledgerRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LEDGER, ledgerRows);
+            jdbcTemplate.batchUpdate(UPDATE_WALLET, touchedWallets.stream()
+                    .map(customerId -> new Object[] { walletBalances.get(customerId), now,
+                            wallets.get(customerId).getId() })
+                    .collect(Collectors.toList()));
+        }
+        outboxService.transactionsRecorded(events);
+        customerPortfolioService.transactionsApplied(portfolioDeltas);
+        portfolioRebuilds.forEach(customerPortfolioService::rebuild);
+        return results;
+    }
+
+    /**
+     * Posts a run of interest credits to one account in the caller's
+     * transaction: one row lock, one balance read, then every ledger row,
+     * the final balance and the outbox events in JDBC batches. Used by accrual
+     * catch-up, where an account can owe many periods at once.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<PostedCredit> postInterestCredits(String accountNo, List<InterestCredit> credits) {
+        FdAccount account = accountRepository.findByAccountNoForUpdate(accountNo)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo));
+        if (account.getStatus() == FdAccount.AccountStatus.CLOSED) {
+            throw new InvalidAccountDataException("Cannot record transaction on closed account: " + accountNo);
+        }
+        if (credits.isEmpty()) {
+            return List.of();
+        }
+        String processedBy = getCurrentUsername();
+        BigDecimal balanceBefore = accountBalanceService.currentBalance(accountNo);
+        BigDecimal balance = balanceBefore;
+        BigDecimal total = BigDecimal.ZERO;
+        List<PostedCredit> posted = new ArrayList<>(credits.size());
+        List<Object[]> transactionRows = new ArrayList<>(credits.size());
+        List<AccountEvent> events = new ArrayList<>(credits.size());
+        for (InterestCredit credit : credits) {
+            balance = balance.add(credit.amount());
+            total = total.add(credit.amount());
+            String transactionId = transactionIdGenerator.nextTransactionId();
+            transactionRows.add(new Object[] { transactionId, accountNo,
+                    AccountTransaction.TransactionType.INTEREST_CREDIT.name(), credit.amount(), balance,
+                    credit.description(), null, Timestamp.valueOf(credit.accruedFor()), processedBy,
+                    credit.remarks() });
+            events.add(outboxService.transactionEvent(account, transactionId,
+                    AccountTransaction.TransactionType.INTEREST_CREDIT, credit.amount(), balance, processedBy,
+                    credit.accruedFor()));
+            posted.add(new PostedCredit(transactionId, credit.amount(), balance, credit.accruedFor()));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactionRows);
+        accountRepository.updateCurrentBalance(accountNo, balance);
+        outboxService.transactionsRecorded(events);
+        customerPortfolioService.transactionApplied(account, AccountTransaction.TransactionType.INTEREST_CREDIT,
+                total, balance.subtract(balanceBefore));
+        return posted;
+    }
+
+    /**
+     * Locks the wallets of every customer whose postings move tokens, creating
+     * missing wallets first as {@link CashCachedService} does.
+     */
+    private Map<String, CashCachedWallet> lockWallets(List<String> accountNos, Map<String, List<Posting>> byAccount,
+            Map<String, FdAccount> accounts) {
+        Set<String> customerIds = new TreeSet<>();
+        for (String accountNo : accountNos) {
+            FdAccount account = accounts.get(accountNo);
+            if (account != null && byAccount.get(accountNo).stream()
+                    .anyMatch(posting -> walletChange(posting).signum() != 0)) {
+                customerIds.add(account.getCustomerId());
+            }
+        }
+        if (customerIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, CashCachedWallet> wallets = walletRepository.findByCustomerIdInForUpdate(customerIds).stream()
+                .collect(Collectors.toMap(CashCachedWallet::getCustomerId, wallet -> wallet));
+        for (String customerId : customerIds) {
+            wallets.computeIfAbsent(customerId, id -> walletRepository.saveAndFlush(CashCachedWallet.builder()
+                    .customerId(id)
+                    .balance(BigDecimal.ZERO)
+                    .build()));
+        }
+        return wallets;
+    }
+
+    /**
+     * Wallet side of a posting, mirroring
+     * {@code TransactionService.reconcileWalletForTransaction}: deposits move
+     * tokens out of the wallet, withdrawals and debits move them back.
+     */
+    private BigDecimal walletChange(Posting posting) {
+        return switch (posting.type()) {
+            case DEPOSIT -> posting.amount().negate();
+            case WITHDRAWAL, PENALTY_DEBIT, PREMATURE_CLOSURE -> posting.amount();
+            default -> BigDecimal.ZERO;
+        };
+    }
+
+    private BigDecimal applyToBalance(BigDecimal balance, Posting posting) {
+        return switch (posting.type()) {
+            case DEPOSIT, INTEREST_CREDIT -> balance.add(posting.amount());
+            case WITHDRAWAL, PENALTY_DEBIT, PREMATURE_CLOSURE, MATURITY_PAYOUT -> balance.subtract(posting.amount());
+            case REVERSAL -> balance;
+        };
+    }
+
+    private String validate(BatchTransactionItem item) {
+        if (item == null) {
+            return "Posting is empty";
+        }
+        Set<ConstraintViolation<BatchTransactionItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            item.getAmount().stripTrailingZeros().setScale(0, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException ex) {
+            return "Amount must be a whole CashCached token";
+        }
+        return null;
+    }
+
+    private BatchTransactionResult rejected(int index, BatchTransactionItem item, String error) {
+        return BatchTransactionResult.builder()
+                .index(index)
+                .accountNo(item != null ? item.getAccountNo() : null)
+                .status(BatchTransactionResult.Status.REJECTED)
+                .error(error)
+                .build();
+    }
+
+    private BatchTransactionResult result(Posting posting, BatchTransactionResult.Status status,
+            String transactionId, BigDecimal balanceAfter, String error) {
+        return BatchTransactionResult.builder()
+                .index(posting.index())
+                .accountNo(posting.item().getAccountNo())
+                .status(status)
+                .transactionId(transactionId)
+                .balanceAfter(balanceAfter)
+                .error(error)
+                .build();
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+
+    private record Posting(int index, BatchTransactionItem item, AccountTransaction.TransactionType type,
+            BigDecimal amount) {
+    }
+
+    public record InterestCredit(BigDecimal amount, LocalDateTime accruedFor, String description, String remarks) {
+    }
+
+    public record PostedCredit(String transactionId, BigDecimal amount, BigDecimal balanceAfter,
+            LocalDateTime accruedFor) {
+    }
+}
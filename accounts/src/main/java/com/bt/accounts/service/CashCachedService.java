@@ -71,14 +71,14 @@ public class CashCachedService {
     }
 
     @Transactional
-    public void mintForInterest(BigDecimal amount, String reference) {
+    public CashCachedLedgerEntry mintForInterest(BigDecimal amount, String reference) {
         BigDecimal tokens = requireWholeTokens(amount);
         TransactionReceiptHolder receipt = mintToTreasury(tokens);
         String treasuryId = properties.getTreasuryAddress();
         CashCachedWallet treasuryWallet = ensureWallet(treasuryId);
         treasuryWallet.setBalance(treasuryWallet.getBalance().add(tokens));
         walletRepository.save(treasuryWallet);
-        ledgerRepository.save(CashCachedLedgerEntry.builder()
+        return ledgerRepository.save(CashCachedLedgerEntry.builder()
                 .customerId(treasuryId)
                 .changeAmount(tokens)
                 .balanceAfter(treasuryWallet.getBalance())
@@ -0,0 +1,215 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.dto.CustomerPortfolioResponse;
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.CustomerPortfolio;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.repository.CustomerPortfolioRepository;
+import com.bt.accounts.repository.PortfolioAccountSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the {@code customer_portfolios} read model: one row per customer
+ * with account counts, active totals and the next maturity. Postings adjust
+ * the row in place with a single UPDATE. Changes to which accounts are active
+ * (create, close, reopen, upgrade, maturity) rebuild the row from the
+ * customer's accounts. A missing row is built on first use.
+ *
+ * Every change also evicts that customer's {@code customerAccounts} cache entry
+ * once the transaction commits, instead of clearing the cache for everyone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerPortfolioService {
+
+    public static final String CUSTOMER_ACCOUNTS_CACHE = "customerAccounts";
+
+    private static final String APPLY_DELTA = "UPDATE customer_portfolios SET total_balance = total_balance + ?, "
+            + "total_interest_accrued = total_interest_accrued + ?, updated_at = ? WHERE customer_id = ?";
+
+    private final CustomerPortfolioRepository portfolioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    /**
+     * Not transactional, so building a missing row commits on its own and a
+     * duplicate-key failure from a concurrent first read can be recovered from.
+     */
+    public CustomerPortfolioResponse getPortfolio(String customerId) {
+        CustomerPortfolio portfolio = portfolioRepository.findById(customerId)
+                .orElseGet(() -> buildOnRead(customerId));
+        return CustomerPortfolioResponse.fromEntity(portfolio);
+    }
+
+    private CustomerPortfolio buildOnRead(String customerId) {
+        try {
+            return rebuild(customerId);
+        } catch (DataIntegrityViolationException ex) {
+            // Another request built the row first
+            log.debug("Portfolio for customer {} was built concurrently, reading it back", customerId);
+            return portfolioRepository.findById(customerId).orElseThrow(() -> ex);
+        }
+    }
+
+    /**
+     * Applies one posting that has already moved the account's balance by
+     * {@code balanceDelta}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transactionApplied(FdAccount account, AccountTransaction.TransactionType type, BigDecimal amount,
+            BigDecimal balanceDelta) {
+        String customerId = account.getCustomerId();
+        if (account.getStatus() != FdAccount.AccountStatus.ACTIVE) {
+            rebuild(customerId);
+            return;
+        }
+        Delta delta = Delta.of(type, amount, balanceDelta);
+        int updated = portfolioRepository.applyDelta(customerId, delta.balance(), delta.interest(),
+                LocalDateTime.now());
+        if (updated == 0) {
+            rebuild(customerId);
+            return;
+        }
+        evictAfterCommit(customerId);
+    }
+
+    /**
+     * Bulk form of {@link #transactionApplied} for postings on active accounts,
+     * summed per customer. Pass a sorted map so rows are always locked in the
+     * same order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transactionsApplied(Map<String, Delta> deltasByCustomer) {
+        if (deltasByCustomer.isEmpty()) {
+            return;
+        }
+        // Batched statements may only report SUCCESS_NO_INFO, so find missing rows up front
+        Set<String> existing = new HashSet<>(portfolioRepository.findExistingCustomerIds(deltasByCustomer.keySet()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(existing.size());
+        deltasByCustomer.forEach((customerId, delta) -> {
+            if (existing.contains(customerId)) {
+                rows.add(new Object[] { delta.balance(), delta.interest(), now, customerId });
+            } else {
+                rebuild(customerId);
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_DELTA, rows);
+        }
+        existing.forEach(this::evictAfterCommit);
+    }
+
+    @Transactional
+    public CustomerPortfolio rebuild(String customerId) {
+        List<PortfolioAccountSnapshot> accounts = portfolioRepository.findAccountSnapshots(customerId);
+
+        int active = 0;
+        BigDecimal principal = BigDecimal.ZERO;
+        BigDecimal balance = BigDecimal.ZERO;
+        BigDecimal interest = BigDecimal.ZERO;
+        String nextMaturityAccountNo = null;
+        LocalDateTime nextMaturityDate = null;
+        for (PortfolioAccountSnapshot account : accounts) {
+            if (account.status() != FdAccount.AccountStatus.ACTIVE) {
+                continue;
+            }
+            active++;
+            principal = principal.add(account.principalAmount());
+            balance = balance.add(account.currentBalance() != null ? account.currentBalance()
+                    : account.principalAmount());
+            if (account.totalInterestAccrued() != null) {
+                interest = interest.add(account.totalInterestAccrued());
+            }
+            LocalDateTime maturity = maturityOf(account);
+            if (maturity != null && (nextMaturityDate == null || maturity.isBefore(nextMaturityDate))) {
+                nextMaturityDate = maturity;
+                nextMaturityAccountNo = account.accountNo();
+            }
+        }
+
+        CustomerPortfolio portfolio = portfolioRepository.findById(customerId)
+                .orElseGet(() -> CustomerPortfolio.builder().customerId(customerId).build());
+        portfolio.setAccountCount(accounts.size());
+        portfolio.setActiveAccountCount(active);
+        portfolio.setTotalPrincipal(principal);
+        portfolio.setTotalBalance(balance);
+        portfolio.setTotalInterestAccrued(interest);
+        portfolio.setNextMaturityAccountNo(nextMaturityAccountNo);
+        portfolio.setNextMaturityDate(nextMaturityDate);
+        portfolio.setUpdatedAt(LocalDateTime.now());
+        // Flushed so the JDBC delta updates and the duplicate-key check see the row
+        CustomerPortfolio saved = portfolioRepository.saveAndFlush(portfolio);
+        evictAfterCommit(customerId);
+        log.debug("Rebuilt portfolio for customer {} from {} accounts", customerId, accounts.size());
+        return saved;
+    }
+
+    /** Same fallback order the accrual scheduler uses to decide when an account matures. */
+    private LocalDateTime maturityOf(PortfolioAccountSnapshot account) {
+        if (account.maturityDate() != null) {
+            return account.maturityDate();
+        }
+        if (account.nextPayoutAt() != null) {
+            return account.nextPayoutAt();
+        }
+        if (account.createdAt() != null && account.tenureMonths() != null && account.tenureMonths() > 0) {
+            return account.createdAt().plusMonths(account.tenureMonths());
+        }
+        return null;
+    }
+
+    private void evictAfterCommit(String customerId) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+        Cache cache = manager.getCache(CUSTOMER_ACCOUNTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evict(customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.evict(customerId);
+            }
+        });
+    }
+
+    public record Delta(BigDecimal balance, BigDecimal interest) {
+
+        public static Delta of(AccountTransaction.TransactionType type, BigDecimal amount, BigDecimal balanceDelta) {
+            return new Delta(balanceDelta,
+                    type == AccountTransaction.TransactionType.INTEREST_CREDIT ? amount : BigDecimal.ZERO);
+        }
+
+        public Delta plus(Delta other) {
+            return new Delta(balance.add(other.balance), interest.add(other.interest));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.exception.IdempotencyConflictException;
+import com.bt.accounts.exception.InvalidAccountDataException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Makes money-moving endpoints safe to retry. A request carrying an
+ * {@code Idempotency-Key} header claims the key in Redis before it runs; once
+ * it completes, the response is stored under the key and replayed for every
+ * retry until the key expires. Completed responses are also kept in a small
+ * local near cache, so a retry that lands on the same instance is answered
+ * without a Redis round trip, and no retry ever reaches the database.
+ *
+ * Keys are scoped to the endpoint and the caller, and a key reused with a
+ * different request body is rejected rather than replayed.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String PENDING_MARKER = "PENDING";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+    private final long nearCacheTtlMillis;
+    private final Map<String, CachedResponse> nearCache;
+
+    public IdempotencyService(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+            @Value("${accounts.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${accounts.idempotency.pending-ttl-seconds:60}") long pendingTtlSeconds,
+            @Value("${accounts.idempotency.near-cache-size:10000}") int nearCacheSize,
+            @Value("${accounts.idempotency.near-cache-ttl-seconds:300}") long nearCacheTtlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.pendingTtl = Duration.ofSeconds(pendingTtlSeconds);
+        this.nearCacheTtlMillis = Math.min(ttl.toMillis(), Duration.ofSeconds(nearCacheTtlSeconds).toMillis());
+        this.nearCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > nearCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} at most once per key. Without a key the action simply
+     * runs. If Redis is unreachable the request is processed without dedupe
+     * rather than rejected.
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object request,
+            TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidAccountDataException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = KEY_PREFIX + scope + ":" + currentUser() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        StoredResponse cached = nearCacheGet(key);
+        if (cached != null) {
+            return replay(cached, fingerprint, bodyType);
+        }
+
+        Boolean claimed;
+        try {
+            claimed = stringRedisTemplate.opsForValue().setIfAbsent(key, PENDING_MARKER, pendingTtl);
+        } catch (DataAccessException ex) {
+            log.warn("Idempotency store unavailable, processing {} without dedupe: {}", scope, ex.getMessage());
+            return action.get();
+        }
+
+        if (!Boolean.TRUE.equals(claimed)) {
+            String existing = stringRedisTemplate.opsForValue().get(key);
+            if (existing == null || PENDING_MARKER.equals(existing)) {
+                throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+            }
+            StoredResponse stored = readJson(existing, StoredResponse.class);
+            nearCachePut(key, stored);
+            return replay(stored, fingerprint, bodyType);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            // Let the client retry a request that failed
+            release(key);
+            throw ex;
+        }
+
+        StoredResponse stored = new StoredResponse(response.getStatusCode().value(), fingerprint,
+                writeJson(response.getBody()));
+        try {
+            stringRedisTemplate.opsForValue().set(key, writeJson(stored), ttl);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to store idempotent response for {}: {}", scope, ex.getMessage());
+        }
+        nearCachePut(key, stored);
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, TypeReference<T> bodyType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        T body = stored.body() != null ? readJson(stored.body(), bodyType) : null;
+        return ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private StoredResponse nearCacheGet(String key) {
+        CachedResponse cached = nearCache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAtMillis() < System.currentTimeMillis()) {
+            nearCache.remove(key);
+            return null;
+        }
+        return cached.response();
+    }
+
+    private void nearCachePut(String key, StoredResponse stored) {
+        nearCache.put(key, new CachedResponse(stored, System.currentTimeMillis() + nearCacheTtlMillis));
+    }
+
+    private void release(String key) {
+        try {
+            stringRedisTemplate.delete(key);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to release idempotency key {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    writeJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize idempotent response", ex);
+        }
+    }
+
+    private <T> T readJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to read idempotent response", ex);
+        }
+    }
+
+    private <T> T readJson(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to read idempotent response", ex);
+        }
+    }
+
+    record StoredResponse(int status, String fingerprint, String body) {
+    }
+
+    private record CachedResponse(StoredResponse response, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.entity.CashCachedLedgerEntry;
+import com.bt.accounts.entity.InterestMintBatch;
+import com.bt.accounts.entity.InterestMintItem;
+import com.bt.accounts.repository.InterestMintBatchRepository;
+import com.bt.accounts.repository.InterestMintItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Backs credited interest with on-chain tokens in bulk. Accrual records one
+ * pending item per interest credit, in the credit's transaction. Settling then
+ * claims up to {@code max-items-per-mint} pending items into a batch and
+ * submits a single mint for their total. The batch row records the transaction
+ * hash and treasury ledger entry, and its items record the accounts it covers.
+ *
+ * A failed mint marks the batch FAILED and returns its items to the pending
+ * pool, so the next settlement retries them. A batch left PENDING was
+ * interrupted while minting and needs checking against the chain before its
+ * items are released by hand.
+ */
+@Service
+@Slf4j
+public class InterestMintService {
+
+    private static final String INSERT_ITEM = "INSERT INTO interest_mint_items (account_no, transaction_id, amount, "
+            + "accrued_for, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final InterestMintItemRepository itemRepository;
+    private final InterestMintBatchRepository batchRepository;
+    private final CashCachedService cashCachedService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxItemsPerMint;
+
+    public InterestMintService(InterestMintItemRepository itemRepository,
+            InterestMintBatchRepository batchRepository, CashCachedService cashCachedService,
+            TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+            @Value("${accounts.accrual.mint.max-items-per-mint:5000}") int maxItemsPerMint) {
+        if (maxItemsPerMint < 1) {
+            throw new IllegalArgumentException("accounts.accrual.mint.max-items-per-mint must be positive");
+        }
+        this.itemRepository = itemRepository;
+        this.batchRepository = batchRepository;
+        this.cashCachedService = cashCachedService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxItemsPerMint = maxItemsPerMint;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPending(String accountNo, String transactionId, BigDecimal amount, LocalDateTime accruedFor) {
+        itemRepository.save(InterestMintItem.builder()
+                .accountNo(accountNo)
+                .transactionId(transactionId)
+                .amount(amount)
+                .accruedFor(accruedFor)
+                .build());
+    }
+
+    /** Bulk form of {@link #recordPending}, written with one JDBC batch statement. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPending(List<InterestMintItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items.stream()
+                .map(item -> new Object[] { item.getAccountNo(), item.getTransactionId(), item.getAmount(),
+                        Timestamp.valueOf(item.getAccruedFor()), now })
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Mints for every pending item, one batch of at most
+     * {@code max-items-per-mint} items at a time, and returns the batches
+     * created. Stops at the first failed mint.
+     */
+    public List<InterestMintBatch> settlePending() {
+        List<InterestMintBatch> batches = new ArrayList<>();
+        while (true) {
+            InterestMintBatch batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null) {
+                return batches;
+            }
+            batches.add(batch);
+            if (!mint(batch)) {
+                return batches;
+            }
+        }
+    }
+
+    private InterestMintBatch claimBatch() {
+        List<Long> ids = itemRepository.findUnclaimedIds(PageRequest.of(0, maxItemsPerMint));
+        if (ids.isEmpty()) {
+            return null;
+        }
+        InterestMintBatch batch = batchRepository.save(InterestMintBatch.builder()
+                .status(InterestMintBatch.Status.PENDING)
+                .itemCount(0)
+                .totalAmount(BigDecimal.ZERO)
+                .build());
+        int claimed = itemRepository.claim(batch.getId(), ids);
+        if (claimed == 0) {
+            // Another instance claimed them first
+            batchRepository.delete(batch);
+            return null;
+        }
+        batch.setItemCount(claimed);
+        batch.setTotalAmount(itemRepository.sumAmountByBatchId(batch.getId()));
+        return batchRepository.save(batch);
+    }
+
+    private boolean mint(InterestMintBatch batch) {
+        String reference = "Interest mint batch " + batch.getId() + " (" + batch.getItemCount() + " credits)";
+        try {
+            CashCachedLedgerEntry entry = cashCachedService.mintForInterest(batch.getTotalAmount(), reference);
+            batch.setStatus(InterestMintBatch.Status.MINTED);
+            batch.setTransactionHash(entry.getTransactionHash());
+            batch.setLedgerEntryId(entry.getId());
+            batch.setCompletedAt(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> batchRepository.save(batch));
+            log.info("Minted {} CCHD interest backing for {} credits in batch {}", batch.getTotalAmount(),
+                    batch.getItemCount(), batch.getId());
+            return true;
+        } catch (RuntimeException ex) {
+            log.error("Interest mint batch {} failed, releasing {} credits: {}", batch.getId(), batch.getItemCount(),
+                    ex.getMessage(), ex);
+            batch.setStatus(InterestMintBatch.Status.FAILED);
+            batch.setError(truncate(ex.getMessage()));
+            batch.setCompletedAt(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                batchRepository.save(batch);
+                itemRepository.release(batch.getId());
+            });
+            return false;
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
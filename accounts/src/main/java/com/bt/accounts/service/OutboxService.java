@@ -0,0 +1,114 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.entity.OutboxEvent;
+import com.bt.accounts.event.AccountEvent;
+import com.bt.accounts.event.KafkaTopics;
+import com.bt.accounts.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes account events to the outbox table in the caller's transaction, so an
+ * event exists if and only if the change it describes was committed.
+ * {@link com.bt.accounts.scheduler.OutboxRelay} publishes them to Kafka later,
+ * off the request path.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_EVENT = "INSERT INTO account_outbox (topic, message_key, event_type, payload, "
+            + "created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void accountCreated(FdAccount account, String actor) {
+        append(KafkaTopics.ACCOUNT_CREATED, accountEvent(AccountEvent.ACCOUNT_CREATED, account, actor));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void accountClosed(FdAccount account, String actor) {
+        append(KafkaTopics.ACCOUNT_UPDATED, accountEvent(AccountEvent.ACCOUNT_CLOSED, account, actor));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transactionRecorded(FdAccount account, AccountTransaction transaction) {
+        append(KafkaTopics.ACCOUNT_UPDATED, transactionEvent(account, transaction.getTransactionId(),
+                transaction.getTransactionType(), transaction.getAmount(), transaction.getBalanceAfter(),
+                transaction.getProcessedBy(), transaction.getTransactionDate()));
+    }
+
+    /**
+     * Bulk form of {@link #transactionRecorded} for batch posting, written with
+     * one JDBC batch statement.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transactionsRecorded(List<AccountEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events.stream()
+                .map(event -> new Object[] { KafkaTopics.ACCOUNT_UPDATED, event.getAccountNo(), event.getEventType(),
+                        writeJson(event), Timestamp.valueOf(event.getOccurredAt()) })
+                .collect(Collectors.toList()));
+    }
+
+    public AccountEvent transactionEvent(FdAccount account, String transactionId,
+            AccountTransaction.TransactionType type, BigDecimal amount, BigDecimal balanceAfter, String actor,
+            LocalDateTime occurredAt) {
+        AccountEvent event = accountEvent(AccountEvent.TRANSACTION_RECORDED, account, actor);
+        event.setTransactionId(transactionId);
+        event.setTransactionType(type.name());
+        event.setAmount(amount);
+        event.setCurrentBalance(balanceAfter);
+        event.setOccurredAt(occurredAt != null ? occurredAt : LocalDateTime.now());
+        return event;
+    }
+
+    private AccountEvent accountEvent(String eventType, FdAccount account, String actor) {
+        return AccountEvent.builder()
+                .eventType(eventType)
+                .accountNo(account.getAccountNo())
+                .customerId(account.getCustomerId())
+                .productCode(account.getProductCode())
+                .status(account.getStatus() != null ? account.getStatus().name() : null)
+                .currentBalance(account.getCurrentBalance())
+                .actor(actor)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void append(String topic, AccountEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(event.getAccountNo())
+                .eventType(event.getEventType())
+                .payload(writeJson(event))
+                .createdAt(event.getOccurredAt())
+                .build());
+    }
+
+    private String writeJson(AccountEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize account event", ex);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.exception.InvalidAccountDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in an account's history, as handed to clients between pages. Opaque
+ * to them: the {@code (transactionDate, id)} of the last row they saw, base64url
+ * encoded.
+ */
+record TransactionCursor(LocalDateTime transactionDate, long id) {
+
+    String encode() {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new InvalidAccountDataException("Invalid transaction cursor");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.dto.TransactionResponse;
+import com.bt.accounts.exception.InvalidAccountDataException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams an account's full history straight from a forward-only JDBC cursor to
+ * the response, one row at a time, so exports of any length run in constant
+ * memory. Rows never become entities and never enter a persistence context.
+ * Queries run on the export pool, the only one with server-side cursors.
+ */
+@Service
+@Slf4j
+public class TransactionExportService {
+
+    private static final String SELECT_TRANSACTIONS = "SELECT id, transaction_id, account_no, transaction_type, "
+            + "amount, balance_after, description, reference_no, transaction_date, processed_by, remarks "
+            + "FROM account_transactions WHERE account_no = ?";
+
+    private static final String[] CSV_HEADERS = { "ID", "Transaction ID", "Account No", "Transaction Type",
+            "Amount", "Balance After", "Description", "Reference No", "Transaction Date", "Processed By",
+            "Remarks" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${accounts.transactions.export-fetch-size:500}")
+    private int fetchSize;
+
+    public TransactionExportService(@Qualifier("exportJdbcTemplate") JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv; charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidAccountDataException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    public void export(String accountNo, LocalDateTime startDate, LocalDateTime endDate, Format format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long[] rows = { 0 };
+        if (format == Format.CSV) {
+            CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT);
+            printer.printRecord((Object[]) CSV_HEADERS);
+            stream(accountNo, startDate, endDate, rs -> {
+                TransactionResponse txn = mapRow(rs);
+                try {
+                    printer.printRecord(txn.getId(), txn.getTransactionId(), txn.getAccountNo(),
+                            txn.getTransactionType(), txn.getAmount(), txn.getBalanceAfter(), txn.getDescription(),
+                            txn.getReferenceNo(), txn.getTransactionDate(), txn.getProcessedBy(), txn.getRemarks());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } else {
+            stream(accountNo, startDate, endDate, rs -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(mapRow(rs)));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        }
+        writer.flush();
+        log.info("Exported {} transactions for account {} as {}", rows[0], accountNo, format);
+    }
+
+    private void stream(String accountNo, LocalDateTime startDate, LocalDateTime endDate,
+            RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_TRANSACTIONS);
+        List<Object> args = new ArrayList<>();
+        args.add(accountNo);
+        if (startDate != null) {
+            sql.append(" AND transaction_date >= ?");
+            args.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND transaction_date <= ?");
+            args.add(Timestamp.valueOf(endDate));
+        }
+        sql.append(" ORDER BY transaction_date DESC, id DESC");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    private TransactionResponse mapRow(ResultSet rs) throws SQLException {
+        Timestamp transactionDate = rs.getTimestamp("transaction_date");
+        return TransactionResponse.builder()
+                .id(rs.getLong("id"))
+                .transactionId(rs.getString("transaction_id"))
+                .accountNo(rs.getString("account_no"))
+                .transactionType(rs.getString("transaction_type"))
+                .amount(rs.getBigDecimal("amount"))
+                .balanceAfter(rs.getBigDecimal("balance_after"))
+                .description(rs.getString("description"))
+                .referenceNo(rs.getString("reference_no"))
+                .transactionDate(transactionDate != null ? transactionDate.toLocalDateTime() : null)
+                .processedBy(rs.getString("processed_by"))
+                .remarks(rs.getString("remarks"))
+                .build();
+    }
+}
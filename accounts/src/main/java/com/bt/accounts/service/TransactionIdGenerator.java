@@ -0,0 +1,94 @@
+package com.bt.accounts.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues time-ordered transaction ids without locks. Each id packs a
+ * millisecond timestamp (41 bits since {@link #EPOCH}), the node id (10 bits)
+ * and a per-millisecond sequence (12 bits) into one long. Ids from one node
+ * are strictly increasing, and ids from different nodes never collide. Node
+ * ids come from {@link TransactionNodeLease}, which keeps them unique across
+ * running instances.
+ *
+ * The string form is {@code TXN-} followed by the id in fixed-width base 36,
+ * so string order matches numeric order and new rows land at the right-hand
+ * edge of the {@code transaction_id} index instead of at random pages.
+ *
+ * If the wall clock steps back, or a node issues more than 4096 ids in one
+ * millisecond, the generator keeps counting from the last timestamp it used.
+ * Ids stay monotonic, and the clock catches up within a few milliseconds.
+ */
+@Service
+@Slf4j
+public class TransactionIdGenerator {
+
+    public static final String PREFIX = "TXN-";
+    public static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public TransactionIdGenerator(TransactionNodeLease nodeLease) {
+        this(nodeLease.nodeId(), System::currentTimeMillis);
+    }
+
+    TransactionIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Transaction id node must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        log.info("Transaction id generator using node id {}", nodeId);
+    }
+
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, clock behind, or sequence exhausted: carry into the next slot
+                next = current + 1;
+            }
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return timestamp << (NODE_BITS + SEQUENCE_BITS) | nodeBits | next & SEQUENCE_MASK;
+    }
+
+    public String nextTransactionId() {
+        return format(nextId());
+    }
+
+    static String format(long id) {
+        int prefixLength = PREFIX.length();
+        char[] chars = new char[prefixLength + ENCODED_LENGTH];
+        PREFIX.getChars(0, prefixLength, chars, 0);
+        for (int i = chars.length - 1; i >= prefixLength; i--) {
+            chars[i] = DIGITS[(int) (id % 36)];
+            id /= 36;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,118 @@
+package com.bt.accounts.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Picks the node id {@link TransactionIdGenerator} packs into every id. Two
+ * running instances must never share one, or they issue the same transaction
+ * id in the same millisecond.
+ *
+ * An explicit {@code accounts.transactions.node-id} wins. Without it the
+ * instance leases the first free node id in Redis at startup and renews the
+ * lease on a heartbeat, so a crashed instance's id frees up once its lease
+ * expires. Startup fails when every id is leased or Redis cannot be reached,
+ * rather than guessing one.
+ */
+@Component
+@Slf4j
+public class TransactionNodeLease {
+
+    private static final String LEASE_PREFIX = "accounts:transaction-node:";
+
+    // Renews our lease, or takes the id back if the lease lapsed and nobody else took it
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) "
+                    + "if current == ARGV[1] then return redis.call('EXPIRE', KEYS[1], ARGV[2]) end "
+                    + "if not current then redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) return 1 end "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long leaseSeconds;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final int nodeId;
+    private final boolean leased;
+
+    public TransactionNodeLease(StringRedisTemplate stringRedisTemplate,
+            @Value("${accounts.transactions.node-id:-1}") int configuredNodeId,
+            @Value("${accounts.transactions.node-lease-seconds:60}") long leaseSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.leaseSeconds = leaseSeconds;
+        if (configuredNodeId > TransactionIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("accounts.transactions.node-id must be between 0 and "
+                    + TransactionIdGenerator.MAX_NODE_ID);
+        }
+        if (configuredNodeId >= 0) {
+            this.nodeId = configuredNodeId;
+            this.leased = false;
+        } else {
+            this.nodeId = acquire();
+            this.leased = true;
+            log.info("Leased transaction id node {}", nodeId);
+        }
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.transactions.node-heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (!leased) {
+            return;
+        }
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW, List.of(LEASE_PREFIX + nodeId), instanceId,
+                    String.valueOf(leaseSeconds));
+            if (renewed == null || renewed == 0) {
+                // Colliding ids are rejected by the unique index, so postings fail rather than merge
+                log.error("Transaction id node {} lease is held by another instance; ids may collide", nodeId);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not renew transaction id node {} lease: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!leased) {
+            return;
+        }
+        try {
+            String key = LEASE_PREFIX + nodeId;
+            if (instanceId.equals(stringRedisTemplate.opsForValue().get(key))) {
+                stringRedisTemplate.delete(key);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not release transaction id node {} lease: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    private int acquire() {
+        try {
+            for (int candidate = 0; candidate <= TransactionIdGenerator.MAX_NODE_ID; candidate++) {
+                Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + candidate,
+                        instanceId, Duration.ofSeconds(leaseSeconds));
+                if (Boolean.TRUE.equals(acquired)) {
+                    return candidate;
+                }
+            }
+        } catch (DataAccessException ex) {
+            throw new IllegalStateException("Cannot lease a transaction id node without Redis; set "
+                    + "accounts.transactions.node-id to a value unique to this instance", ex);
+        }
+        throw new IllegalStateException("All transaction id nodes are leased by other instances; "
+                + "set accounts.transactions.node-id");
+    }
+}
@@ -1,5 +1,6 @@
 package com.bt.accounts.service;
 
+import com.bt.accounts.dto.TransactionPageResponse;
 import com.bt.accounts.dto.TransactionRequest;
 import com.bt.accounts.dto.TransactionResponse;
 import com.bt.accounts.dto.CashCachedIssueRequest;
@@ -8,10 +9,12 @@ import com.bt.accounts.entity.FdAccount;
 import com.bt.accounts.exception.AccountNotFoundException;
 import com.bt.accounts.exception.InvalidAccountDataException;
 import com.bt.accounts.exception.ServiceIntegrationException;
+import com.bt.accounts.exception.UnauthorizedAccessException;
 import com.bt.accounts.repository.AccountTransactionRepository;
 import com.bt.accounts.repository.FdAccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -20,7 +23,6 @@ import org.springframework.beans.factory.annotation.Value;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,10 +30,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final LocalDateTime EARLIEST_TRANSACTION_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_TRANSACTION_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final AccountTransactionRepository transactionRepository;
     private final FdAccountRepository accountRepository;
     private final CashCachedService cashCachedService;
     private final PricingRuleEvaluator pricingRuleEvaluator;
+    private final AccountBalanceService accountBalanceService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final OutboxService outboxService;
+    private final CustomerPortfolioService customerPortfolioService;
     @Value("${self.txn.relaxed:false}")
     private boolean selfTxnRelaxed;
 
@@ -40,16 +51,17 @@ public class TransactionService {
         return recordTransaction(accountNo, request, null);
     }
 
+    @Transactional
     public TransactionResponse recordTransaction(String accountNo, TransactionRequest request,
             LocalDateTime occurredAt) {
-        FdAccount account = accountRepository.findByAccountNo(accountNo)
+        FdAccount account = accountRepository.findByAccountNoForUpdate(accountNo)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo));
 
         if (account.getStatus() == FdAccount.AccountStatus.CLOSED) {
             throw new InvalidAccountDataException("Cannot record transaction on closed account: " + accountNo);
         }
 
-        String transactionId = generateTransactionId(accountNo);
+        String transactionId = transactionIdGenerator.nextTransactionId();
 
         AccountTransaction.TransactionType type = AccountTransaction.TransactionType
                 .valueOf(request.getTransactionType());
@@ -78,6 +90,9 @@ public class TransactionService {
         }
 
         AccountTransaction savedTransaction = transactionRepository.save(transaction);
+        accountBalanceService.apply(accountNo, newBalance);
+        outboxService.transactionRecorded(account, savedTransaction);
+        customerPortfolioService.transactionApplied(account, type, amountTokens, newBalance.subtract(currentBalance));
         log.info("Recorded transaction: {} for account: {}", transactionId, accountNo);
 
         return TransactionResponse.fromEntity(savedTransaction);
@@ -86,7 +101,7 @@ public class TransactionService {
     @Transactional
     public TransactionResponse recordSelfTransaction(String accountNo, TransactionRequest request, String userIdHeader,
             String authHeader) {
-        FdAccount account = accountRepository.findByAccountNo(accountNo)
+        FdAccount account = accountRepository.findByAccountNoForUpdate(accountNo)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo));
 
         if (account.getStatus() == FdAccount.AccountStatus.CLOSED) {
@@ -101,13 +116,7 @@ public class TransactionService {
         if (selfTxnRelaxed || Boolean.parseBoolean(System.getenv().getOrDefault("SELF_TXN_RELAXED", "false"))) {
             authorized = true;
         }
-        if (subject != null && acctCustomer != null && subject.trim().equalsIgnoreCase(acctCustomer))
-            authorized = true;
-        if (!authorized && userId != null && acctCustomer != null && userId.trim().equalsIgnoreCase(acctCustomer))
-            authorized = true;
-        if (!authorized && subject != null && acctCreatedBy != null && subject.trim().equalsIgnoreCase(acctCreatedBy))
-            authorized = true;
-        if (!authorized && userId != null && acctCreatedBy != null && userId.trim().equalsIgnoreCase(acctCreatedBy))
+        if (!authorized && isOwnedByCaller(account, userIdHeader))
             authorized = true;
         if (!authorized && authHeader != null && !authHeader.isBlank()) {
             try {
@@ -143,7 +152,7 @@ public class TransactionService {
             }
         }
 
-        String transactionId = generateTransactionId(accountNo);
+        String transactionId = transactionIdGenerator.nextTransactionId();
 
         AccountTransaction transaction = AccountTransaction.builder()
                 .transactionId(transactionId)
@@ -158,6 +167,9 @@ public class TransactionService {
                 .build();
 
         AccountTransaction saved = transactionRepository.save(transaction);
+        accountBalanceService.apply(accountNo, newBalance);
+        outboxService.transactionRecorded(account, saved);
+        customerPortfolioService.transactionApplied(account, type, amountTokens, newBalance.subtract(currentBalance));
         reconcileWalletForTransaction(account, type, amountTokens, request.getReferenceNo());
         applyPenaltyIfNeeded(account, pricing.getPenalty(), request.getReferenceNo());
         return TransactionResponse.fromEntity(saved);
@@ -193,15 +205,62 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal calculateCurrentBalance(String accountNo) {
-        List<AccountTransaction> transactions = transactionRepository
-                .findByAccountNoOrderByTransactionDateDesc(accountNo);
-        if (transactions.isEmpty()) {
-            FdAccount account = accountRepository.findByAccountNo(accountNo).orElseThrow();
-            BigDecimal pa = account.getPrincipalAmount();
-            return pa != null ? pa : BigDecimal.ZERO;
+    /**
+     * Bank officers and admins may read any account's history; customers only
+     * the history of accounts they own, matched the same way as for self
+     * transactions.
+     */
+    @Transactional(readOnly = true)
+    public void requireHistoryAccess(String accountNo, String userIdHeader) {
+        FdAccount account = accountRepository.findByAccountNo(accountNo)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNo));
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean staff = authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_BANKOFFICER") ||
+                        auth.getAuthority().equals("ROLE_ADMIN"));
+        if (!staff && !isOwnedByCaller(account, userIdHeader)) {
+            throw new UnauthorizedAccessException("Unauthorized access to transactions for account: " + accountNo);
         }
-        return transactions.get(0).getBalanceAfter();
+    }
+
+    /**
+     * Keyset-paginated history, newest first. The cursor is the
+     * {@code (transactionDate, id)} of the last row of the previous page, so
+     * every page costs the same however far back it is.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getAccountTransactionsPage(String accountNo, String cursor, Integer limit,
+            LocalDateTime startDate, LocalDateTime endDate) {
+        if (!accountRepository.existsByAccountNo(accountNo)) {
+            throw new AccountNotFoundException("Account not found: " + accountNo);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime from = startDate != null ? startDate : EARLIEST_TRANSACTION_DATE;
+        LocalDateTime beforeDate = endDate != null ? endDate : LATEST_TRANSACTION_DATE;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            TransactionCursor decoded = TransactionCursor.decode(cursor);
+            beforeDate = decoded.transactionDate();
+            beforeId = decoded.id();
+        }
+
+        List<AccountTransaction> rows = transactionRepository.findPageBefore(accountNo, from, beforeDate, beforeId,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<AccountTransaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+        AccountTransaction last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return TransactionPageResponse.builder()
+                .items(page.stream().map(TransactionResponse::fromEntity).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new TransactionCursor(last.getTransactionDate(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    private BigDecimal calculateCurrentBalance(String accountNo) {
+        return accountBalanceService.currentBalance(accountNo);
     }
 
     private BigDecimal calculateNewBalance(BigDecimal currentBalance, AccountTransaction.TransactionType type,
@@ -253,29 +312,43 @@ public class TransactionService {
         }
 
         String accountNo = account.getAccountNo();
-        String txnId = generateTransactionId(accountNo);
+        String txnId = transactionIdGenerator.nextTransactionId();
+        BigDecimal balanceBefore = calculateCurrentBalance(accountNo);
+        BigDecimal balanceAfter = calculateNewBalance(balanceBefore, AccountTransaction.TransactionType.PENALTY_DEBIT,
+                penalty);
 
         AccountTransaction penaltyTxn = AccountTransaction.builder()
                 .transactionId(txnId)
                 .accountNo(accountNo)
                 .transactionType(AccountTransaction.TransactionType.PENALTY_DEBIT)
                 .amount(penalty)
-                .balanceAfter(calculateNewBalance(calculateCurrentBalance(accountNo),
-                        AccountTransaction.TransactionType.PENALTY_DEBIT, penalty))
+                .balanceAfter(balanceAfter)
                 .description("Pricing rule penalty")
                 .referenceNo(reference)
                 .processedBy(getCurrentUsername())
                 .remarks("Auto-applied pricing penalty")
                 .build();
         penaltyTxn = transactionRepository.save(penaltyTxn);
+        accountBalanceService.apply(accountNo, balanceAfter);
+        outboxService.transactionRecorded(account, penaltyTxn);
+        customerPortfolioService.transactionApplied(account, AccountTransaction.TransactionType.PENALTY_DEBIT, penalty,
+                balanceAfter.subtract(balanceBefore));
         reconcileWalletForTransaction(account, AccountTransaction.TransactionType.PENALTY_DEBIT, penalty, reference);
         log.info("Applied penalty {} to account {} due to pricing rule", penalty, accountNo);
     }
 
-    private String generateTransactionId(String accountNo) {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return String.format("TXN-%s-%s-%s", accountNo, timestamp, uuid);
+    private boolean isOwnedByCaller(FdAccount account, String userIdHeader) {
+        String subject = getCurrentUsername();
+        String userId = (userIdHeader != null && !userIdHeader.isBlank()) ? userIdHeader : getCurrentUserIdClaim();
+        String acctCustomer = account.getCustomerId() != null ? account.getCustomerId().trim() : null;
+        String acctCreatedBy = account.getCreatedBy() != null ? account.getCreatedBy().trim() : null;
+        if (subject != null && acctCustomer != null && subject.trim().equalsIgnoreCase(acctCustomer))
+            return true;
+        if (userId != null && acctCustomer != null && userId.trim().equalsIgnoreCase(acctCustomer))
+            return true;
+        if (subject != null && acctCreatedBy != null && subject.trim().equalsIgnoreCase(acctCreatedBy))
+            return true;
+        return userId != null && acctCreatedBy != null && userId.trim().equalsIgnoreCase(acctCreatedBy);
     }
 
     private String getCurrentUsername() {
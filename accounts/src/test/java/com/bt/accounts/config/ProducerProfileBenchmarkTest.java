@@ -0,0 +1,126 @@
+package com.bt.accounts.config;
+
+import com.bt.accounts.event.ProductDetailsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends the same product details events with the old producer settings and with
+ * the lz4 and zstd profiles, against a real broker. Skipped unless run with
+ * {@code -Dbenchmark=true}; the broker defaults to localhost.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class ProducerProfileBenchmarkTest {
+
+    private final String bootstrapServers = System.getProperty("benchmark.kafka.bootstrap", "localhost:9092");
+    private final int records = Integer.getInteger("benchmark.records", 100_000);
+
+    @Test
+    void compareProducerProfiles() throws Exception {
+        Map<String, Object> baseline = new HashMap<>();
+        baseline.put(ProducerConfig.ACKS_CONFIG, "all");
+        baseline.put(ProducerConfig.RETRIES_CONFIG, 3);
+        baseline.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+
+        KafkaProducerProperties lz4 = new KafkaProducerProperties();
+        KafkaProducerProperties zstd = new KafkaProducerProperties();
+        zstd.setCompressionType("zstd");
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("baseline", baseline));
+        results.add(run("lz4", lz4.toProducerConfigs()));
+        results.add(run("zstd", zstd.toProducerConfigs()));
+
+        results.forEach(result -> log.info("{}", result));
+        assertTrue(results.stream().allMatch(result -> result.throughputPerSecond() > 0));
+    }
+
+    private Result run(String name, Map<String, Object> profile) throws Exception {
+        String topic = "bench.producer." + name + "." + UUID.randomUUID();
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            admin.createTopics(List.of(new NewTopic(topic, 3, (short) 1))).all().get();
+        }
+
+        Map<String, Object> configs = new HashMap<>(profile);
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configs.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(configs);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+        try {
+            // Warm up the connection and metadata outside the measurement
+            template.send(topic, "warm-up", event("warm-up")).get();
+
+            long started = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                String requestId = UUID.randomUUID().toString();
+                template.send(topic, requestId, event(requestId));
+            }
+            template.flush();
+            long elapsed = System.nanoTime() - started;
+
+            Map<String, Double> metrics = new HashMap<>();
+            template.metrics().forEach((metricName, metric) -> {
+                if ("producer-metrics".equals(metricName.group()) && metric.metricValue() instanceof Double value) {
+                    metrics.put(metricName.name(), value);
+                }
+            });
+            return new Result(name, records / (elapsed / 1e9),
+                    metrics.getOrDefault("batch-size-avg", 0.0),
+                    metrics.getOrDefault("record-queue-time-avg", 0.0),
+                    metrics.getOrDefault("compression-rate-avg", 1.0));
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private ProductDetailsResponse event(String requestId) {
+        return ProductDetailsResponse.builder()
+                .requestId(requestId)
+                .productId(42L)
+                .productCode("FD-REGULAR-12M")
+                .productName("Fixed Deposit - Regular 12 Months")
+                .status("ACTIVE")
+                .minAmount(new BigDecimal("1000.00"))
+                .maxAmount(new BigDecimal("10000000.00"))
+                .minTermMonths(6)
+                .maxTermMonths(120)
+                .minInterestRate(new BigDecimal("6.50"))
+                .maxInterestRate(new BigDecimal("7.50"))
+                .currency("KWD")
+                .compoundingFrequency("QUARTERLY")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private record Result(String profile, double throughputPerSecond, double batchSizeAvg,
+            double recordQueueTimeAvgMillis, double compressionRateAvg) {
+        @Override
+        public String toString() {
+            return String.format("%-8s throughput=%.0f rec/s batch-size-avg=%.0f B queue-time-avg=%.2f ms compression-rate=%.2f",
+                    profile, throughputPerSecond, batchSizeAvg, recordQueueTimeAvgMillis, compressionRateAvg);
+        }
+    }
+}
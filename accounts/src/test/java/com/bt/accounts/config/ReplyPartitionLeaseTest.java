@@ -0,0 +1,91 @@
+package com.bt.accounts.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplyPartitionLeaseTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+    }
+
+    @Test
+    void constructor_Unconfigured_ShouldLeaseFirstFreePartition() {
+        when(valueOperations.setIfAbsent(eq("accounts:reply-partition:1"), anyString(), any(Duration.class)))
+                .thenReturn(true);
+
+        ReplyPartitionLease lease = new ReplyPartitionLease(stringRedisTemplate, -1, null, 3, 30);
+
+        assertEquals(1, lease.partition());
+    }
+
+    @Test
+    void constructor_AllPartitionsLeased_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> new ReplyPartitionLease(stringRedisTemplate, -1, null, 3, 30));
+    }
+
+    @Test
+    void constructor_RedisDown_ShouldFailStartup() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new QueryTimeoutException("redis down"));
+
+        assertThrows(IllegalStateException.class, () -> new ReplyPartitionLease(stringRedisTemplate, -1, null, 3, 30));
+    }
+
+    @Test
+    void constructor_Configured_ShouldUsePartitionWithoutRedis() {
+        ReplyPartitionLease lease = new ReplyPartitionLease(stringRedisTemplate, 2, null, 3, 30);
+        lease.heartbeat();
+
+        assertEquals(2, lease.partition());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void constructor_ConfiguredOutsideTopic_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> new ReplyPartitionLease(stringRedisTemplate, 3, null, 3, 30));
+    }
+
+    @Test
+    void constructor_FromHostname_ShouldUseOrdinalWithoutRedis() {
+        ReplyPartitionLease lease = new ReplyPartitionLease(stringRedisTemplate, -1, () -> "accounts-2", 3, 30);
+        lease.heartbeat();
+
+        assertEquals(2, lease.partition());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void constructor_FromHostnameWithoutOrdinal_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class,
+                () -> new ReplyPartitionLease(stringRedisTemplate, -1, () -> "accounts", 3, 30));
+        assertThrows(IllegalStateException.class,
+                () -> new ReplyPartitionLease(stringRedisTemplate, -1, () -> "accounts-3", 3, 30));
+    }
+}
@@ -4,6 +4,7 @@ import com.bt.accounts.dto.*;
 import com.bt.accounts.security.JwtAuthenticationFilter;
 import com.bt.accounts.security.JwtTokenProvider;
 import com.bt.accounts.service.AccountService;
+import com.bt.accounts.service.CustomerPortfolioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,6 +36,9 @@ class AccountControllerTest {
         @MockitoBean
         private AccountService accountService;
 
+        @MockitoBean
+        private CustomerPortfolioService customerPortfolioService;
+
         @MockitoBean
         private JwtTokenProvider jwtTokenProvider;
 
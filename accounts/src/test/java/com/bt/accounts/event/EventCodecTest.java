@@ -0,0 +1,117 @@
+package com.bt.accounts.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecTest {
+
+    private static final String TOPIC = "product.details.response";
+
+    @Test
+    void roundTripsEventWithDecimalsAndTimestamps() {
+        ProductDetailsResponse event = productDetails(new BigDecimal("10000000.00"));
+
+        byte[] payload = EventCodec.encode(event);
+
+        assertTrue(EventCodec.isBinary(payload));
+        assertEquals(event, EventCodec.decode(payload, ProductDetailsResponse.class));
+    }
+
+    @Test
+    void keepsNullFieldsNull() {
+        FdCalculationRequestEvent event = FdCalculationRequestEvent.builder()
+                .requestId("r1")
+                .principalAmount(new BigDecimal("-12.340"))
+                .build();
+
+        FdCalculationRequestEvent decoded = EventCodec.decode(EventCodec.encode(event),
+                FdCalculationRequestEvent.class);
+
+        assertEquals(event, decoded);
+        assertNull(decoded.getCustomerId());
+        assertEquals(3, decoded.getPrincipalAmount().scale());
+    }
+
+    @Test
+    void binaryPayloadIsSmallerThanJson() {
+        ProductDetailsResponse event = productDetails(new BigDecimal("10000000.00"));
+
+        byte[] binary = binarySerializer().serialize(TOPIC, event);
+        byte[] json = jsonSerializer().serialize(TOPIC, event);
+
+        assertTrue(binary.length < json.length / 2,
+                "binary " + binary.length + " bytes, json " + json.length + " bytes");
+    }
+
+    @Test
+    void deserializerReadsBinaryAndJson() {
+        ProductDetailsResponse event = productDetails(new BigDecimal("5000.50"));
+        BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, ProductDetailsResponse.class.getName()), false);
+
+        assertEquals(event, deserializer.deserialize(TOPIC, binarySerializer().serialize(TOPIC, event)));
+        assertEquals(event, deserializer.deserialize(TOPIC, jsonSerializer().serialize(TOPIC, event)));
+    }
+
+    @Test
+    void serializerFallsBackToJsonForDecimalsBeyondLongRange() {
+        ProductDetailsResponse event = productDetails(new BigDecimal("123456789012345678901234567890.00"));
+
+        byte[] payload = binarySerializer().serialize(TOPIC, event);
+
+        assertFalse(EventCodec.isBinary(payload));
+        assertEquals('{', payload[0]);
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] payload = EventCodec.encode(productDetails(BigDecimal.ONE));
+        payload[1] = (byte) (EventCodec.VERSION + 1);
+
+        assertThrows(SerializationException.class, () -> new BinaryEventDeserializer().deserialize(TOPIC, payload));
+    }
+
+    private BinaryEventSerializer binarySerializer() {
+        BinaryEventSerializer serializer = new BinaryEventSerializer();
+        serializer.configure(Map.of(BinaryEventSerializer.CODEC_CONFIG, "binary",
+                JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        return serializer;
+    }
+
+    private BinaryEventSerializer jsonSerializer() {
+        BinaryEventSerializer serializer = new BinaryEventSerializer();
+        serializer.configure(Map.of(BinaryEventSerializer.CODEC_CONFIG, "json",
+                JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        return serializer;
+    }
+
+    private ProductDetailsResponse productDetails(BigDecimal maxAmount) {
+        return ProductDetailsResponse.builder()
+                .requestId("6f1c2a9e-8a53-4d8f-9a55-2f4b1c7f0e11")
+                .productId(42L)
+                .productCode("FD-REGULAR-12M")
+                .productName("Fixed Deposit - Regular 12 Months")
+                .status("ACTIVE")
+                .minAmount(new BigDecimal("1000.00"))
+                .maxAmount(maxAmount)
+                .minTermMonths(6)
+                .maxTermMonths(120)
+                .minInterestRate(new BigDecimal("6.50"))
+                .maxInterestRate(new BigDecimal("7.50"))
+                .currency("KWD")
+                .compoundingFrequency("QUARTERLY")
+                .timestamp(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bt.accounts.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.requestreply.KafkaReplyTimeoutException;
+import org.springframework.kafka.requestreply.RequestReplyFuture;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KafkaRequestReplyClientTest {
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private RedisRequestResponseStore requestResponseStore;
+
+    @Mock
+    private MeteredReplyingKafkaTemplate<String, Object, byte[]> replyingKafkaTemplate;
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    private KafkaRequestReplyClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new KafkaRequestReplyClient(kafkaProducerService, requestResponseStore, replyingKafkaTemplate,
+                productCatalog);
+        when(productCatalog.find(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void fetchProductDetails_SharedLookupExpiresFirst_ShouldRetryForCallerWithTimeLeft() throws Exception {
+        RequestReplyFuture<String, Object, byte[]> shared = new RequestReplyFuture<>();
+        RequestReplyFuture<String, Object, byte[]> retry = new RequestReplyFuture<>();
+        retry.complete(new ConsumerRecord<>("reply", 0, 0L, "key", new ObjectMapper()
+                .writeValueAsBytes(ProductDetailsResponse.builder().productCode("FD-1Y").build())));
+        when(replyingKafkaTemplate.sendAndReceive(any(ProducerRecord.class), any(Duration.class)))
+                .thenReturn(shared, retry);
+
+        CompletableFuture<ProductDetailsResponse> impatient = client.fetchProductDetails("FD-1Y",
+                Instant.now().plusSeconds(1));
+        CompletableFuture<ProductDetailsResponse> patient = client.fetchProductDetails("FD-1Y",
+                Instant.now().plusSeconds(30));
+        shared.completeExceptionally(new KafkaReplyTimeoutException("timed out"));
+
+        assertNull(impatient.join());
+        assertEquals("FD-1Y", patient.join().getProductCode());
+        verify(replyingKafkaTemplate, times(2)).sendAndReceive(any(ProducerRecord.class), any(Duration.class));
+    }
+
+    @Test
+    void fetchProductDetails_SharedLookupFailsForLeader_ShouldNotRetry() {
+        RequestReplyFuture<String, Object, byte[]> shared = new RequestReplyFuture<>();
+        when(replyingKafkaTemplate.sendAndReceive(any(ProducerRecord.class), any(Duration.class)))
+                .thenReturn(shared);
+        Instant deadline = Instant.now().plusSeconds(30);
+
+        CompletableFuture<ProductDetailsResponse> result = client.fetchProductDetails("FD-1Y", deadline);
+        shared.completeExceptionally(new IllegalStateException("broker down"));
+
+        assertNull(result.join());
+        verify(replyingKafkaTemplate, times(1)).sendAndReceive(any(ProducerRecord.class), any(Duration.class));
+    }
+}
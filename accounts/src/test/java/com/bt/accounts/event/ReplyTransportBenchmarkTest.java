@@ -0,0 +1,235 @@
+package com.bt.accounts.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the ReplyingKafkaTemplate transport with the Redis-correlated path
+ * against a real broker and Redis. Skipped unless run with
+ * {@code -Dbenchmark=true}; endpoints default to localhost.
+ *
+ * The echo responder answers on the reply partition when reply headers are
+ * present, otherwise on a shared response topic whose consumer hands the reply
+ * to a second store, as another accounts instance in the group would.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class ReplyTransportBenchmarkTest {
+
+    private static final String REQUEST_TOPIC = "bench.request";
+    private static final String RESPONSE_TOPIC = "bench.response";
+    private static final String REPLY_TOPIC = "bench.reply";
+
+    private final String bootstrapServers = System.getProperty("benchmark.kafka.bootstrap", "localhost:9092");
+    private final int requests = Integer.getInteger("benchmark.requests", 5000);
+    private final int inFlight = Integer.getInteger("benchmark.in-flight", 64);
+
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaMessageListenerContainer<String, String> echoResponder;
+    private KafkaMessageListenerContainer<String, String> responseRelay;
+    private ReplyingKafkaTemplate<String, String, String> replyingTemplate;
+    private JedisConnectionFactory redisConnectionFactory;
+    private RedisMessageListenerContainer redisListenerContainer;
+    private RedisRequestResponseStore waitingStore;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            var existing = admin.listTopics().names().get();
+            List<NewTopic> topics = new ArrayList<>();
+            for (String topic : List.of(REQUEST_TOPIC, RESPONSE_TOPIC, REPLY_TOPIC)) {
+                if (!existing.contains(topic)) {
+                    topics.add(new NewTopic(topic, 3, (short) 1));
+                }
+            }
+            admin.createTopics(topics).all().get();
+        }
+
+        producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 1));
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        echoResponder = container("bench-echo", new ContainerProperties(REQUEST_TOPIC),
+                (MessageListener<String, String>) this::echo);
+        echoResponder.start();
+
+        redisConnectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("benchmark.redis.host", "localhost"),
+                Integer.getInteger("benchmark.redis.port", 6379)));
+        redisConnectionFactory.afterPropertiesSet();
+        redisConnectionFactory.start();
+        StringRedisTemplate redis = new StringRedisTemplate(redisConnectionFactory);
+        redisListenerContainer = new RedisMessageListenerContainer();
+        redisListenerContainer.setConnectionFactory(redisConnectionFactory);
+        redisListenerContainer.afterPropertiesSet();
+        redisListenerContainer.start();
+        waitingStore = new RedisRequestResponseStore(redis, redisListenerContainer, 4);
+        waitingStore.subscribe();
+        RedisRequestResponseStore relayStore = new RedisRequestResponseStore(redis, redisListenerContainer, 4);
+        responseRelay = container("bench-relay", new ContainerProperties(RESPONSE_TOPIC),
+                (MessageListener<String, String>) record -> relayStore.putResponse(record.key(), record.value()));
+        responseRelay.start();
+
+        ContainerProperties replyProperties = new ContainerProperties(new TopicPartitionOffset(REPLY_TOPIC, 0,
+                TopicPartitionOffset.SeekPosition.END));
+        replyProperties.setGroupId("bench-replies-0");
+        ConcurrentMessageListenerContainer<String, String> replyContainer = new ConcurrentMessageListenerContainer<>(
+                consumerFactory(), replyProperties);
+        replyingTemplate = new ReplyingKafkaTemplate<>(producerFactory, replyContainer);
+        replyingTemplate.setDefaultReplyTimeout(Duration.ofSeconds(30));
+        replyingTemplate.start();
+    }
+
+    @AfterAll
+    void tearDown() {
+        replyingTemplate.stop();
+        responseRelay.stop();
+        echoResponder.stop();
+        redisListenerContainer.stop();
+        redisConnectionFactory.destroy();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void compareReplyTransports() throws Exception {
+        // Warm both paths so connection setup and JIT do not land in the measurement
+        run("warm-up kafka", Math.min(requests, 500), this::sendViaReplyingTemplate);
+        run("warm-up redis", Math.min(requests, 500), this::sendViaRedisStore);
+
+        Result kafka = run("replying-template", requests, this::sendViaReplyingTemplate);
+        Result redis = run("redis-store", requests, this::sendViaRedisStore);
+
+        log.info("{}", kafka);
+        log.info("{}", redis);
+        assertTrue(kafka.completed() == requests && redis.completed() == requests,
+                "Every request should receive a reply");
+    }
+
+    private CompletableFuture<String> sendViaReplyingTemplate(String payload) {
+        return replyingTemplate.sendAndReceive(new ProducerRecord<>(REQUEST_TOPIC, payload, payload))
+                .thenApply(ConsumerRecord::value);
+    }
+
+    private CompletableFuture<String> sendViaRedisStore(String payload) {
+        waitingStore.putRequest(payload, null);
+        kafkaTemplate.send(REQUEST_TOPIC, payload, payload);
+        return waitingStore.getResponseAsync(payload, String.class, Duration.ofSeconds(30));
+    }
+
+    private Result run(String name, int count, Function<String, CompletableFuture<String>> sender)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(inFlight);
+        CountDownLatch done = new CountDownLatch(count);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(count));
+        long started = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            permits.acquire();
+            long sentAt = System.nanoTime();
+            sender.apply(UUID.randomUUID().toString()).whenComplete((reply, error) -> {
+                if (error == null && reply != null) {
+                    latencies.add(System.nanoTime() - sentAt);
+                }
+                permits.release();
+                done.countDown();
+            });
+        }
+        done.await(2, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - started;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+        long p99 = sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.99)));
+        return new Result(name, sorted.size(), sorted.size() / (elapsed / 1e9), p50 / 1e6, p99 / 1e6);
+    }
+
+    private void echo(ConsumerRecord<String, String> request) {
+        Header replyTopic = request.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+        Header correlation = request.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        if (replyTopic == null || correlation == null) {
+            kafkaTemplate.send(RESPONSE_TOPIC, request.key(), request.value());
+            return;
+        }
+        Header partition = request.headers().lastHeader(KafkaHeaders.REPLY_PARTITION);
+        ProducerRecord<String, String> reply = new ProducerRecord<>(
+                new String(replyTopic.value(), StandardCharsets.UTF_8),
+                partition != null ? ByteBuffer.wrap(partition.value()).getInt() : null,
+                request.key(), request.value());
+        reply.headers().add(KafkaHeaders.CORRELATION_ID, correlation.value());
+        kafkaTemplate.send(reply);
+    }
+
+    private KafkaMessageListenerContainer<String, String> container(String groupId, ContainerProperties properties,
+            MessageListener<String, String> listener) {
+        properties.setGroupId(groupId);
+        properties.setMessageListener(listener);
+        return new KafkaMessageListenerContainer<>(consumerFactory(), properties);
+    }
+
+    private DefaultKafkaConsumerFactory<String, String> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"));
+    }
+
+    private record Result(String name, int completed, double throughputPerSecond, double p50Millis,
+            double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%-18s completed=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms",
+                    name, completed, throughputPerSecond, p50Millis, p99Millis);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bt.accounts.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsForSameKey_ShouldShareOneExecution() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("FD-1Y", () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = singleFlight.execute("FD-1Y", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        pending.complete("product");
+
+        assertEquals("product", first.join());
+        assertEquals("product", second.join());
+        assertEquals(1, loads.get());
+        assertEquals(1L, singleFlight.metrics().get("coalesced"));
+        assertEquals(0, singleFlight.metrics().get("inFlight"));
+    }
+
+    @Test
+    void completedCall_ShouldNotBeReused() {
+        singleFlight.execute("FD-1Y", () -> CompletableFuture.completedFuture("first")).join();
+
+        String result = singleFlight.execute("FD-1Y", () -> CompletableFuture.completedFuture("second")).join();
+
+        assertEquals("second", result);
+        assertEquals(2L, singleFlight.metrics().get("executions"));
+    }
+
+    @Test
+    void failedCall_ShouldFailAllWaitersAndReleaseKey() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("FD-1Y", () -> pending);
+        CompletableFuture<String> second = singleFlight.execute("FD-1Y", () -> pending);
+
+        pending.completeExceptionally(new IllegalStateException("boom"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, singleFlight.metrics().get("inFlight"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.bt.accounts.repository;
+
+import com.bt.accounts.entity.AccountTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AccountTransactionRepositoryTest {
+
+    private static final String ACCOUNT_NO = "FD-BR001-20251023-10000001";
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Two transactions per day so pages have to break ties on id
+        for (int i = 0; i < 10; i++) {
+            transactionRepository.save(AccountTransaction.builder()
+                    .transactionId("TXN-" + i)
+                    .accountNo(ACCOUNT_NO)
+                    .transactionType(AccountTransaction.TransactionType.DEPOSIT)
+                    .amount(BigDecimal.TEN)
+                    .balanceAfter(BigDecimal.valueOf(1000 + i * 10L))
+                    .transactionDate(START.plusDays(i / 2))
+                    .build());
+        }
+    }
+
+    @Test
+    void findPageBefore_WalkingCursor_ShouldReturnEveryRowOnceNewestFirst() {
+        List<AccountTransaction> seen = new ArrayList<>();
+        LocalDateTime beforeDate = START.plusYears(1);
+        long beforeId = Long.MAX_VALUE;
+        List<AccountTransaction> page;
+        do {
+            page = transactionRepository.findPageBefore(ACCOUNT_NO, START, beforeDate, beforeId,
+                    PageRequest.of(0, 3));
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                beforeDate = page.get(page.size() - 1).getTransactionDate();
+                beforeId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 3);
+
+        assertEquals(10, seen.size());
+        assertEquals(10, seen.stream().map(AccountTransaction::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            AccountTransaction newer = seen.get(i - 1);
+            AccountTransaction older = seen.get(i);
+            assertTrue(newer.getTransactionDate().isAfter(older.getTransactionDate())
+                    || newer.getTransactionDate().isEqual(older.getTransactionDate())
+                            && newer.getId() > older.getId());
+        }
+    }
+
+    @Test
+    void findPageBefore_WithFromDate_ShouldStopAtLowerBound() {
+        List<AccountTransaction> page = transactionRepository.findPageBefore(ACCOUNT_NO, START.plusDays(3),
+                START.plusYears(1), Long.MAX_VALUE, PageRequest.of(0, 50));
+
+        assertEquals(4, page.size());
+        page.forEach(txn -> assertFalse(txn.getTransactionDate().isBefore(START.plusDays(3))));
+    }
+}
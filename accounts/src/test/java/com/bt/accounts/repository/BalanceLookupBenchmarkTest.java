@@ -0,0 +1,114 @@
+package com.bt.accounts.repository;
+
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.FdAccount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares per-account balance lookups with the single latest-row query used by
+ * the customer dashboard, at growing account counts. Skipped unless run with
+ * {@code -Dbenchmark=true}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class BalanceLookupBenchmarkTest {
+
+    private static final int TRANSACTIONS_PER_ACCOUNT = Integer.getInteger("benchmark.transactions", 20);
+
+    @Autowired
+    private FdAccountRepository accountRepository;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compareLookupsByAccountCount() {
+        List<String> results = new ArrayList<>();
+        int seeded = 0;
+        List<String> accountNos = new ArrayList<>();
+        for (int accounts : List.of(10, 100, 500)) {
+            for (; seeded < accounts; seeded++) {
+                accountNos.add(seed(seeded));
+            }
+            entityManager.flush();
+            List<String> slice = List.copyOf(accountNos);
+
+            Map<String, BigDecimal> perAccount = new HashMap<>();
+            results.add(measure("per-account", accounts, () -> slice.forEach(accountNo -> perAccount.put(accountNo,
+                    transactionRepository.findByAccountNoOrderByTransactionDateDesc(accountNo).get(0)
+                            .getBalanceAfter()))));
+
+            Map<String, BigDecimal> bulk = new HashMap<>();
+            results.add(measure("bulk", accounts, () -> transactionRepository.findLatestByAccountNoIn(slice)
+                    .forEach(latest -> bulk.put(latest.getAccountNo(), latest.getBalanceAfter()))));
+
+            assertEquals(perAccount, bulk);
+        }
+        results.forEach(result -> log.info("{}", result));
+    }
+
+    private String measure(String name, int accounts, Runnable lookup) {
+        // Warm up, then measure against a cleared persistence context
+        lookup.run();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        lookup.run();
+        long elapsed = System.nanoTime() - started;
+        entityManager.clear();
+        return String.format("%-12s accounts=%-4d queries=%-4d latency=%.2f ms", name, accounts,
+                statistics.getPrepareStatementCount(), elapsed / 1e6);
+    }
+
+    private String seed(int index) {
+        String accountNo = String.format("FD-BENCH-%06d", index);
+        accountRepository.save(FdAccount.builder()
+                .accountNo(accountNo)
+                .customerId("CORP001")
+                .productCode("FD-PREMIUM")
+                .principalAmount(new BigDecimal("100000.00"))
+                .interestRate(new BigDecimal("6.75"))
+                .tenureMonths(24)
+                .branchCode("BR001")
+                .status(FdAccount.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < TRANSACTIONS_PER_ACCOUNT; i++) {
+            transactionRepository.save(AccountTransaction.builder()
+                    .transactionId(accountNo + "-" + i)
+                    .accountNo(accountNo)
+                    .transactionType(AccountTransaction.TransactionType.DEPOSIT)
+                    .amount(BigDecimal.TEN)
+                    .balanceAfter(BigDecimal.valueOf(100000L + i * 10L + index))
+                    .transactionDate(start.plusDays(i))
+                    .build());
+        }
+        return accountNo;
+    }
+}
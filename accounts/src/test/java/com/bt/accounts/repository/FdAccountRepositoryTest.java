@@ -5,8 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,4 +92,84 @@ class FdAccountRepositoryTest {
         assertNotNull(count);
         assertTrue(count >= 1);
     }
+
+    @Test
+    void save_WithNewAccount_ShouldStartBalanceAtPrincipal() {
+        Optional<BigDecimal> balance = accountRepository.findCurrentBalanceByAccountNo("FD-BR001-20251023-10000001");
+
+        assertTrue(balance.isPresent());
+        assertEquals(0, new BigDecimal("100000.00").compareTo(balance.get()));
+    }
+
+    @Test
+    void updateCurrentBalance_ShouldBeVisibleToBalanceLookup() {
+        int updated = accountRepository.updateCurrentBalance("FD-BR001-20251023-10000001", new BigDecimal("100500"));
+
+        assertEquals(1, updated);
+        assertEquals(0, new BigDecimal("100500").compareTo(
+                accountRepository.findCurrentBalanceByAccountNo("FD-BR001-20251023-10000001").orElseThrow()));
+    }
+
+    @Test
+    void findDueForAccrual_ShouldPageDueActiveAccountsInKeysetOrder() {
+        // The cursor is read from the saved instances, so keep it at a precision H2 stores exactly
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        saveScheduled("FD-DUE-1", FdAccount.AccountStatus.ACTIVE, now.minusDays(2), now.plusYears(1));
+        saveScheduled("FD-DUE-2", FdAccount.AccountStatus.ACTIVE, now.minusDays(2), now.plusYears(1));
+        saveScheduled("FD-DUE-3", FdAccount.AccountStatus.ACTIVE, now.minusDays(1), now.plusYears(1));
+        saveScheduled("FD-CLOSED", FdAccount.AccountStatus.CLOSED, now.minusDays(3), null);
+
+        List<FdAccount> first = accountRepository.findDueForAccrual(FdAccount.AccountStatus.ACTIVE, now,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 1, List.of(0), PageRequest.of(0, 2));
+        FdAccount last = first.get(first.size() - 1);
+        List<FdAccount> second = accountRepository.findDueForAccrual(FdAccount.AccountStatus.ACTIVE, now,
+                last.getNextInterestAccrualAt(), last.getId(), 1, List.of(0),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of("FD-DUE-1", "FD-DUE-2"), first.stream().map(FdAccount::getAccountNo).toList());
+        assertEquals(List.of("FD-DUE-3"), second.stream().map(FdAccount::getAccountNo).toList());
+    }
+
+    @Test
+    void findDueForPayout_ShouldSkipAccountsNotYetDue() {
+        LocalDateTime now = LocalDateTime.now();
+        saveScheduled("FD-PAYOUT", FdAccount.AccountStatus.ACTIVE, now.plusMonths(6), now.minusHours(1));
+
+        List<FdAccount> due = accountRepository.findDueForPayout(FdAccount.AccountStatus.ACTIVE, now,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 1, List.of(0), PageRequest.of(0, 10));
+
+        assertEquals(List.of("FD-PAYOUT"), due.stream().map(FdAccount::getAccountNo).toList());
+        assertTrue(accountRepository.findDueForAccrual(FdAccount.AccountStatus.ACTIVE, now,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 1, List.of(0), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void findDueForAccrual_ShouldOnlyReturnRequestedShards() {
+        LocalDateTime now = LocalDateTime.now();
+        FdAccount first = saveScheduled("FD-SHARD-1", FdAccount.AccountStatus.ACTIVE, now.minusDays(1), null);
+        FdAccount second = saveScheduled("FD-SHARD-2", FdAccount.AccountStatus.ACTIVE, now.minusDays(1), null);
+        int shard = (int) (first.getId() % 2);
+
+        List<FdAccount> due = accountRepository.findDueForAccrual(FdAccount.AccountStatus.ACTIVE, now,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 2, List.of(shard), PageRequest.of(0, 10));
+
+        assertEquals(List.of(first.getAccountNo()), due.stream().map(FdAccount::getAccountNo).toList());
+        assertNotEquals(shard, (int) (second.getId() % 2));
+    }
+
+    private FdAccount saveScheduled(String accountNo, FdAccount.AccountStatus status, LocalDateTime nextAccrual,
+            LocalDateTime nextPayout) {
+        return accountRepository.save(FdAccount.builder()
+                .accountNo(accountNo)
+                .customerId("CUST002")
+                .productCode("FD-PREMIUM")
+                .principalAmount(new BigDecimal("1000.00"))
+                .interestRate(new BigDecimal("6.75"))
+                .tenureMonths(24)
+                .branchCode("BR001")
+                .status(status)
+                .nextInterestAccrualAt(nextAccrual)
+                .nextPayoutAt(nextPayout)
+                .build());
+    }
 }
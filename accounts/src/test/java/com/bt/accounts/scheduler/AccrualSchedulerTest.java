@@ -0,0 +1,291 @@
+package com.bt.accounts.scheduler;
+
+import com.bt.accounts.dto.TransactionResponse;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.entity.InterestMintBatch;
+import com.bt.accounts.entity.InterestMintItem;
+import com.bt.accounts.repository.FdAccountRepository;
+import com.bt.accounts.service.AccountBalanceService;
+import com.bt.accounts.service.BatchTransactionService;
+import com.bt.accounts.service.CustomerPortfolioService;
+import com.bt.accounts.service.InterestMintService;
+import com.bt.accounts.service.PricingRuleEvaluator;
+import com.bt.accounts.service.TransactionService;
+import com.bt.accounts.time.TimeProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccrualSchedulerTest {
+
+    @Mock
+    private FdAccountRepository accountRepository;
+
+    @Mock
+    private AccountBalanceService accountBalanceService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private InterestMintService interestMintService;
+
+    @Mock
+    private BatchTransactionService batchTransactionService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PricingRuleEvaluator pricingRuleEvaluator;
+
+    @Mock
+    private TimeProvider timeProvider;
+
+    @Mock
+    private CustomerPortfolioService customerPortfolioService;
+
+    @Mock
+    private AccrualShardLeases shardLeases;
+
+    private AccrualScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new AccrualScheduler(accountRepository, accountBalanceService, transactionService,
+                interestMintService, batchTransactionService, transactionTemplate, pricingRuleEvaluator,
+                timeProvider, customerPortfolioService, shardLeases);
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 500);
+        ReflectionTestUtils.setField(scheduler, "workers", 4);
+        ReflectionTestUtils.setField(scheduler, "catchUpMinPeriods", 2);
+        scheduler.startWorkers();
+
+        when(timeProvider.now()).thenReturn(Instant.now());
+        when(shardLeases.ownedShards()).thenReturn(List.of(0));
+        when(shardLeases.shardCount()).thenReturn(1);
+        when(shardLeases.owns(anyLong())).thenReturn(true);
+        when(pricingRuleEvaluator.evaluate(any(), any(), any()))
+                .thenReturn(PricingRuleEvaluator.EvaluationResult.noRule(new BigDecimal("6.50")));
+        when(accountRepository.findUnscheduled(any(), anyLong(), anyInt(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(accountRepository.findDueForPayout(any(), any(), any(), anyLong(), anyInt(), any(),
+                any(Pageable.class))).thenReturn(List.of());
+        when(transactionService.recordTransaction(anyString(), any(), any()))
+                .thenReturn(TransactionResponse.builder()
+                        .transactionId("TXN-1")
+                        .balanceAfter(new BigDecimal("1065"))
+                        .build());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(interestMintService.settlePending()).thenReturn(List.of());
+        when(accountRepository.findByAccountNoForUpdate(anyString())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stopWorkers();
+    }
+
+    @Test
+    void runAccruals_FailingAccount_ShouldNotStopOthers() {
+        dueAccounts(3);
+        when(accountBalanceService.currentBalance("FD-1")).thenThrow(new IllegalStateException("db timeout"));
+        when(accountBalanceService.currentBalance(argThat((String accountNo) -> !"FD-1".equals(accountNo))))
+                .thenReturn(new BigDecimal("1000"));
+
+        scheduler.runAccruals();
+
+        Map<String, Object> metrics = scheduler.accrualMetrics();
+        assertEquals(2L, metrics.get("accountsProcessed"));
+        assertEquals(1L, metrics.get("accountsFailed"));
+        assertEquals(3L, metrics.get("currentRunCompleted"));
+        verify(transactionService).recordTransaction(eq("FD-0"), any(), any());
+        verify(transactionService).recordTransaction(eq("FD-2"), any(), any());
+        verify(transactionService, never()).recordTransaction(eq("FD-1"), any(), any());
+    }
+
+    @Test
+    void runAccruals_ShouldRecordPendingMintsAndSettleOncePerRun() {
+        dueAccounts(12);
+        when(accountBalanceService.currentBalance(anyString())).thenReturn(new BigDecimal("1000"));
+        when(interestMintService.settlePending()).thenReturn(List.of(InterestMintBatch.builder()
+                .id(1L)
+                .status(InterestMintBatch.Status.MINTED)
+                .itemCount(12)
+                .totalAmount(new BigDecimal("780"))
+                .build()));
+
+        scheduler.runAccruals();
+
+        verify(interestMintService, times(12)).recordPending(anyString(), eq("TXN-1"), eq(new BigDecimal("65")),
+                any(LocalDateTime.class));
+        verify(interestMintService, times(1)).settlePending();
+        Map<String, Object> metrics = scheduler.accrualMetrics();
+        assertEquals(12L, metrics.get("accountsProcessed"));
+        assertEquals(1L, metrics.get("mintBatches"));
+        assertEquals(0L, metrics.get("mintFailures"));
+    }
+
+    @Test
+    void runAccruals_AccountYearsBehind_ShouldCompoundInOnePass() {
+        LocalDateTime now = LocalDateTime.now();
+        FdAccount account = FdAccount.builder()
+                .id(1L)
+                .accountNo("FD-BEHIND")
+                .customerId("CUST1")
+                .principalAmount(new BigDecimal("1000"))
+                .interestRate(new BigDecimal("10.00"))
+                .baseInterestRate(new BigDecimal("10.00"))
+                .tenureMonths(120)
+                .status(FdAccount.AccountStatus.ACTIVE)
+                .createdAt(now.minusYears(3).minusDays(1))
+                .nextInterestAccrualAt(now.minusYears(2).minusDays(1))
+                .nextPayoutAt(now.plusYears(7))
+                .totalInterestAccrued(BigDecimal.ZERO)
+                .build();
+        when(accountRepository.findDueForAccrual(any(), any(), any(), anyLong(), anyInt(), any(),
+                any(Pageable.class))).thenReturn(List.of(account));
+        reloadsAs(account);
+        when(pricingRuleEvaluator.evaluate(any(), any(), any()))
+                .thenReturn(PricingRuleEvaluator.EvaluationResult.noRule(new BigDecimal("10.00")));
+        when(accountBalanceService.currentBalance("FD-BEHIND")).thenReturn(new BigDecimal("1000"));
+        when(batchTransactionService.postInterestCredits(eq("FD-BEHIND"), any())).thenAnswer(invocation -> invocation
+                .<List<BatchTransactionService.InterestCredit>>getArgument(1).stream()
+                .map(credit -> new BatchTransactionService.PostedCredit("TXN-" + credit.amount(), credit.amount(),
+                        null, credit.accruedFor()))
+                .toList());
+
+        scheduler.runAccruals();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BatchTransactionService.InterestCredit>> credits = ArgumentCaptor.forClass(List.class);
+        verify(batchTransactionService).postInterestCredits(eq("FD-BEHIND"), credits.capture());
+        assertEquals(List.of(new BigDecimal("100"), new BigDecimal("110"), new BigDecimal("121")),
+                credits.getValue().stream().map(BatchTransactionService.InterestCredit::amount).toList());
+        verify(interestMintService).recordPending(argThat((List<InterestMintItem> items) -> items.size() == 3));
+        verify(transactionService, never()).recordTransaction(anyString(), any(), any());
+        verify(pricingRuleEvaluator, times(1)).evaluate(any(), any(), any());
+        assertEquals(0, new BigDecimal("331").compareTo(account.getTotalInterestAccrued()));
+        assertTrue(account.getNextInterestAccrualAt().isAfter(now));
+    }
+
+    @Test
+    void runAccruals_AccountAccruedElsewhere_ShouldSkipWithoutCrediting() {
+        List<FdAccount> due = dueAccounts(1);
+        FdAccount dispatched = due.get(0);
+        FdAccount current = copyOf(dispatched);
+        current.setNextInterestAccrualAt(dispatched.getNextInterestAccrualAt().plusYears(1));
+        when(accountRepository.findByAccountNoForUpdate("FD-0")).thenReturn(Optional.of(current));
+        when(accountBalanceService.currentBalance(anyString())).thenReturn(new BigDecimal("1000"));
+
+        scheduler.runAccruals();
+
+        verify(transactionService, never()).recordTransaction(anyString(), any(), any());
+        verify(accountRepository, never()).save(any());
+        Map<String, Object> metrics = scheduler.accrualMetrics();
+        assertEquals(0L, metrics.get("accountsProcessed"));
+        assertEquals(1L, metrics.get("accountsSkipped"));
+    }
+
+    @Test
+    void runAccruals_ShouldSaveReloadedAccountNotDispatchedCopy() {
+        FdAccount dispatched = dueAccounts(1).get(0);
+        FdAccount current = copyOf(dispatched);
+        when(accountRepository.findByAccountNoForUpdate("FD-0")).thenReturn(Optional.of(current));
+        when(accountBalanceService.currentBalance(anyString())).thenReturn(new BigDecimal("1000"));
+
+        scheduler.runAccruals();
+
+        verify(accountRepository).save(same(current));
+        assertEquals(0, new BigDecimal("65").compareTo(current.getTotalInterestAccrued()));
+    }
+
+    @Test
+    void runAccruals_NoLeasedShards_ShouldSkipRun() {
+        when(shardLeases.ownedShards()).thenReturn(List.of());
+
+        scheduler.runAccruals();
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    private List<FdAccount> dueAccounts(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<FdAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            accounts.add(FdAccount.builder()
+                    .id((long) i + 1)
+                    .accountNo("FD-" + i)
+                    .customerId("CUST" + i)
+                    .principalAmount(new BigDecimal("1000"))
+                    .interestRate(new BigDecimal("6.50"))
+                    .baseInterestRate(new BigDecimal("6.50"))
+                    .tenureMonths(24)
+                    .status(FdAccount.AccountStatus.ACTIVE)
+                    .createdAt(now.minusYears(1).minusDays(1))
+                    .nextInterestAccrualAt(now.minusDays(1))
+                    .nextPayoutAt(now.plusYears(1))
+                    .totalInterestAccrued(BigDecimal.ZERO)
+                    .build());
+        }
+        when(accountRepository.findDueForAccrual(any(), any(), any(), anyLong(), anyInt(), any(),
+                any(Pageable.class))).thenReturn(accounts);
+        accounts.forEach(this::reloadsAs);
+        return accounts;
+    }
+
+    private void reloadsAs(FdAccount account) {
+        when(accountRepository.findByAccountNoForUpdate(account.getAccountNo())).thenReturn(Optional.of(account));
+    }
+
+    private FdAccount copyOf(FdAccount account) {
+        return FdAccount.builder()
+                .id(account.getId())
+                .accountNo(account.getAccountNo())
+                .customerId(account.getCustomerId())
+                .principalAmount(account.getPrincipalAmount())
+                .interestRate(account.getInterestRate())
+                .baseInterestRate(account.getBaseInterestRate())
+                .tenureMonths(account.getTenureMonths())
+                .status(account.getStatus())
+                .createdAt(account.getCreatedAt())
+                .nextInterestAccrualAt(account.getNextInterestAccrualAt())
+                .nextPayoutAt(account.getNextPayoutAt())
+                .totalInterestAccrued(account.getTotalInterestAccrued())
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.bt.accounts.scheduler;
+
+import com.bt.accounts.service.RedisDistributedLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccrualShardLeasesTest {
+
+    @Mock
+    private RedisDistributedLockService lockService;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private AccrualShardLeases leases;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.zCard(anyString())).thenReturn(1L);
+        when(lockService.acquireLock(anyString(), anyLong())).thenReturn("lease");
+        when(lockService.extendLock(anyString(), anyString(), anyLong())).thenReturn(true);
+        leases = new AccrualShardLeases(lockService, stringRedisTemplate, () -> 1_000_000L, true, 8, 30);
+    }
+
+    @Test
+    void heartbeat_SingleMember_ShouldLeaseEveryShard() {
+        leases.heartbeat();
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), leases.ownedShards());
+        assertTrue(leases.owns(13));
+        verify(zSetOperations).add(anyString(), anyString(), eq(1_000_000.0));
+        verify(zSetOperations).removeRangeByScore(anyString(), anyDouble(), eq(970_000.0));
+    }
+
+    @Test
+    void heartbeat_NewMemberJoins_ShouldReleaseShardsAboveFairShare() {
+        leases.heartbeat();
+        when(zSetOperations.zCard(anyString())).thenReturn(2L);
+
+        leases.heartbeat();
+
+        assertEquals(List.of(0, 1, 2, 3), leases.ownedShards());
+        verify(lockService, times(4)).releaseLock(anyString(), eq("lease"));
+        assertFalse(leases.owns(7));
+    }
+
+    @Test
+    void heartbeat_DuringRun_ShouldHoldShardsUntilRunFinishes() {
+        leases.heartbeat();
+        when(zSetOperations.zCard(anyString())).thenReturn(2L);
+        leases.runStarted();
+
+        leases.heartbeat();
+
+        assertEquals(8, leases.ownedShards().size());
+        verify(lockService, never()).releaseLock(anyString(), anyString());
+
+        leases.runFinished();
+        leases.heartbeat();
+
+        assertEquals(List.of(0, 1, 2, 3), leases.ownedShards());
+    }
+
+    @Test
+    void heartbeat_ShardsHeldElsewhere_ShouldOnlyOwnAcquiredOnes() {
+        when(lockService.acquireLock(anyString(), anyLong())).thenReturn(null);
+        when(lockService.acquireLock(eq("accounts:accrual-shard:3"), anyLong())).thenReturn("lease-3");
+
+        leases.heartbeat();
+
+        assertEquals(List.of(3), leases.ownedShards());
+        assertTrue(leases.owns(11));
+        assertFalse(leases.owns(12));
+    }
+
+    @Test
+    void heartbeat_LostLease_ShouldStopOwningShard() {
+        leases.heartbeat();
+        when(lockService.extendLock(eq("accounts:accrual-shard:5"), anyString(), anyLong())).thenReturn(false);
+        when(lockService.acquireLock(anyString(), anyLong())).thenReturn(null);
+
+        leases.heartbeat();
+
+        assertFalse(leases.ownedShards().contains(5));
+        assertEquals(7, leases.ownedShards().size());
+    }
+
+    @Test
+    void heartbeat_RedisDown_ShouldDropAllLeases() {
+        leases.heartbeat();
+        when(zSetOperations.add(anyString(), anyString(), anyDouble()))
+                .thenThrow(new QueryTimeoutException("redis down"));
+
+        leases.heartbeat();
+
+        assertTrue(leases.ownedShards().isEmpty());
+    }
+
+    @Test
+    void ownedShards_PartitioningDisabled_ShouldOwnEverything() {
+        AccrualShardLeases single = new AccrualShardLeases(lockService, stringRedisTemplate, () -> 0L, false, 4,
+                30);
+
+        single.heartbeat();
+
+        assertEquals(List.of(0, 1, 2, 3), single.ownedShards());
+        verifyNoInteractions(lockService);
+    }
+}
@@ -0,0 +1,130 @@
+package com.bt.accounts.scheduler;
+
+import com.bt.accounts.entity.OutboxEvent;
+import com.bt.accounts.event.AccountEvent;
+import com.bt.accounts.event.KafkaTopics;
+import com.bt.accounts.repository.OutboxEventRepository;
+import com.bt.accounts.service.RedisDistributedLockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private RedisDistributedLockService lockService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, lockService, transactionTemplate, objectMapper);
+        ReflectionTestUtils.setField(relay, "relayEnabled", true);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(relay, "sendTimeoutSeconds", 1L);
+        when(lockService.acquireLock(anyString(), anyLong())).thenReturn("lock-1");
+        when(lockService.extendLock(anyString(), anyString(), anyLong())).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void relay_ShouldPublishInIdOrderKeyedByAccount() throws Exception {
+        List<OutboxEvent> rows = List.of(row(1, "FD-1"), row(2, "FD-2"), row(3, "FD-1"));
+        when(outboxEventRepository.findUnpublished(any(Pageable.class))).thenReturn(rows);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        InOrder inOrder = inOrder(kafkaTemplate);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        inOrder.verify(kafkaTemplate).send(eq(KafkaTopics.ACCOUNT_UPDATED), eq("FD-1"), event.capture());
+        inOrder.verify(kafkaTemplate).send(eq(KafkaTopics.ACCOUNT_UPDATED), eq("FD-2"), any());
+        inOrder.verify(kafkaTemplate).send(eq(KafkaTopics.ACCOUNT_UPDATED), eq("FD-1"), any());
+        assertEquals(1L, ((AccountEvent) event.getValue()).getEventId());
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
+        verify(lockService).releaseLock("accounts:outbox-relay", "lock-1");
+    }
+
+    @Test
+    void relay_SendFails_ShouldMarkOnlyRowsBeforeTheFailure() throws Exception {
+        List<OutboxEvent> rows = List.of(row(1, "FD-1"), row(2, "FD-1"), row(3, "FD-1"));
+        when(outboxEventRepository.findUnpublished(any(Pageable.class))).thenReturn(rows);
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxEventRepository).markPublished(ids.capture(), any(LocalDateTime.class));
+        assertEquals(List.of(1L), List.copyOf(ids.getValue()));
+        verify(outboxEventRepository, times(1)).findUnpublished(any(Pageable.class));
+    }
+
+    @Test
+    void relay_LockHeldElsewhere_ShouldNotPublish() {
+        when(lockService.acquireLock(anyString(), anyLong())).thenReturn(null);
+
+        relay.relay();
+
+        verifyNoInteractions(outboxEventRepository, kafkaTemplate);
+    }
+
+    private OutboxEvent row(long id, String accountNo) throws Exception {
+        AccountEvent event = AccountEvent.builder()
+                .eventType(AccountEvent.TRANSACTION_RECORDED)
+                .accountNo(accountNo)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(KafkaTopics.ACCOUNT_UPDATED)
+                .messageKey(accountNo)
+                .eventType(event.getEventType())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.repository.AccountTransactionRepository;
+import com.bt.accounts.repository.FdAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the nightly balance check against H2 without a test transaction, so
+ * each page commits on its own like it does in production.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:balance;DB_CLOSE_DELAY=-1",
+        "accounts.balance.repair-mismatches=true"
+})
+@Import(AccountBalanceService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountBalanceServiceTest {
+
+    @Autowired
+    private AccountBalanceService accountBalanceService;
+
+    @Autowired
+    private FdAccountRepository accountRepository;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void verifyBalances_BackdatedCreditPostedLast_ShouldNotReportMismatch() {
+        LocalDateTime now = LocalDateTime.now();
+        createAccount("FD-BAL-1", "1135");
+        // A catch-up credit dated for an earlier period is inserted after today's deposit
+        posting("FD-BAL-1", "TXN-1", "1065", now);
+        posting("FD-BAL-1", "TXN-2", "1135", now.minusYears(1));
+
+        Map<String, Object> report = accountBalanceService.verifyBalances();
+
+        assertEquals(1L, report.get("checked"));
+        assertEquals(0L, report.get("mismatched"));
+        assertEquals(0, new BigDecimal("1135").compareTo(accountBalanceService.currentBalance("FD-BAL-1")));
+    }
+
+    @Test
+    void verifyBalances_AcrossPages_ShouldCheckEveryAccountAndRepairDrift() {
+        for (int i = 0; i < 1200; i++) {
+            createAccount("FD-BAL-" + i, "1000");
+        }
+        posting("FD-BAL-700", "TXN-700", "1050", LocalDateTime.now());
+
+        Map<String, Object> report = accountBalanceService.verifyBalances();
+
+        assertEquals(1200L, report.get("checked"));
+        assertEquals(1L, report.get("mismatched"));
+        assertEquals(1L, report.get("repaired"));
+        assertEquals(List.of("FD-BAL-700"), report.get("mismatchedAccounts"));
+        assertEquals(0, new BigDecimal("1050")
+                .compareTo(accountRepository.findCurrentBalanceByAccountNo("FD-BAL-700").orElseThrow()));
+    }
+
+    @Test
+    void backfillBalances_ShouldSetStaleBalancesFromLedger() {
+        createAccount("FD-BAL-1", "900");
+        createAccount("FD-BAL-2", "1000");
+        createAccount("FD-BAL-3", "1000");
+        // Posted by an instance that did not maintain the column
+        posting("FD-BAL-2", "TXN-2", "1065", LocalDateTime.now());
+
+        Map<String, Object> report = accountBalanceService.backfillBalances();
+
+        assertEquals(3L, report.get("checked"));
+        assertEquals(2L, report.get("repaired"));
+        assertEquals(0, new BigDecimal("1000")
+                .compareTo(accountRepository.findCurrentBalanceByAccountNo("FD-BAL-1").orElseThrow()));
+        assertEquals(0, new BigDecimal("1065")
+                .compareTo(accountRepository.findCurrentBalanceByAccountNo("FD-BAL-2").orElseThrow()));
+    }
+
+    private void createAccount(String accountNo, String balance) {
+        accountRepository.save(FdAccount.builder()
+                .accountNo(accountNo)
+                .customerId("CUST1")
+                .productCode("FD-PREMIUM")
+                .principalAmount(new BigDecimal("1000"))
+                .currentBalance(new BigDecimal(balance))
+                .interestRate(new BigDecimal("6.50"))
+                .tenureMonths(12)
+                .branchCode("BR001")
+                .status(FdAccount.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void posting(String accountNo, String transactionId, String balanceAfter, LocalDateTime date) {
+        transactionRepository.save(AccountTransaction.builder()
+                .transactionId(transactionId)
+                .accountNo(accountNo)
+                .transactionType(AccountTransaction.TransactionType.INTEREST_CREDIT)
+                .amount(BigDecimal.TEN)
+                .balanceAfter(new BigDecimal(balanceAfter))
+                .transactionDate(date)
+                .build());
+    }
+}
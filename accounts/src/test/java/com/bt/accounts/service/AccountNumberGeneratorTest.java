@@ -0,0 +1,122 @@
+package com.bt.accounts.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccountNumberGeneratorTest {
+
+    private static final String TODAY = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    // Stands in for the shared Redis counters
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString(), anyLong())).thenAnswer(invocation -> counters
+                .computeIfAbsent(invocation.getArgument(0), key -> new AtomicLong())
+                .addAndGet(invocation.getArgument(1)));
+    }
+
+    @Test
+    void generateAccountNumber_ShouldLeaseOneBlockPerBlockSizeNumbers() {
+        AccountNumberGenerator generator = generator(10);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            numbers.add(generator.generateAccountNumber("BR001"));
+        }
+
+        assertEquals("FD-BR001-" + TODAY + "-10000001", numbers.get(0));
+        assertEquals("FD-BR001-" + TODAY + "-10000025", numbers.get(24));
+        verify(valueOperations, times(3)).increment(eq("accounts:seq:BR001:" + TODAY), eq(10L));
+    }
+
+    @Test
+    void generateAccountNumber_TwoInstances_ShouldNeverHandOutTheSameNumber() {
+        AccountNumberGenerator first = generator(10);
+        AccountNumberGenerator second = generator(10);
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(numbers.add(first.generateAccountNumber("BR001")));
+            assertTrue(numbers.add(second.generateAccountNumber("BR001")));
+        }
+        assertEquals(100, numbers.size());
+    }
+
+    @Test
+    void generateAccountNumber_ShouldCountEachBranchSeparately() {
+        AccountNumberGenerator generator = generator(10);
+
+        generator.generateAccountNumber("BR001");
+        String other = generator.generateAccountNumber("BR002");
+
+        assertEquals("FD-BR002-" + TODAY + "-10000001", other);
+    }
+
+    @Test
+    void generateAccountNumber_ConcurrentCallers_ShouldStayUnique() throws Exception {
+        AccountNumberGenerator generator = generator(7);
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    List<String> numbers = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(generator.generateAccountNumber("BR001"));
+                    }
+                    return numbers;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                all.addAll(future.get());
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private AccountNumberGenerator generator(long blockSize) {
+        return new AccountNumberGenerator(stringRedisTemplate, "FD", 10000001, blockSize, 3);
+    }
+}
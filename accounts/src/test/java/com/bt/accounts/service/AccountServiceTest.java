@@ -6,7 +6,6 @@ import com.bt.accounts.entity.FdAccount;
 import com.bt.accounts.exception.*;
 import com.bt.accounts.event.*;
 import com.bt.accounts.repository.FdAccountRepository;
-import com.bt.accounts.repository.AccountTransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,11 +20,14 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,17 +38,23 @@ class AccountServiceTest {
         private FdAccountRepository accountRepository;
 
         @Mock
-        private AccountTransactionRepository transactionRepository;
+        private AccountBalanceService accountBalanceService;
 
         @Mock
-        private KafkaProducerService kafkaProducerService;
+        private KafkaRequestReplyClient requestReplyClient;
 
         @Mock
-        private RequestResponseStore requestResponseStore;
+        private CashCachedService cashCachedService;
 
         @Mock
         private AccountNumberGenerator accountNumberGenerator;
 
+        @Mock
+        private OutboxService outboxService;
+
+        @Mock
+        private CustomerPortfolioService customerPortfolioService;
+
         @InjectMocks
         private AccountService accountService;
 
@@ -96,8 +104,8 @@ class AccountServiceTest {
                                 .effectiveRate(new BigDecimal("6.96"))
                                 .build();
 
-                when(transactionRepository.findByAccountNoOrderByTransactionDateDesc(any()))
-                                .thenReturn(Collections.emptyList());
+                when(accountBalanceService.currentBalance(any(FdAccount.class)))
+                                .thenAnswer(invocation -> invocation.<FdAccount>getArgument(0).getPrincipalAmount());
 
                 setupSecurityContext();
         }
@@ -118,48 +126,8 @@ class AccountServiceTest {
         }
 
         @Test
-        void createAccount_WithValidData_ShouldSucceed() throws InterruptedException {
-                @SuppressWarnings("unused")
-                String requestId = "test-req-123";
-
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(kafkaProducerService).sendFdCalculationRequest(any());
-
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-                when(requestResponseStore.getResponse(any(), anyInt(), any()))
-                                .thenAnswer(invocation -> {
-                                        String id = invocation.getArgument(0);
-                                        if (id.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .active(true)
-                                                                .requestId(id)
-                                                                .build();
-                                        } else if (id.contains("product")) {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-PREMIUM")
-                                                                .productName("Premium FD")
-                                                                .minAmount(new BigDecimal("10000"))
-                                                                .maxAmount(new BigDecimal("10000000"))
-                                                                .minTermMonths(6)
-                                                                .maxTermMonths(120)
-                                                                .minInterestRate(new BigDecimal("5.00"))
-                                                                .maxInterestRate(new BigDecimal("8.00"))
-                                                                .requestId(id)
-                                                                .build();
-                                        } else {
-                                                return FdCalculationResponseEvent.builder()
-                                                                .maturityAmount(new BigDecimal("114061.37"))
-                                                                .interestEarned(new BigDecimal("14061.37"))
-                                                                .effectiveRate(new BigDecimal("6.96"))
-                                                                .requestId(id)
-                                                                .build();
-                                        }
-                                });
-
+        void createAccount_WithValidData_ShouldSucceed() {
+                replyWith(validCustomer(), product(), calculation());
                 when(accountNumberGenerator.generateAccountNumber(any()))
                                 .thenReturn("FD-BR001-20251023-10000001");
                 when(accountRepository.save(any(FdAccount.class)))
@@ -174,86 +142,99 @@ class AccountServiceTest {
                 assertNotNull(response);
                 assertEquals("1", response.getCustomerId());
                 assertEquals("FD-PREMIUM", response.getProductCode());
-                assertEquals(new BigDecimal("100000.00"), response.getPrincipalAmount());
+                assertEquals(0, new BigDecimal("100000").compareTo(response.getPrincipalAmount()));
+                assertEquals(0, new BigDecimal("114061").compareTo(response.getMaturityAmount()));
                 verify(accountRepository, times(1)).save(any(FdAccount.class));
+                verify(outboxService).accountCreated(any(FdAccount.class), eq("testuser"));
+                verify(cashCachedService).issue(any());
         }
 
         @Test
-        void createAccount_WithInvalidCustomer_ShouldThrowException() throws InterruptedException {
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-                when(requestResponseStore.getResponse(any(), anyInt(), any()))
-                                .thenReturn(CustomerValidationResponse.builder()
-                                                .valid(false)
-                                                .requestId("test-request-id")
-                                                .build());
+        void createAccount_WithInvalidCustomer_ShouldThrowException() {
+                replyWith(CustomerValidationResponse.builder()
+                                .valid(false)
+                                .requestId("test-request-id")
+                                .build(), product(), calculation());
 
                 assertThrows(CustomerNotFoundException.class,
                                 () -> accountService.createAccount(validRequest, authToken));
+                verify(requestReplyClient, never()).calculateFd(any(), any());
+                verify(accountRepository, never()).save(any(FdAccount.class));
         }
 
         @Test
-        void createAccount_WithPrincipalBelowMinimum_ShouldThrowException() throws InterruptedException {
+        void createAccount_WithPrincipalBelowMinimum_ShouldThrowException() {
                 validRequest.setPrincipalAmount(new BigDecimal("5000"));
-
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-                when(requestResponseStore.getResponse(any(), anyInt(), any()))
-                                .thenAnswer(invocation -> {
-                                        String id = invocation.getArgument(0);
-                                        if (id.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .requestId(id)
-                                                                .build();
-                                        } else {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-PREMIUM")
-                                                                .minAmount(new BigDecimal("10000"))
-                                                                .maxAmount(new BigDecimal("10000000"))
-                                                                .requestId(id)
-                                                                .build();
-                                        }
-                                });
+                replyWith(validCustomer(), product(), calculation());
 
                 assertThrows(InvalidAccountDataException.class,
                                 () -> accountService.createAccount(validRequest, authToken));
+                verify(requestReplyClient, never()).calculateFd(any(), any());
         }
 
         @Test
-        void createAccount_WithTenureAboveMaximum_ShouldThrowException() throws InterruptedException {
+        void createAccount_WithTenureAboveMaximum_ShouldThrowException() {
                 validRequest.setTenureMonths(150);
-
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-                when(requestResponseStore.getResponse(any(), anyInt(), any()))
-                                .thenAnswer(invocation -> {
-                                        String id = invocation.getArgument(0);
-                                        if (id.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .requestId(id)
-                                                                .build();
-                                        } else {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-PREMIUM")
-                                                                .minTermMonths(6)
-                                                                .maxTermMonths(120)
-                                                                .minAmount(new BigDecimal("10000"))
-                                                                .maxAmount(new BigDecimal("10000000"))
-                                                                .requestId(id)
-                                                                .build();
-                                        }
-                                });
+                replyWith(validCustomer(), product(), calculation());
 
                 assertThrows(InvalidAccountDataException.class,
                                 () -> accountService.createAccount(validRequest, authToken));
+                verify(requestReplyClient, never()).calculateFd(any(), any());
+        }
+
+        @Test
+        void createAccount_WhenCalculationTimesOut_ShouldThrowServiceIntegrationException() {
+                replyWith(validCustomer(), product(), calculation());
+                when(requestReplyClient.calculateFd(any(), any()))
+                                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("no reply")));
+
+                ServiceIntegrationException ex = assertThrows(ServiceIntegrationException.class,
+                                () -> accountService.createAccount(validRequest, authToken));
+                assertInstanceOf(TimeoutException.class, ex.getCause());
+                verify(accountRepository, never()).save(any(FdAccount.class));
+        }
+
+        private void replyWith(CustomerValidationResponse customer, ProductDetailsResponse product,
+                        FdCalculationResponseEvent calculation) {
+                when(requestReplyClient.validateCustomer(eq(1L), any()))
+                                .thenReturn(CompletableFuture.completedFuture(customer));
+                when(requestReplyClient.fetchProductDetails(eq("FD-PREMIUM"), any()))
+                                .thenReturn(CompletableFuture.completedFuture(product));
+                when(requestReplyClient.calculateFd(any(), any()))
+                                .thenReturn(CompletableFuture.completedFuture(calculation));
+        }
+
+        private CustomerValidationResponse validCustomer() {
+                return CustomerValidationResponse.builder()
+                                .customerId(1L)
+                                .valid(true)
+                                .active(true)
+                                .requestId("validation-1")
+                                .build();
+        }
+
+        private ProductDetailsResponse product() {
+                return ProductDetailsResponse.builder()
+                                .productId(1L)
+                                .productCode("FD-PREMIUM")
+                                .productName("Premium FD")
+                                .minAmount(new BigDecimal("10000"))
+                                .maxAmount(new BigDecimal("10000000"))
+                                .minTermMonths(6)
+                                .maxTermMonths(120)
+                                .minInterestRate(new BigDecimal("5.00"))
+                                .maxInterestRate(new BigDecimal("8.00"))
+                                .requestId("product-1")
+                                .build();
+        }
+
+        private FdCalculationResponseEvent calculation() {
+                return FdCalculationResponseEvent.builder()
+                                .maturityAmount(new BigDecimal("114061.37"))
+                                .interestEarned(new BigDecimal("14061.37"))
+                                .effectiveRate(new BigDecimal("6.96"))
+                                .requestId("calculation-1")
+                                .build();
         }
 
         @Test
@@ -335,6 +316,8 @@ class AccountServiceTest {
 
                 when(accountRepository.findAllByCustomerIdOrderByCreatedAtDesc("CUST001"))
                                 .thenReturn(accounts);
+                when(accountBalanceService.currentBalances(accounts))
+                                .thenReturn(Map.of("ACC001", new BigDecimal("1500"), "ACC002", new BigDecimal("2500")));
 
                 List<AccountResponse> responses = accountService.getCustomerAccounts("CUST001");
 
@@ -342,5 +325,7 @@ class AccountServiceTest {
                 assertEquals(2, responses.size());
                 assertEquals("ACC001", responses.get(0).getAccountNo());
                 assertEquals("ACC002", responses.get(1).getAccountNo());
+                assertEquals(new BigDecimal("1500"), responses.get(0).getCurrentBalance());
+                verify(accountBalanceService, never()).currentBalance(any(FdAccount.class));
         }
 }
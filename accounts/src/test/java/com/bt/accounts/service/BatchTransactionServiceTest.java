@@ -0,0 +1,271 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.dto.BatchTransactionItem;
+import com.bt.accounts.dto.BatchTransactionResponse;
+import com.bt.accounts.dto.BatchTransactionResult;
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.CashCachedWallet;
+import com.bt.accounts.entity.CustomerPortfolio;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.repository.AccountTransactionRepository;
+import com.bt.accounts.repository.CashCachedLedgerRepository;
+import com.bt.accounts.repository.CashCachedWalletRepository;
+import com.bt.accounts.repository.CustomerPortfolioRepository;
+import com.bt.accounts.repository.FdAccountRepository;
+import com.bt.accounts.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link BatchTransactionService} against H2 without a test transaction,
+ * so every chunk commits and the JDBC writes are read back through JPA.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1")
+@ImportAutoConfiguration({ ValidationAutoConfiguration.class, JacksonAutoConfiguration.class })
+@Import({ BatchTransactionService.class, AccountBalanceService.class, TransactionIdGenerator.class,
+        TransactionNodeLease.class, OutboxService.class, CustomerPortfolioService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class BatchTransactionServiceTest {
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("1000");
+
+    @Autowired
+    private BatchTransactionService batchTransactionService;
+
+    @Autowired
+    private FdAccountRepository accountRepository;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @Autowired
+    private CashCachedWalletRepository walletRepository;
+
+    @Autowired
+    private CashCachedLedgerRepository ledgerRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CustomerPortfolioRepository portfolioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        portfolioRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerRepository.deleteAll();
+        walletRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void postBatch_ShouldKeepRunningBalancePerAccountInRequestOrder() {
+        createAccount("FD-BATCH-1", "CUST1");
+        createAccount("FD-BATCH-2", "CUST2");
+
+        BatchTransactionResponse response = batchTransactionService.postBatch(List.of(
+                posting("FD-BATCH-2", "INTEREST_CREDIT", "5"),
+                posting("FD-BATCH-1", "INTEREST_CREDIT", "10"),
+                posting("FD-BATCH-1", "PENALTY_DEBIT", "3"),
+                posting("FD-BATCH-2", "INTEREST_CREDIT", "7")));
+
+        assertEquals(4, response.getPosted());
+        assertEquals(0, new BigDecimal("1010").compareTo(response.getResults().get(1).getBalanceAfter()));
+        assertEquals(0, new BigDecimal("1007").compareTo(response.getResults().get(2).getBalanceAfter()));
+        assertEquals(0, new BigDecimal("1012").compareTo(response.getResults().get(3).getBalanceAfter()));
+        assertBalance("FD-BATCH-1", "1007");
+        assertBalance("FD-BATCH-2", "1012");
+
+        List<BigDecimal> chain = transactionRepository.findByAccountNo("FD-BATCH-1").stream()
+                .sorted(Comparator.comparing(AccountTransaction::getId))
+                .map(AccountTransaction::getBalanceAfter)
+                .collect(Collectors.toList());
+        assertEquals(2, chain.size());
+        assertEquals(0, new BigDecimal("1010").compareTo(chain.get(0)));
+        assertEquals(0, new BigDecimal("1007").compareTo(chain.get(1)));
+        assertEquals(4, outboxEventRepository.countByPublishedAtIsNull());
+
+        CustomerPortfolio portfolio = portfolioRepository.findById("CUST1").orElseThrow();
+        assertEquals(0, new BigDecimal("1007").compareTo(portfolio.getTotalBalance()));
+    }
+
+    @Test
+    void postBatch_InvalidPostings_ShouldBeRejectedIndividually() {
+        createAccount("FD-BATCH-1", "CUST1");
+        createAccount("FD-BATCH-CLOSED", "CUST2");
+        FdAccount closed = accountRepository.findByAccountNo("FD-BATCH-CLOSED").orElseThrow();
+        closed.setStatus(FdAccount.AccountStatus.CLOSED);
+        accountRepository.save(closed);
+
+        BatchTransactionResponse response = batchTransactionService.postBatch(List.of(
+                posting("FD-BATCH-1", "INTEREST_CREDIT", "10"),
+                posting("FD-BATCH-1", "MATURITY_PAYOUT", "10"),
+                posting("FD-BATCH-1", "INTEREST_CREDIT", "2.5"),
+                posting("FD-MISSING", "INTEREST_CREDIT", "10"),
+                posting("FD-BATCH-CLOSED", "INTEREST_CREDIT", "10")));
+
+        assertEquals(1, response.getPosted());
+        assertEquals(4, response.getRejected());
+        assertEquals(0, response.getFailed());
+        List<BatchTransactionResult> results = response.getResults();
+        assertEquals(BatchTransactionResult.Status.POSTED, results.get(0).getStatus());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(BatchTransactionResult.Status.REJECTED, results.get(i).getStatus());
+            assertEquals(i, results.get(i).getIndex());
+            assertNotNull(results.get(i).getError());
+        }
+        assertBalance("FD-BATCH-1", "1010");
+        assertTrue(transactionRepository.findByAccountNo("FD-BATCH-CLOSED").isEmpty());
+    }
+
+    @Test
+    void postBatch_ShouldApplyWalletEffectsAndRejectOverdraw() {
+        createAccount("FD-BATCH-1", "CUST1");
+        walletRepository.save(CashCachedWallet.builder()
+                .customerId("CUST1")
+                .balance(new BigDecimal("100"))
+                .build());
+
+        BatchTransactionResponse response = batchTransactionService.postBatch(List.of(
+                posting("FD-BATCH-1", "DEPOSIT", "80"),
+                posting("FD-BATCH-1", "DEPOSIT", "30"),
+                posting("FD-BATCH-1", "WITHDRAWAL", "20"),
+                posting("FD-BATCH-1", "DEPOSIT", "30")));
+
+        assertEquals(3, response.getPosted());
+        assertEquals(BatchTransactionResult.Status.REJECTED, response.getResults().get(1).getStatus());
+        assertBalance("FD-BATCH-1", "1090");
+
+        CashCachedWallet wallet = walletRepository.findByCustomerId("CUST1").orElseThrow();
+        assertEquals(0, new BigDecimal("10").compareTo(wallet.getBalance()));
+        assertTrue(wallet.getVersion() > 0, "bulk wallet updates must bump the optimistic lock version");
+        assertEquals(3, ledgerRepository.findByCustomerIdOrderByCreatedAtDesc("CUST1").size());
+    }
+
+    @Test
+    void postInterestCredits_ShouldChainBalancesAndDateEachPeriod() {
+        createAccount("FD-BATCH-1", "CUST1");
+        LocalDateTime firstPeriod = LocalDateTime.now().minusYears(2).withNano(0);
+
+        List<BatchTransactionService.PostedCredit> posted = transactionTemplate.execute(status ->
+                batchTransactionService.postInterestCredits("FD-BATCH-1", List.of(
+                        credit("65", firstPeriod),
+                        credit("70", firstPeriod.plusYears(1)))));
+
+        assertEquals(2, posted.size());
+        assertEquals(0, new BigDecimal("1065").compareTo(posted.get(0).balanceAfter()));
+        assertEquals(0, new BigDecimal("1135").compareTo(posted.get(1).balanceAfter()));
+        assertBalance("FD-BATCH-1", "1135");
+
+        List<AccountTransaction> rows = transactionRepository.findByAccountNo("FD-BATCH-1").stream()
+                .sorted(Comparator.comparing(AccountTransaction::getId))
+                .collect(Collectors.toList());
+        assertEquals(2, rows.size());
+        assertEquals(posted.get(0).transactionId(), rows.get(0).getTransactionId());
+        assertEquals(firstPeriod, rows.get(0).getTransactionDate());
+        assertEquals(firstPeriod.plusYears(1), rows.get(1).getTransactionDate());
+        assertEquals(0, new BigDecimal("1135").compareTo(
+                portfolioRepository.findById("CUST1").orElseThrow().getTotalBalance()));
+    }
+
+    @Test
+    void postInterestCredits_WithoutTransaction_ShouldBeRejected() {
+        createAccount("FD-BATCH-1", "CUST1");
+
+        assertThrows(IllegalTransactionStateException.class, () -> batchTransactionService
+                .postInterestCredits("FD-BATCH-1", List.of(credit("65", LocalDateTime.now()))));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void postBatch_TenThousandPostings_Throughput() {
+        int accounts = 500;
+        int postings = 10_000;
+        for (int i = 0; i < accounts; i++) {
+            createAccount("FD-BENCH-" + i, "CUST" + i);
+        }
+        List<BatchTransactionItem> items = new ArrayList<>(postings);
+        for (int i = 0; i < postings; i++) {
+            items.add(posting("FD-BENCH-" + (i % accounts), "INTEREST_CREDIT", "1"));
+        }
+
+        long started = System.nanoTime();
+        BatchTransactionResponse response = batchTransactionService.postBatch(items);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertEquals(postings, response.getPosted());
+        assertBalance("FD-BENCH-0", "1020");
+        log.info("batch: {} postings in {} s ({}/s)", postings, String.format("%.2f", seconds),
+                String.format("%.0f", postings / seconds));
+    }
+
+    private void assertBalance(String accountNo, String expected) {
+        assertEquals(0, new BigDecimal(expected)
+                .compareTo(accountRepository.findCurrentBalanceByAccountNo(accountNo).orElseThrow()));
+    }
+
+    private BatchTransactionService.InterestCredit credit(String amount, LocalDateTime accruedFor) {
+        return new BatchTransactionService.InterestCredit(new BigDecimal(amount), accruedFor,
+                "Annual interest credit", "System accrual");
+    }
+
+    private BatchTransactionItem posting(String accountNo, String type, String amount) {
+        return BatchTransactionItem.builder()
+                .accountNo(accountNo)
+                .transactionType(type)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private void createAccount(String accountNo, String customerId) {
+        accountRepository.save(FdAccount.builder()
+                .accountNo(accountNo)
+                .customerId(customerId)
+                .productCode("FD-PREMIUM")
+                .principalAmount(PRINCIPAL)
+                .currentBalance(PRINCIPAL)
+                .interestRate(new BigDecimal("6.50"))
+                .baseInterestRate(new BigDecimal("6.50"))
+                .tenureMonths(12)
+                .branchCode("BR001")
+                .status(FdAccount.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
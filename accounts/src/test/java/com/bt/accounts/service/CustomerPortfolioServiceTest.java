@@ -0,0 +1,128 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.dto.CustomerPortfolioResponse;
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.CustomerPortfolio;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.repository.CustomerPortfolioRepository;
+import com.bt.accounts.repository.FdAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CustomerPortfolioService.class)
+class CustomerPortfolioServiceTest {
+
+    @Autowired
+    private CustomerPortfolioService portfolioService;
+
+    @Autowired
+    private CustomerPortfolioRepository portfolioRepository;
+
+    @Autowired
+    private FdAccountRepository accountRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void getPortfolio_WithoutRow_ShouldBuildFromActiveAccounts() {
+        LocalDateTime soon = LocalDateTime.now().plusMonths(3);
+        createAccount("FD-P-1", "CUST1", "1000", "1050", "50", FdAccount.AccountStatus.ACTIVE, soon.plusMonths(6));
+        createAccount("FD-P-2", "CUST1", "2000", "2000", null, FdAccount.AccountStatus.ACTIVE, soon);
+        createAccount("FD-P-3", "CUST1", "5000", "0", "120", FdAccount.AccountStatus.CLOSED, null);
+
+        CustomerPortfolioResponse portfolio = portfolioService.getPortfolio("CUST1");
+
+        assertEquals(3, portfolio.getAccountCount());
+        assertEquals(2, portfolio.getActiveAccountCount());
+        assertEquals(0, new BigDecimal("3000").compareTo(portfolio.getTotalPrincipal()));
+        assertEquals(0, new BigDecimal("3050").compareTo(portfolio.getTotalBalance()));
+        assertEquals(0, new BigDecimal("50").compareTo(portfolio.getTotalInterestAccrued()));
+        assertEquals("FD-P-2", portfolio.getNextMaturityAccountNo());
+        assertTrue(portfolioRepository.existsById("CUST1"));
+    }
+
+    @Test
+    void transactionApplied_ShouldAdjustExistingRowInPlace() {
+        FdAccount account = createAccount("FD-P-1", "CUST1", "1000", "1000", null, FdAccount.AccountStatus.ACTIVE,
+                null);
+        portfolioService.rebuild("CUST1");
+
+        portfolioService.transactionApplied(account, AccountTransaction.TransactionType.INTEREST_CREDIT,
+                new BigDecimal("12.5"), new BigDecimal("12.5"));
+        portfolioService.transactionApplied(account, AccountTransaction.TransactionType.PENALTY_DEBIT,
+                new BigDecimal("2"), new BigDecimal("-2"));
+        entityManager.clear();
+
+        CustomerPortfolio portfolio = portfolioRepository.findById("CUST1").orElseThrow();
+        assertEquals(0, new BigDecimal("1010.5").compareTo(portfolio.getTotalBalance()));
+        assertEquals(0, new BigDecimal("12.5").compareTo(portfolio.getTotalInterestAccrued()));
+        assertEquals(0, new BigDecimal("1000").compareTo(portfolio.getTotalPrincipal()));
+    }
+
+    @Test
+    void transactionApplied_OnClosedAccount_ShouldRebuild() {
+        FdAccount account = createAccount("FD-P-1", "CUST1", "1000", "1000", null, FdAccount.AccountStatus.ACTIVE,
+                null);
+        portfolioService.rebuild("CUST1");
+        account.setStatus(FdAccount.AccountStatus.CLOSED);
+        account.setCurrentBalance(BigDecimal.ZERO);
+        accountRepository.saveAndFlush(account);
+
+        portfolioService.transactionApplied(account, AccountTransaction.TransactionType.MATURITY_PAYOUT,
+                new BigDecimal("1000"), new BigDecimal("-1000"));
+
+        CustomerPortfolio portfolio = portfolioRepository.findById("CUST1").orElseThrow();
+        assertEquals(0, portfolio.getActiveAccountCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(portfolio.getTotalBalance()));
+        assertNull(portfolio.getNextMaturityAccountNo());
+    }
+
+    @Test
+    void transactionsApplied_ShouldUpdateExistingRowsAndBuildMissingOnes() {
+        createAccount("FD-P-1", "CUST1", "1000", "1000", null, FdAccount.AccountStatus.ACTIVE, null);
+        createAccount("FD-P-2", "CUST2", "500", "530", "30", FdAccount.AccountStatus.ACTIVE, null);
+        portfolioService.rebuild("CUST1");
+
+        Map<String, CustomerPortfolioService.Delta> deltas = new TreeMap<>();
+        deltas.put("CUST1", new CustomerPortfolioService.Delta(new BigDecimal("20"), new BigDecimal("20")));
+        deltas.put("CUST2", new CustomerPortfolioService.Delta(new BigDecimal("30"), new BigDecimal("30")));
+        portfolioService.transactionsApplied(deltas);
+        entityManager.clear();
+
+        assertEquals(0, new BigDecimal("1020")
+                .compareTo(portfolioRepository.findById("CUST1").orElseThrow().getTotalBalance()));
+        // No row yet, so it is built from the account, which already holds the posting
+        assertEquals(0, new BigDecimal("530")
+                .compareTo(portfolioRepository.findById("CUST2").orElseThrow().getTotalBalance()));
+    }
+
+    private FdAccount createAccount(String accountNo, String customerId, String principal, String balance,
+            String interest, FdAccount.AccountStatus status, LocalDateTime maturityDate) {
+        return accountRepository.saveAndFlush(FdAccount.builder()
+                .accountNo(accountNo)
+                .customerId(customerId)
+                .productCode("FD-PREMIUM")
+                .principalAmount(new BigDecimal(principal))
+                .currentBalance(new BigDecimal(balance))
+                .totalInterestAccrued(interest != null ? new BigDecimal(interest) : null)
+                .interestRate(new BigDecimal("6.50"))
+                .tenureMonths(12)
+                .branchCode("BR001")
+                .status(status)
+                .maturityDate(maturityDate)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
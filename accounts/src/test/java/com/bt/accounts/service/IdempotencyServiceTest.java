@@ -0,0 +1,132 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    private static final TypeReference<Map<String, Object>> BODY = new TypeReference<>() {
+    };
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        idempotencyService = new IdempotencyService(stringRedisTemplate, new ObjectMapper(), 24, 60, 100, 300);
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldRunActionWithoutTouchingRedis() {
+        idempotencyService.execute(null, "transactions:FD1", Map.of("amount", 10), BODY, this::created);
+        idempotencyService.execute(null, "transactions:FD1", Map.of("amount", 10), BODY, this::created);
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void execute_RepeatedKey_ShouldRunOnceAndReplayFromNearCache() {
+        when(valueOperations.setIfAbsent(anyString(), eq("PENDING"), any(Duration.class))).thenReturn(true);
+
+        ResponseEntity<Map<String, Object>> first = idempotencyService.execute("key-1", "transactions:FD1",
+                Map.of("amount", 10), BODY, this::created);
+        ResponseEntity<Map<String, Object>> retry = idempotencyService.execute("key-1", "transactions:FD1",
+                Map.of("amount", 10), BODY, this::created);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(valueOperations, times(1)).setIfAbsent(anyString(), eq("PENDING"), any(Duration.class));
+        verify(valueOperations).set(anyString(), anyString(), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    void execute_KeyCompletedOnAnotherInstance_ShouldReplayStoredResponse() throws Exception {
+        IdempotencyService otherInstance = new IdempotencyService(stringRedisTemplate, new ObjectMapper(), 24, 60,
+                100, 300);
+        when(valueOperations.setIfAbsent(anyString(), eq("PENDING"), any(Duration.class))).thenReturn(true);
+        otherInstance.execute("key-2", "transactions:FD1", Map.of("amount", 10), BODY, this::created);
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(anyString(), stored.capture(), any(Duration.class));
+
+        when(valueOperations.setIfAbsent(anyString(), eq("PENDING"), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(anyString())).thenReturn(stored.getValue());
+        ResponseEntity<Map<String, Object>> retry = idempotencyService.execute("key-2", "transactions:FD1",
+                Map.of("amount", 10), BODY, this::created);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1, retry.getBody().get("execution"));
+    }
+
+    @Test
+    void execute_KeyReusedWithDifferentBody_ShouldBeRejected() {
+        when(valueOperations.setIfAbsent(anyString(), eq("PENDING"), any(Duration.class))).thenReturn(true);
+        idempotencyService.execute("key-3", "transactions:FD1", Map.of("amount", 10), BODY, this::created);
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute("key-3",
+                "transactions:FD1", Map.of("amount", 99), BODY, this::created));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_KeyStillInFlight_ShouldBeRejected() {
+        when(valueOperations.setIfAbsent(anyString(), eq("PENDING"), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(anyString())).thenReturn("PENDING");
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute("key-4",
+                "transactions:FD1", Map.of("amount", 10), BODY, this::created));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_ActionFails_ShouldReleaseKeyForRetry() {
+        when(valueOperations.setIfAbsent(anyString(), eq("PENDING"), any(Duration.class))).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-5", "transactions:FD1",
+                Map.of("amount", 10), BODY, () -> {
+                    throw new IllegalStateException("downstream failure");
+                }));
+
+        verify(stringRedisTemplate).delete(contains("key-5"));
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    private ResponseEntity<Map<String, Object>> created() {
+        return new ResponseEntity<>(Map.of("execution", executions.incrementAndGet()), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.entity.CashCachedLedgerEntry;
+import com.bt.accounts.entity.InterestMintBatch;
+import com.bt.accounts.repository.InterestMintBatchRepository;
+import com.bt.accounts.repository.InterestMintItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mint;DB_CLOSE_DELAY=-1",
+        "accounts.accrual.mint.max-items-per-mint=2"
+})
+@Import(InterestMintService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InterestMintServiceTest {
+
+    @Autowired
+    private InterestMintService interestMintService;
+
+    @Autowired
+    private InterestMintItemRepository itemRepository;
+
+    @Autowired
+    private InterestMintBatchRepository batchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private CashCachedService cashCachedService;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        batchRepository.deleteAll();
+    }
+
+    @Test
+    void settlePending_ShouldMintOncePerBatchAndLinkItems() {
+        recordPending("FD-1", "65");
+        recordPending("FD-2", "40");
+        recordPending("FD-3", "10");
+        when(cashCachedService.mintForInterest(any(), anyString())).thenReturn(CashCachedLedgerEntry.builder()
+                .id(7L)
+                .transactionHash("0xabc")
+                .build());
+
+        List<InterestMintBatch> batches = interestMintService.settlePending();
+
+        assertEquals(2, batches.size());
+        verify(cashCachedService).mintForInterest(argThat(total -> total.compareTo(new BigDecimal("105")) == 0),
+                anyString());
+        verify(cashCachedService).mintForInterest(argThat(total -> total.compareTo(BigDecimal.TEN) == 0),
+                anyString());
+        InterestMintBatch first = batchRepository.findById(batches.get(0).getId()).orElseThrow();
+        assertEquals(InterestMintBatch.Status.MINTED, first.getStatus());
+        assertEquals("0xabc", first.getTransactionHash());
+        assertEquals(7L, first.getLedgerEntryId());
+        assertEquals(2, itemRepository.findByBatchIdOrderById(first.getId()).size());
+        assertTrue(interestMintService.settlePending().isEmpty());
+    }
+
+    @Test
+    void settlePending_MintFails_ShouldReleaseItemsForRetry() {
+        recordPending("FD-1", "65");
+        when(cashCachedService.mintForInterest(any(), anyString()))
+                .thenThrow(new IllegalStateException("rpc timeout"))
+                .thenReturn(CashCachedLedgerEntry.builder().id(8L).transactionHash("0xdef").build());
+
+        List<InterestMintBatch> failed = interestMintService.settlePending();
+
+        assertEquals(1, failed.size());
+        InterestMintBatch batch = batchRepository.findById(failed.get(0).getId()).orElseThrow();
+        assertEquals(InterestMintBatch.Status.FAILED, batch.getStatus());
+        assertEquals("rpc timeout", batch.getError());
+        assertTrue(itemRepository.findByBatchIdOrderById(batch.getId()).isEmpty());
+
+        List<InterestMintBatch> retried = interestMintService.settlePending();
+
+        assertEquals(1, retried.size());
+        assertEquals(InterestMintBatch.Status.MINTED, retried.get(0).getStatus());
+        assertEquals(1, itemRepository.findByBatchIdOrderById(retried.get(0).getId()).size());
+    }
+
+    private void recordPending(String accountNo, String amount) {
+        transactionTemplate.executeWithoutResult(status -> interestMintService.recordPending(accountNo,
+                "TXN-" + accountNo, new BigDecimal(amount), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.dto.TransactionRequest;
+import com.bt.accounts.entity.AccountTransaction;
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.repository.AccountTransactionRepository;
+import com.bt.accounts.repository.FdAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers {@link TransactionService#recordTransaction} from several threads,
+ * first all on one account and then spread over one account per thread, and
+ * checks that every account ends with the right balance and an unbroken
+ * balanceAfter chain. Runs without a test transaction so each call commits.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ TransactionService.class, AccountBalanceService.class, TransactionIdGenerator.class,
+        TransactionNodeLease.class, OutboxService.class, CustomerPortfolioService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int DEPOSITS_PER_THREAD = 25;
+    private static final BigDecimal PRINCIPAL = new BigDecimal("1000");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private FdAccountRepository accountRepository;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepository;
+
+    @MockitoBean
+    private CashCachedService cashCachedService;
+
+    @MockitoBean
+    private PricingRuleEvaluator pricingRuleEvaluator;
+
+    @MockitoBean
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        when(pricingRuleEvaluator.evaluate(any(), any(), any()))
+                .thenReturn(PricingRuleEvaluator.EvaluationResult.noRule(new BigDecimal("6.50")));
+    }
+
+    @Test
+    void concurrentDeposits_OnOneAccount_ShouldKeepBalanceChainIntact() throws Exception {
+        String accountNo = createAccount(0);
+
+        runDeposits(thread -> accountNo);
+
+        assertLedgerConsistent(accountNo, THREADS * DEPOSITS_PER_THREAD);
+    }
+
+    @Test
+    void concurrentDeposits_OnSeparateAccounts_ShouldNotSerializeAcrossAccounts() throws Exception {
+        List<String> accountNos = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            accountNos.add(createAccount(i));
+        }
+
+        runDeposits(accountNos::get);
+
+        for (String accountNo : accountNos) {
+            assertLedgerConsistent(accountNo, DEPOSITS_PER_THREAD);
+        }
+    }
+
+    private void runDeposits(IntFunction<String> accountForThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String accountNo = accountForThread.apply(t);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < DEPOSITS_PER_THREAD; i++) {
+                        transactionService.recordTransaction(accountNo, TransactionRequest.builder()
+                                .transactionType("DEPOSIT")
+                                .amount(BigDecimal.ONE)
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void assertLedgerConsistent(String accountNo, int deposits) {
+        BigDecimal expected = PRINCIPAL.add(BigDecimal.valueOf(deposits));
+        assertEquals(0, expected.compareTo(accountRepository.findCurrentBalanceByAccountNo(accountNo).orElseThrow()));
+
+        List<BigDecimal> balances = transactionRepository.findByAccountNo(accountNo).stream()
+                .map(AccountTransaction::getBalanceAfter)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(deposits, balances.size());
+        for (int i = 0; i < deposits; i++) {
+            assertEquals(0, PRINCIPAL.add(BigDecimal.valueOf(i + 1L)).compareTo(balances.get(i)),
+                    "balanceAfter values must be principal+1 .. principal+" + deposits + " with no repeats");
+        }
+    }
+
+    private String createAccount(int index) {
+        String accountNo = "FD-STRESS-" + index;
+        accountRepository.save(FdAccount.builder()
+                .accountNo(accountNo)
+                .customerId("CUST" + index)
+                .productCode("FD-PREMIUM")
+                .principalAmount(PRINCIPAL)
+                .interestRate(new BigDecimal("6.50"))
+                .baseInterestRate(new BigDecimal("6.50"))
+                .tenureMonths(12)
+                .branchCode("BR001")
+                .status(FdAccount.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+        return accountNo;
+    }
+}
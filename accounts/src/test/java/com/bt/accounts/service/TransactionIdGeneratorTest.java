@@ -0,0 +1,104 @@
+package com.bt.accounts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    private static final long NOW = TransactionIdGenerator.EPOCH + 1_000_000L;
+
+    @Test
+    void nextId_ShouldEncodeTimestampNodeAndSequence() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(5, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertEquals(1_000_000L, first >>> (TransactionIdGenerator.NODE_BITS + TransactionIdGenerator.SEQUENCE_BITS));
+        assertEquals(5, first >>> TransactionIdGenerator.SEQUENCE_BITS & TransactionIdGenerator.MAX_NODE_ID);
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void nextId_ClockStepsBack_ShouldStayMonotonic() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextId_SequenceExhausted_ShouldCarryIntoNextMillisecond() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextTransactionId_ShouldBeFixedWidthAndSortLikeTheId() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(1023, System::currentTimeMillis);
+
+        String previous = generator.nextTransactionId();
+        for (int i = 0; i < 1_000; i++) {
+            String next = generator.nextTransactionId();
+            assertTrue(next.startsWith(TransactionIdGenerator.PREFIX));
+            assertEquals(previous.length(), next.length());
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+        assertEquals("TXN-0000000000000", TransactionIdGenerator.format(0));
+        assertEquals("TXN-00000000000ZZ", TransactionIdGenerator.format(36 * 36 - 1));
+    }
+
+    @Test
+    void nextTransactionId_ConcurrentCallers_ShouldNeverCollide() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    List<String> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextTransactionId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                all.addAll(future.get());
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_NodeOutOfRange_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(1024, () -> NOW));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(-1, () -> NOW));
+    }
+}
@@ -0,0 +1,76 @@
+package com.bt.accounts.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransactionNodeLeaseTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+    }
+
+    @Test
+    void constructor_Unconfigured_ShouldLeaseFirstFreeNode() {
+        when(valueOperations.setIfAbsent(eq("accounts:transaction-node:2"), anyString(), any(Duration.class)))
+                .thenReturn(true);
+
+        TransactionNodeLease lease = new TransactionNodeLease(stringRedisTemplate, -1, 60);
+
+        assertEquals(2, lease.nodeId());
+    }
+
+    @Test
+    void constructor_AllNodesLeased_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> new TransactionNodeLease(stringRedisTemplate, -1, 60));
+        verify(valueOperations, times(TransactionIdGenerator.MAX_NODE_ID + 1))
+                .setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void constructor_RedisDown_ShouldFailStartup() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new QueryTimeoutException("redis down"));
+
+        assertThrows(IllegalStateException.class, () -> new TransactionNodeLease(stringRedisTemplate, -1, 60));
+    }
+
+    @Test
+    void constructor_Configured_ShouldUseNodeWithoutRedis() {
+        TransactionNodeLease lease = new TransactionNodeLease(stringRedisTemplate, 7, 60);
+        lease.heartbeat();
+
+        assertEquals(7, lease.nodeId());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void constructor_ConfiguredOutsideRange_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> new TransactionNodeLease(stringRedisTemplate, 1024, 60));
+    }
+}
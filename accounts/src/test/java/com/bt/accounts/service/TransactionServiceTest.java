@@ -0,0 +1,84 @@
+package com.bt.accounts.service;
+
+import com.bt.accounts.entity.FdAccount;
+import com.bt.accounts.exception.AccountNotFoundException;
+import com.bt.accounts.exception.UnauthorizedAccessException;
+import com.bt.accounts.repository.FdAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransactionServiceTest {
+
+    @Mock
+    private FdAccountRepository accountRepository;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        FdAccount account = FdAccount.builder()
+                .accountNo("FD-1")
+                .customerId("42")
+                .createdBy("officer1")
+                .build();
+        when(accountRepository.findByAccountNo("FD-1")).thenReturn(Optional.of(account));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void requireHistoryAccess_CustomerOwnsAccount_ShouldAllow() {
+        authenticate("42", "ROLE_CUSTOMER");
+
+        assertDoesNotThrow(() -> transactionService.requireHistoryAccess("FD-1", null));
+    }
+
+    @Test
+    void requireHistoryAccess_CustomerOfAnotherAccount_ShouldRefuse() {
+        authenticate("7", "ROLE_CUSTOMER");
+
+        assertThrows(UnauthorizedAccessException.class, () -> transactionService.requireHistoryAccess("FD-1", null));
+    }
+
+    @Test
+    void requireHistoryAccess_BankOfficer_ShouldAllowAnyAccount() {
+        authenticate("officer2", "ROLE_BANKOFFICER");
+
+        assertDoesNotThrow(() -> transactionService.requireHistoryAccess("FD-1", null));
+    }
+
+    @Test
+    void requireHistoryAccess_UnknownAccount_ShouldThrowNotFound() {
+        authenticate("officer2", "ROLE_BANKOFFICER");
+        when(accountRepository.findByAccountNo("FD-2")).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> transactionService.requireHistoryAccess("FD-2", null));
+    }
+
+    private void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+}
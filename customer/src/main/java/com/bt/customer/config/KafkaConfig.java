@@ -1,9 +1,11 @@
 package com.bt.customer.config;
 
 import com.bt.customer.event.*;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
@@ -16,6 +18,7 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -26,11 +29,18 @@ import java.util.Map;
 
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final KafkaProducerProperties producerProperties;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.customer-validation.batch-size:200}")
+    private int customerValidationBatchSize;
+
     @Bean
     public KafkaAdmin admin() {
         Map<String, Object> configs = new HashMap<>();
@@ -44,6 +54,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.CUSTOMER_VALIDATION_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_VALIDATION_REQUEST))
                 .build();
     }
 
@@ -52,6 +63,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE))
                 .build();
     }
 
@@ -60,6 +72,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.PRODUCT_DETAILS_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_DETAILS_REQUEST))
                 .build();
     }
 
@@ -68,6 +81,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.PRODUCT_DETAILS_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_DETAILS_RESPONSE))
                 .build();
     }
 
@@ -76,6 +90,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_CALCULATION_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATION_REQUEST))
                 .build();
     }
 
@@ -84,6 +99,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_CALCULATION_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATION_RESPONSE))
                 .build();
     }
 
@@ -92,6 +108,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_HISTORY_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_HISTORY_REQUEST))
                 .build();
     }
 
@@ -100,6 +117,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_HISTORY_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_HISTORY_RESPONSE))
                 .build();
     }
 
@@ -108,6 +126,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.CUSTOMER_CREATED)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_CREATED))
                 .build();
     }
 
@@ -116,6 +135,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.CUSTOMER_UPDATED)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_UPDATED))
                 .build();
     }
 
@@ -127,9 +147,8 @@ public class KafkaConfig {
         configProps.put(org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
                 StringSerializer.class);
         configProps.put(org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
-                JsonSerializer.class);
-        configProps.put(org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG, "all");
-        configProps.put(org.apache.kafka.clients.producer.ProducerConfig.RETRIES_CONFIG, 3);
+                BinaryEventSerializer.class);
+        configProps.putAll(producerProperties.toProducerConfigs());
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -147,7 +166,7 @@ public class KafkaConfig {
         props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
                 StringDeserializer.class);
         props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-                JsonDeserializer.class);
+                BinaryEventDeserializer.class);
         props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.bt.customer.event.CustomerValidationRequest");
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -162,4 +181,33 @@ public class KafkaConfig {
         factory.setConcurrency(3);
         return factory;
     }
+
+    // Batch consumer for customer validation requests: one DB query per poll
+    @Bean
+    public ConsumerFactory<String, CustomerValidationRequest> customerValidationBatchConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
+                StringDeserializer.class);
+        props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
+                BinaryEventDeserializer.class.getName());
+        props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                customerValidationBatchSize);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, CustomerValidationRequest.class.getName());
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, CustomerValidationRequest>> customerValidationBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CustomerValidationRequest> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(customerValidationBatchConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(3);
+        return factory;
+    }
 }
@@ -0,0 +1,119 @@
+package com.bt.customer.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.bt.customer.event.BinaryEventSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Producer profile shared by every template in the service. Idempotence keeps
+ * retries from duplicating or reordering records, so retries are left to the
+ * delivery timeout instead of a fixed count. {@code topics} holds topic-level
+ * overrides (e.g. {@code compression.type}, {@code max.message.bytes}) applied
+ * when the topics are declared. {@code codec} picks JSON or the binary event
+ * encoding; consumers read both, so it can be switched once they are deployed.
+ */
+@ConfigurationProperties(prefix = "app.kafka.producer")
+public class KafkaProducerProperties {
+
+    private String acks = "all";
+    private boolean idempotence = true;
+    private int lingerMs = 5;
+    private int batchSize = 64 * 1024;
+    private String compressionType = "lz4";
+    private int maxInFlightRequests = 5;
+    private int deliveryTimeoutMs = 120_000;
+    private String codec = "json";
+    private Map<String, Map<String, String>> topics = new HashMap<>();
+
+    public Map<String, Object> toProducerConfigs() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.ACKS_CONFIG, acks);
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+        configs.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        configs.put(BinaryEventSerializer.CODEC_CONFIG, codec);
+        return configs;
+    }
+
+    public Map<String, String> topicConfigs(String topic) {
+        return topics.getOrDefault(topic, Map.of());
+    }
+
+    public String getAcks() {
+        return acks;
+    }
+
+    public void setAcks(String acks) {
+        this.acks = acks;
+    }
+
+    public boolean isIdempotence() {
+        return idempotence;
+    }
+
+    public void setIdempotence(boolean idempotence) {
+        this.idempotence = idempotence;
+    }
+
+    public int getLingerMs() {
+        return lingerMs;
+    }
+
+    public void setLingerMs(int lingerMs) {
+        this.lingerMs = lingerMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getCompressionType() {
+        return compressionType;
+    }
+
+    public void setCompressionType(String compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    public int getDeliveryTimeoutMs() {
+        return deliveryTimeoutMs;
+    }
+
+    public void setDeliveryTimeoutMs(int deliveryTimeoutMs) {
+        this.deliveryTimeoutMs = deliveryTimeoutMs;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public Map<String, Map<String, String>> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Map<String, Map<String, String>> topics) {
+        this.topics = topics;
+    }
+}
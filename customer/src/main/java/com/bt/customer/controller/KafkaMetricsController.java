@@ -0,0 +1,29 @@
+package com.bt.customer.controller;
+
+import com.bt.customer.event.KafkaProducerService;
+import com.bt.customer.service.kafka.KafkaConsumerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/customer/kafka")
+@RequiredArgsConstructor
+public class KafkaMetricsController {
+
+    private final KafkaConsumerService kafkaConsumerService;
+    private final KafkaProducerService kafkaProducerService;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("customerValidationRequests", kafkaConsumerService.metrics());
+        metrics.put("producer", kafkaProducerService.producerMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bt.customer.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary encoding for the inter-service events. A payload starts with
+ * {@link #MAGIC}, which can never start a JSON document, then the format
+ * version and the event type id, so readers can tell binary and JSON apart
+ * during rollout. Type ids are shared by every service and must never be reused;
+ * field layouts live in {@link EventSchema}.
+ */
+public final class EventCodec {
+
+    public static final byte MAGIC = 0x00;
+    public static final byte VERSION = 1;
+
+    private static final Map<Class<?>, EventSchema<?>> BY_TYPE = new HashMap<>();
+    private static final Map<Integer, EventSchema<?>> BY_ID = new HashMap<>();
+
+    static {
+        register(EventSchema.builder(1, CustomerValidationRequest.class, CustomerValidationRequest::new)
+                .int64(CustomerValidationRequest::getCustomerId, CustomerValidationRequest::setCustomerId)
+                .string(CustomerValidationRequest::getRequestId, CustomerValidationRequest::setRequestId)
+                .dateTime(CustomerValidationRequest::getTimestamp, CustomerValidationRequest::setTimestamp)
+                .build());
+        register(EventSchema.builder(2, CustomerValidationResponse.class, CustomerValidationResponse::new)
+                .string(CustomerValidationResponse::getRequestId, CustomerValidationResponse::setRequestId)
+                .int64(CustomerValidationResponse::getCustomerId, CustomerValidationResponse::setCustomerId)
+                .bool(CustomerValidationResponse::getValid, CustomerValidationResponse::setValid)
+                .bool(CustomerValidationResponse::getActive, CustomerValidationResponse::setActive)
+                .string(CustomerValidationResponse::getError, CustomerValidationResponse::setError)
+                .dateTime(CustomerValidationResponse::getTimestamp, CustomerValidationResponse::setTimestamp)
+                .build());
+    }
+
+    private EventCodec() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return BY_TYPE.containsKey(type);
+    }
+
+    public static boolean isBinary(byte[] payload) {
+        return payload != null && payload.length > 2 && payload[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        EventSchema<?> schema = BY_TYPE.get(event.getClass());
+        if (schema == null) {
+            throw new IllegalArgumentException("No binary schema for " + event.getClass().getName());
+        }
+        EventSchema.Output out = new EventSchema.Output();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(schema.typeId());
+        schema.write(event, out);
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] payload) {
+        if (!isBinary(payload)) {
+            throw new IllegalArgumentException("Not a binary event payload");
+        }
+        if (payload[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event version " + payload[1]);
+        }
+        EventSchema<?> schema = BY_ID.get((int) payload[2]);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown binary event type " + payload[2]);
+        }
+        return schema.read(new EventSchema.Input(payload, 3));
+    }
+
+    public static <T> T decode(byte[] payload, Class<T> type) {
+        return type.cast(decode(payload));
+    }
+
+    private static void register(EventSchema<?> schema) {
+        BY_TYPE.put(schema.type(), schema);
+        BY_ID.put(schema.typeId(), schema);
+    }
+}
@@ -0,0 +1,259 @@
+package com.bt.customer.event;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fixed field order for the binary encoding of one event type. A payload is the
+ * field count, a bitmap of the non-null fields, then the non-null values in
+ * declaration order. Fields are only ever appended: an older reader stops after
+ * the fields it knows, and a newer reader leaves fields the writer did not have
+ * as null. Decimals travel as scale plus unscaled long, timestamps as epoch
+ * seconds plus nanos, integers as zig-zag varints.
+ */
+public final class EventSchema<T> {
+
+    private static final int MAX_FIELDS = 64;
+
+    private final int typeId;
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final List<Field<T, ?>> fields;
+
+    private EventSchema(int typeId, Class<T> type, Supplier<T> factory, List<Field<T, ?>> fields) {
+        this.typeId = typeId;
+        this.type = type;
+        this.factory = factory;
+        this.fields = List.copyOf(fields);
+    }
+
+    public static <T> Builder<T> builder(int typeId, Class<T> type, Supplier<T> factory) {
+        return new Builder<>(typeId, type, factory);
+    }
+
+    public int typeId() {
+        return typeId;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    void write(Object event, Output out) {
+        T typed = type.cast(event);
+        long present = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getter().apply(typed) != null) {
+                present |= 1L << i;
+            }
+        }
+        out.writeVarLong(fields.size());
+        out.writeVarLong(present);
+        for (int i = 0; i < fields.size(); i++) {
+            if ((present & (1L << i)) != 0) {
+                writeField(fields.get(i), typed, out);
+            }
+        }
+    }
+
+    T read(Input in) {
+        int count = (int) in.readVarLong();
+        long present = in.readVarLong();
+        T event = factory.get();
+        for (int i = 0; i < Math.min(count, fields.size()); i++) {
+            if ((present & (1L << i)) != 0) {
+                readField(fields.get(i), event, in);
+            }
+        }
+        return event;
+    }
+
+    private static <T, V> void writeField(Field<T, V> field, T event, Output out) {
+        field.writer().accept(out, field.getter().apply(event));
+    }
+
+    private static <T, V> void readField(Field<T, V> field, T event, Input in) {
+        field.setter().accept(event, field.reader().apply(in));
+    }
+
+    private record Field<T, V>(Function<T, V> getter, BiConsumer<T, V> setter,
+            BiConsumer<Output, V> writer, Function<Input, V> reader) {
+    }
+
+    public static final class Builder<T> {
+
+        private final int typeId;
+        private final Class<T> type;
+        private final Supplier<T> factory;
+        private final List<Field<T, ?>> fields = new ArrayList<>();
+
+        private Builder(int typeId, Class<T> type, Supplier<T> factory) {
+            this.typeId = typeId;
+            this.type = type;
+            this.factory = factory;
+        }
+
+        public Builder<T> string(Function<T, String> getter, BiConsumer<T, String> setter) {
+            return field(getter, setter, Output::writeString, Input::readString);
+        }
+
+        public Builder<T> int64(Function<T, Long> getter, BiConsumer<T, Long> setter) {
+            return field(getter, setter, Output::writeVarLong, Input::readVarLong);
+        }
+
+        public Builder<T> int32(Function<T, Integer> getter, BiConsumer<T, Integer> setter) {
+            return field(getter, setter, (out, value) -> out.writeVarLong(value), in -> (int) in.readVarLong());
+        }
+
+        public Builder<T> bool(Function<T, Boolean> getter, BiConsumer<T, Boolean> setter) {
+            return field(getter, setter, (out, value) -> out.writeByte(value ? 1 : 0), in -> in.readByte() != 0);
+        }
+
+        public Builder<T> decimal(Function<T, BigDecimal> getter, BiConsumer<T, BigDecimal> setter) {
+            return field(getter, setter, Output::writeDecimal, Input::readDecimal);
+        }
+
+        public Builder<T> dateTime(Function<T, LocalDateTime> getter, BiConsumer<T, LocalDateTime> setter) {
+            return field(getter, setter, Output::writeDateTime, Input::readDateTime);
+        }
+
+        public Builder<T> instant(Function<T, Instant> getter, BiConsumer<T, Instant> setter) {
+            return field(getter, setter, Output::writeInstant, Input::readInstant);
+        }
+
+        public EventSchema<T> build() {
+            return new EventSchema<>(typeId, type, factory, fields);
+        }
+
+        private <V> Builder<T> field(Function<T, V> getter, BiConsumer<T, V> setter,
+                BiConsumer<Output, V> writer, Function<Input, V> reader) {
+            if (fields.size() == MAX_FIELDS) {
+                throw new IllegalStateException("Event schemas are limited to " + MAX_FIELDS + " fields");
+            }
+            fields.add(new Field<>(getter, setter, writer, reader));
+            return this;
+        }
+    }
+
+    static final class Output {
+
+        private byte[] buffer = new byte[128];
+        private int position;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                writeByte((int) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            writeByte((int) zigZag);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeDecimal(BigDecimal value) {
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() > 63) {
+                throw new IllegalArgumentException("Decimal " + value + " does not fit an unscaled long");
+            }
+            writeVarLong(value.scale());
+            writeVarLong(unscaled.longValue());
+        }
+
+        void writeDateTime(LocalDateTime value) {
+            writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(value.getNano());
+        }
+
+        void writeInstant(Instant value) {
+            writeVarLong(value.getEpochSecond());
+            writeVarLong(value.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer, int offset) {
+            this.buffer = buffer;
+            this.position = offset;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated event payload");
+            }
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long zigZag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                zigZag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in event payload");
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated event payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        BigDecimal readDecimal() {
+            int scale = (int) readVarLong();
+            return BigDecimal.valueOf(readVarLong(), scale);
+        }
+
+        LocalDateTime readDateTime() {
+            long seconds = readVarLong();
+            return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(), ZoneOffset.UTC);
+        }
+
+        Instant readInstant() {
+            long seconds = readVarLong();
+            return Instant.ofEpochSecond(seconds, readVarLong());
+        }
+    }
+}
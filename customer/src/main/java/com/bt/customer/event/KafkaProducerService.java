@@ -5,19 +5,61 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerService {
 
+    private static final Set<String> PRODUCER_METRICS = Set.of(
+            "batch-size-avg", "batch-size-max", "records-per-request-avg",
+            "record-queue-time-avg", "record-queue-time-max", "compression-rate-avg",
+            "record-send-rate", "request-latency-avg", "record-retry-rate", "record-error-rate");
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
     public void sendCustomerValidationResponse(CustomerValidationResponse response) {
+        sendCustomerValidationResponse(response, null);
+    }
+
+    public void sendCustomerValidationResponse(CustomerValidationResponse response, ReplyAddress replyAddress) {
         try {
-            kafkaTemplate.send(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE, response.getRequestId(), response);
+            if (replyAddress != null) {
+                kafkaTemplate.send(replyAddress.toRecord(response.getRequestId(), response));
+            } else {
+                kafkaTemplate.send(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE, response.getRequestId(), response);
+            }
             log.info("Customer validation response sent for request: {}", response.getRequestId());
         } catch (Exception e) {
             log.error("Failed to send customer validation response for request: {}", response.getRequestId(), e);
         }
     }
+
+    /**
+     * Pushes out everything sent so far. Batch handlers send each reply without
+     * waiting and flush once, so a poll's replies leave in as few requests as possible.
+     */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * Batching and compression figures from the shared producer, for checking the
+     * producer profile against real traffic. Values are null until the producer
+     * has sent something.
+     */
+    public Map<String, Object> producerMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        kafkaTemplate.metrics().forEach((name, metric) -> {
+            if ("producer-metrics".equals(name.group()) && PRODUCER_METRICS.contains(name.name())) {
+                Object value = metric.metricValue();
+                boolean finite = value instanceof Double number && !number.isNaN() && !number.isInfinite();
+                metrics.put(name.name(), finite ? value : null);
+            }
+        });
+        return metrics;
+    }
 }
@@ -0,0 +1,53 @@
+package com.bt.customer.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Where a request/reply caller is waiting for its answer, read from the
+ * reply-topic, reply-partition and correlation headers that Spring Kafka's
+ * ReplyingKafkaTemplate puts on each request. Requests sent without these
+ * headers resolve to {@code null} and are answered on the shared response topic.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReplyAddress {
+
+    private final String topic;
+    private final Integer partition;
+    private final byte[] correlationId;
+
+    public static ReplyAddress of(byte[] replyTopic, byte[] replyPartition, byte[] correlationId) {
+        if (replyTopic == null || correlationId == null) {
+            return null;
+        }
+        Integer partition = replyPartition != null && replyPartition.length == Integer.BYTES
+                ? ByteBuffer.wrap(replyPartition).getInt()
+                : null;
+        return new ReplyAddress(new String(replyTopic, StandardCharsets.UTF_8), partition, correlationId);
+    }
+
+    public static ReplyAddress from(Headers headers) {
+        return of(value(headers, KafkaHeaders.REPLY_TOPIC), value(headers, KafkaHeaders.REPLY_PARTITION),
+                value(headers, KafkaHeaders.CORRELATION_ID));
+    }
+
+    private static byte[] value(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header != null ? header.value() : null;
+    }
+
+    public <V> ProducerRecord<String, V> toRecord(String key, V value) {
+        ProducerRecord<String, V> record = new ProducerRecord<>(topic, partition, key, value);
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId);
+        return record;
+    }
+}
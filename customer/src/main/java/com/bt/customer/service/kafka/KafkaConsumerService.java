@@ -1,16 +1,26 @@
 package com.bt.customer.service.kafka;
 
+import com.bt.customer.entity.User;
 import com.bt.customer.event.KafkaProducerService;
 import com.bt.customer.event.CustomerValidationRequest;
 import com.bt.customer.event.CustomerValidationResponse;
+import com.bt.customer.event.ReplyAddress;
+import com.bt.customer.event.RequestDeadline;
 import com.bt.customer.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,64 +29,71 @@ public class KafkaConsumerService {
 
     private final UserRepository userRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final AtomicLong droppedExpired = new AtomicLong();
 
-    @KafkaListener(topics = "customer.validation.request", groupId = "customer-validation-consumer")
-    public void handleCustomerValidationRequest(@Payload CustomerValidationRequest request) {
-        try {
-            log.info("============ KAFKA CONSUMER START ============");
-            log.info("Received customer validation request: requestId={}, customerId={}",
-                    request != null ? request.getRequestId() : "null",
-                    request != null ? request.getCustomerId() : "null request");
-
-            if (request == null || request.getCustomerId() == null) {
-                log.error("Invalid customer validation request - null request or null customerId");
-                return;
-            }
-
-            log.info("Checking if customer exists with ID: {}", request.getCustomerId());
-            boolean customerExists = userRepository.existsById(request.getCustomerId());
-            log.info("Customer exists check result: {}", customerExists);
-
-            boolean isActive = false;
+    /**
+     * Resolves every validation request in a poll with a single
+     * {@code findAllById} query, then sends all replies and flushes once.
+     * Requests whose caller has already given up are dropped before the query.
+     */
+    @KafkaListener(topics = "customer.validation.request", groupId = "customer-validation-consumer", containerFactory = "customerValidationBatchKafkaListenerContainerFactory")
+    public void handleCustomerValidationRequests(List<ConsumerRecord<String, CustomerValidationRequest>> records) {
+        List<ConsumerRecord<String, CustomerValidationRequest>> valid = records.stream()
+                .filter(record -> record.value() != null && record.value().getCustomerId() != null)
+                .collect(Collectors.toList());
+        if (valid.size() < records.size()) {
+            log.error("Skipping {} invalid customer validation requests - null request or null customerId",
+                    records.size() - valid.size());
+        }
+        List<ConsumerRecord<String, CustomerValidationRequest>> live = valid.stream()
+                .filter(record -> !RequestDeadline.isExpired(RequestDeadline.from(record.headers())))
+                .collect(Collectors.toList());
+        if (live.size() < valid.size()) {
+            droppedExpired.addAndGet(valid.size() - live.size());
+            log.warn("Dropping {} expired customer validation requests", valid.size() - live.size());
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        List<CustomerValidationRequest> requests = live.stream()
+                .map(ConsumerRecord::value)
+                .collect(Collectors.toList());
 
-            if (customerExists) {
-                log.info("Fetching customer details for ID: {}", request.getCustomerId());
-                var user = userRepository.findById(request.getCustomerId());
-                log.info("User found: {}, Active status: {}",
-                        user.isPresent(),
-                        user.isPresent() ? user.get().getActive() : "N/A");
-                isActive = user.isPresent() && Boolean.TRUE.equals(user.get().getActive());
-            } else {
-                log.warn("Customer with ID {} does NOT exist in database", request.getCustomerId());
-            }
+        Map<Long, User> users;
+        String error = null;
+        try {
+            List<Long> customerIds = requests.stream()
+                    .map(CustomerValidationRequest::getCustomerId)
+                    .distinct()
+                    .collect(Collectors.toList());
+            users = userRepository.findAllById(customerIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            log.info("Resolved {} customer validation requests ({} customers found)", requests.size(), users.size());
+        } catch (Exception e) {
+            log.error("Error validating batch of {} customers", requests.size(), e);
+            users = Collections.emptyMap();
+            error = e.getMessage();
+        }
 
+        for (ConsumerRecord<String, CustomerValidationRequest> record : live) {
+            CustomerValidationRequest request = record.value();
+            User user = users.get(request.getCustomerId());
             CustomerValidationResponse response = CustomerValidationResponse.builder()
                     .requestId(request.getRequestId())
                     .customerId(request.getCustomerId())
                     .timestamp(LocalDateTime.now())
-                    .valid(customerExists)
-                    .active(isActive)
+                    .valid(user != null)
+                    .active(user != null && Boolean.TRUE.equals(user.getActive()))
+                    .error(error)
                     .build();
-
-            log.info("Sending validation response: requestId={}, valid={}, active={}",
-                    response.getRequestId(), response.getValid(), response.getActive());
-            kafkaProducerService.sendCustomerValidationResponse(response);
-            log.info("Customer validation response sent successfully for request: {}", request.getRequestId());
-            log.info("============ KAFKA CONSUMER END ============");
-        } catch (Exception e) {
-            log.error("Error validating customer with ID: {}",
-                    request != null ? request.getCustomerId() : "unknown", e);
-
-            CustomerValidationResponse errorResponse = CustomerValidationResponse.builder()
-                    .requestId(request != null ? request.getRequestId() : "unknown")
-                    .customerId(request != null ? request.getCustomerId() : null)
-                    .timestamp(LocalDateTime.now())
-                    .valid(false)
-                    .active(false)
-                    .error(e.getMessage())
-                    .build();
-
-            kafkaProducerService.sendCustomerValidationResponse(errorResponse);
+            kafkaProducerService.sendCustomerValidationResponse(response, ReplyAddress.from(record.headers()));
         }
+        kafkaProducerService.flush();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("droppedExpired", droppedExpired.get());
+        return metrics;
     }
 }
@@ -0,0 +1,105 @@
+package com.bt.customer.service.kafka;
+
+import com.bt.customer.entity.User;
+import com.bt.customer.event.CustomerValidationRequest;
+import com.bt.customer.event.CustomerValidationResponse;
+import com.bt.customer.event.KafkaProducerService;
+import com.bt.customer.event.RequestDeadline;
+import com.bt.customer.repository.UserRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Customer validation batch listener Tests")
+class KafkaConsumerServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @InjectMocks
+    private KafkaConsumerService kafkaConsumerService;
+
+    @Test
+    @DisplayName("Should resolve a whole batch with one query and flush once")
+    void handleCustomerValidationRequests_ResolvesBatchWithSingleQuery() {
+        User active = User.builder().id(1L).active(true).build();
+        User inactive = User.builder().id(2L).active(false).build();
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(active, inactive));
+
+        kafkaConsumerService.handleCustomerValidationRequests(List.of(
+                record("r1", 1L), record("r2", 2L), record("r3", 3L), record("r4", 1L)));
+
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, never()).existsById(any());
+        verify(userRepository, never()).findById(any());
+
+        ArgumentCaptor<CustomerValidationResponse> captor = ArgumentCaptor.forClass(CustomerValidationResponse.class);
+        verify(kafkaProducerService, times(4)).sendCustomerValidationResponse(captor.capture(), isNull());
+        verify(kafkaProducerService, times(1)).flush();
+
+        Map<String, CustomerValidationResponse> byRequest = captor.getAllValues().stream()
+                .collect(Collectors.toMap(CustomerValidationResponse::getRequestId, Function.identity()));
+        assertTrue(byRequest.get("r1").getValid());
+        assertTrue(byRequest.get("r1").getActive());
+        assertTrue(byRequest.get("r2").getValid());
+        assertFalse(byRequest.get("r2").getActive());
+        assertFalse(byRequest.get("r3").getValid());
+        assertTrue(byRequest.get("r4").getActive());
+    }
+
+    @Test
+    @DisplayName("Should reply with an error to every request when the lookup fails")
+    void handleCustomerValidationRequests_LookupFails_RepliesWithError() {
+        when(userRepository.findAllById(anyIterable())).thenThrow(new RuntimeException("database down"));
+
+        kafkaConsumerService.handleCustomerValidationRequests(List.of(record("r1", 1L), record("r2", 2L)));
+
+        ArgumentCaptor<CustomerValidationResponse> captor = ArgumentCaptor.forClass(CustomerValidationResponse.class);
+        verify(kafkaProducerService, times(2)).sendCustomerValidationResponse(captor.capture(), isNull());
+        captor.getAllValues().forEach(response -> {
+            assertFalse(response.getValid());
+            assertEquals("database down", response.getError());
+        });
+    }
+
+    @Test
+    @DisplayName("Should drop requests whose deadline has passed without querying")
+    void handleCustomerValidationRequests_ExpiredRequests_AreDropped() {
+        ConsumerRecord<String, CustomerValidationRequest> expired = record("r1", 1L);
+        expired.headers().add(RequestDeadline.HEADER,
+                ByteBuffer.allocate(Long.BYTES).putLong(Instant.now().minusSeconds(1).toEpochMilli()).array());
+
+        kafkaConsumerService.handleCustomerValidationRequests(List.of(expired));
+
+        verifyNoInteractions(userRepository, kafkaProducerService);
+        assertEquals(1L, kafkaConsumerService.metrics().get("droppedExpired"));
+    }
+
+    private ConsumerRecord<String, CustomerValidationRequest> record(String requestId, Long customerId) {
+        CustomerValidationRequest request = CustomerValidationRequest.builder()
+                .requestId(requestId)
+                .customerId(customerId)
+                .build();
+        return new ConsumerRecord<>("customer.validation.request", 0, 0L, requestId, request);
+    }
+}
@@ -1,11 +1,14 @@
 package com.bt.fixeddeposit.config;
 
 import com.bt.fixeddeposit.event.*;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.KafkaListenerContainerFactory;
@@ -16,22 +19,52 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.kafka.support.TopicPartitionOffset.SeekPosition;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+        private final KafkaProducerProperties producerProperties;
+        private final ReplyPartitionLease replyPartitionLease;
+
         @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
         private String bootstrapServers;
 
+        @Value("${app.kafka.reply.partitions:16}")
+        private int replyPartitions;
+
+        @Value("${app.kafka.request-timeout-seconds:30}")
+        private int requestTimeoutSeconds;
+
+        @Value("${app.kafka.fd-calculation.partitions:3}")
+        private int fdCalculationPartitions;
+
+        @Value("${app.kafka.product-catalog.partitions:3}")
+        private int productCatalogPartitions;
+
+        @Value("${app.kafka.fd-calculation.executor-threads:8}")
+        private int fdCalculationExecutorThreads;
+
+        @Value("${app.kafka.fd-calculation.queue-capacity:500}")
+        private int fdCalculationQueueCapacity;
+
         @Bean
         public KafkaAdmin admin() {
                 Map<String, Object> configs = new HashMap<>();
@@ -45,6 +78,7 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.CUSTOMER_VALIDATION_REQUEST)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_VALIDATION_REQUEST))
                                 .build();
         }
 
@@ -53,6 +87,7 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE))
                                 .build();
         }
 
@@ -61,6 +96,7 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.PRODUCT_DETAILS_REQUEST)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_DETAILS_REQUEST))
                                 .build();
         }
 
@@ -69,14 +105,26 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.PRODUCT_DETAILS_RESPONSE)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_DETAILS_RESPONSE))
+                                .build();
+        }
+
+        @Bean
+        public NewTopic productCatalogTopic() {
+                return TopicBuilder.name(KafkaTopics.PRODUCT_CATALOG)
+                                .partitions(productCatalogPartitions)
+                                .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_CATALOG))
+                                .compact()
                                 .build();
         }
 
         @Bean
         public NewTopic fdCalculationRequestTopic() {
                 return TopicBuilder.name(KafkaTopics.FD_CALCULATION_REQUEST)
-                                .partitions(3)
+                                .partitions(fdCalculationPartitions)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATION_REQUEST))
                                 .build();
         }
 
@@ -85,6 +133,7 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.FD_CALCULATION_RESPONSE)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATION_RESPONSE))
                                 .build();
         }
 
@@ -93,6 +142,7 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.FD_HISTORY_REQUEST)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.FD_HISTORY_REQUEST))
                                 .build();
         }
 
@@ -101,6 +151,16 @@ public class KafkaConfig {
                 return TopicBuilder.name(KafkaTopics.FD_HISTORY_RESPONSE)
                                 .partitions(3)
                                 .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.FD_HISTORY_RESPONSE))
+                                .build();
+        }
+
+        @Bean
+        public NewTopic fdCalculatorReplyTopic() {
+                return TopicBuilder.name(KafkaTopics.FD_CALCULATOR_REPLY)
+                                .partitions(replyPartitions)
+                                .replicas(1)
+                                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATOR_REPLY))
                                 .build();
         }
 
@@ -113,18 +173,54 @@ public class KafkaConfig {
                 configProps.put(org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
                                 StringSerializer.class);
                 configProps.put(org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
-                                JsonSerializer.class);
-                configProps.put(org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG, "all");
-                configProps.put(org.apache.kafka.clients.producer.ProducerConfig.RETRIES_CONFIG, 3);
+                                BinaryEventSerializer.class);
+                configProps.putAll(producerProperties.toProducerConfigs());
                 configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
                 return new DefaultKafkaProducerFactory<>(configProps);
         }
 
         @Bean
+        @Primary
         public org.springframework.kafka.core.KafkaTemplate<String, Object> kafkaTemplate() {
                 return new org.springframework.kafka.core.KafkaTemplate<>(producerFactory());
         }
 
+        // Request/reply: each instance owns one partition of the reply topic, so replies
+        // come straight back to the instance that is waiting for them. ReplyPartitionLease
+        // hands out the partition.
+        @Bean
+        public ConsumerFactory<String, byte[]> replyConsumerFactory() {
+                Map<String, Object> props = new HashMap<>();
+                props.put(org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+                props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
+                                StringDeserializer.class);
+                props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                                ByteArrayDeserializer.class);
+                props.put(org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+                return new DefaultKafkaConsumerFactory<>(props);
+        }
+
+        @Bean
+        public ConcurrentMessageListenerContainer<String, byte[]> replyContainer() {
+                int replyPartition = replyPartitionLease.partition();
+                ContainerProperties containerProperties = new ContainerProperties(
+                                new TopicPartitionOffset(KafkaTopics.FD_CALCULATOR_REPLY, replyPartition,
+                                                SeekPosition.END));
+                containerProperties.setGroupId("fd-calculator-replies-" + replyPartition);
+                ConcurrentMessageListenerContainer<String, byte[]> container = new ConcurrentMessageListenerContainer<>(
+                                replyConsumerFactory(), containerProperties);
+                container.setAutoStartup(false);
+                return container;
+        }
+
+        @Bean
+        public MeteredReplyingKafkaTemplate<String, Object, byte[]> replyingKafkaTemplate() {
+                MeteredReplyingKafkaTemplate<String, Object, byte[]> template = new MeteredReplyingKafkaTemplate<>(
+                                producerFactory(), replyContainer());
+                template.setDefaultReplyTimeout(Duration.ofSeconds(requestTimeoutSeconds));
+                return template;
+        }
+
         // Consumer configuration for customer validation responses
         @Bean
         public ConsumerFactory<String, CustomerValidationResponse> customerValidationConsumerFactory() {
@@ -135,7 +231,7 @@ public class KafkaConfig {
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
                                 ErrorHandlingDeserializer.class);
                 props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
-                                JsonDeserializer.class.getName());
+                                BinaryEventDeserializer.class.getName());
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
                 props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
                 props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
@@ -160,7 +256,7 @@ public class KafkaConfig {
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
                                 ErrorHandlingDeserializer.class);
                 props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
-                                JsonDeserializer.class.getName());
+                                BinaryEventDeserializer.class.getName());
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
                 props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
                 props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
@@ -185,7 +281,7 @@ public class KafkaConfig {
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
                                 ErrorHandlingDeserializer.class);
                 props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
-                                JsonDeserializer.class.getName());
+                                BinaryEventDeserializer.class.getName());
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
                 props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
                 props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
@@ -197,9 +293,26 @@ public class KafkaConfig {
         public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, FdCalculationRequestEvent>> fdCalculationRequestKafkaListenerContainerFactory() {
                 ConcurrentKafkaListenerContainerFactory<String, FdCalculationRequestEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
                 factory.setConsumerFactory(fdCalculationRequestConsumerFactory());
+                factory.setConcurrency(fdCalculationPartitions);
                 return factory;
         }
 
+        // Runs the CPU and database stages of FD calculation requests off the listener
+        // threads. The request listener pauses at max-in-flight, which keeps the queue
+        // from filling; CallerRunsPolicy is only a last resort against dropping work.
+        @Bean
+        public ThreadPoolTaskExecutor fdCalculationExecutor() {
+                ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(fdCalculationExecutorThreads);
+                executor.setMaxPoolSize(fdCalculationExecutorThreads);
+                executor.setQueueCapacity(fdCalculationQueueCapacity);
+                executor.setThreadNamePrefix("fd-calc-");
+                executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+                executor.setWaitForTasksToCompleteOnShutdown(true);
+                executor.setAwaitTerminationSeconds(requestTimeoutSeconds);
+                return executor;
+        }
+
         // Generic consumer factory (for backward compatibility)
         @Bean
         public ConsumerFactory<String, Object> consumerFactory() {
@@ -210,7 +323,7 @@ public class KafkaConfig {
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
                                 ErrorHandlingDeserializer.class);
                 props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
-                                JsonDeserializer.class.getName());
+                                BinaryEventDeserializer.class.getName());
                 props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
                 props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
                 props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
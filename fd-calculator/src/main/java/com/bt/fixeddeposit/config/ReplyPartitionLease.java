@@ -0,0 +1,171 @@
+package com.bt.fixeddeposit.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the reply-topic partition this instance listens on. Every replica
+ * must own a different partition, otherwise each one receives the others'
+ * replies and counts them as late.
+ *
+ * An explicit {@code app.kafka.reply.partition} wins. Next, with
+ * {@code app.kafka.reply.partition-from-hostname} set, a StatefulSet replica
+ * uses the ordinal at the end of its hostname ({@code accounts-2} listens on
+ * partition 2), which needs no Redis. Otherwise the instance leases the first
+ * free partition in Redis at startup and renews the lease on a heartbeat, so
+ * a crashed instance's partition frees up once its lease expires. Startup
+ * fails when every partition is leased or Redis cannot be reached, rather
+ * than silently sharing a partition.
+ *
+ * At most {@code app.kafka.reply.partitions} replicas can run at once, so
+ * size it to the largest replica count the service scales to.
+ */
+@Component
+@EnableScheduling
+@Slf4j
+public class ReplyPartitionLease {
+
+    private static final String LEASE_PREFIX = "fd-calculator:reply-partition:";
+
+    // Renews our lease, or takes the partition back if the lease lapsed and nobody else took it
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) "
+                    + "if current == ARGV[1] then return redis.call('EXPIRE', KEYS[1], ARGV[2]) end "
+                    + "if not current then redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) return 1 end "
+                    + "return 0",
+            Long.class);
+
+    private static final Pattern ORDINAL = Pattern.compile("-(\\d+)$");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long leaseSeconds;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final int partition;
+    private final boolean leased;
+
+    @Autowired
+    public ReplyPartitionLease(StringRedisTemplate stringRedisTemplate,
+            @Value("${app.kafka.reply.partition:-1}") int configuredPartition,
+            @Value("${app.kafka.reply.partition-from-hostname:false}") boolean partitionFromHostname,
+            @Value("${app.kafka.reply.partitions:16}") int partitions,
+            @Value("${app.kafka.reply.lease-seconds:30}") long leaseSeconds) {
+        this(stringRedisTemplate, configuredPartition, partitionFromHostname ? ReplyPartitionLease::hostname : null,
+                partitions, leaseSeconds);
+    }
+
+    ReplyPartitionLease(StringRedisTemplate stringRedisTemplate, int configuredPartition,
+            Supplier<String> hostname, int partitions, long leaseSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.leaseSeconds = leaseSeconds;
+        if (configuredPartition >= partitions) {
+            throw new IllegalStateException("app.kafka.reply.partition " + configuredPartition
+                    + " is outside the " + partitions + " reply partitions");
+        }
+        if (configuredPartition >= 0) {
+            this.partition = configuredPartition;
+            this.leased = false;
+            log.info("Listening for replies on configured partition {}", partition);
+        } else if (hostname != null) {
+            this.partition = ordinal(hostname.get(), partitions);
+            this.leased = false;
+            log.info("Listening for replies on partition {} from the hostname ordinal", partition);
+        } else {
+            this.partition = acquire(partitions);
+            this.leased = true;
+            log.info("Leased reply partition {}", partition);
+        }
+    }
+
+    public int partition() {
+        return partition;
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.reply.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (!leased) {
+            return;
+        }
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW, List.of(LEASE_PREFIX + partition), instanceId,
+                    String.valueOf(leaseSeconds));
+            if (renewed == null || renewed == 0) {
+                // The container cannot move partitions at runtime, so all we can do is make it visible
+                log.error("Reply partition {} lease is held by another instance; replies may be shared",
+                        partition);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not renew reply partition {} lease: {}", partition, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!leased) {
+            return;
+        }
+        try {
+            String key = LEASE_PREFIX + partition;
+            if (instanceId.equals(stringRedisTemplate.opsForValue().get(key))) {
+                stringRedisTemplate.delete(key);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not release reply partition {} lease: {}", partition, ex.getMessage());
+        }
+    }
+
+    private static int ordinal(String hostname, int partitions) {
+        Matcher matcher = ORDINAL.matcher(hostname);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Hostname " + hostname + " has no ordinal suffix; unset "
+                    + "app.kafka.reply.partition-from-hostname outside a StatefulSet");
+        }
+        int ordinal = Integer.parseInt(matcher.group(1));
+        if (ordinal >= partitions) {
+            throw new IllegalStateException("Replica ordinal " + ordinal + " is outside the " + partitions
+                    + " reply partitions; raise app.kafka.reply.partitions");
+        }
+        return ordinal;
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            throw new IllegalStateException("Cannot read the hostname for the reply partition ordinal", ex);
+        }
+    }
+
+    private int acquire(int partitions) {
+        try {
+            for (int candidate = 0; candidate < partitions; candidate++) {
+                Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + candidate,
+                        instanceId, Duration.ofSeconds(leaseSeconds));
+                if (Boolean.TRUE.equals(acquired)) {
+                    return candidate;
+                }
+            }
+        } catch (DataAccessException ex) {
+            throw new IllegalStateException("Cannot lease a reply partition without Redis; set "
+                    + "app.kafka.reply.partition to a partition unique to this instance", ex);
+        }
+        throw new IllegalStateException("All " + partitions + " reply partitions are leased by other instances; "
+                + "raise app.kafka.reply.partitions or set app.kafka.reply.partition");
+    }
+}
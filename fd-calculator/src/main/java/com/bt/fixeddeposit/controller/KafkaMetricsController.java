@@ -0,0 +1,34 @@
+package com.bt.fixeddeposit.controller;
+
+import com.bt.fixeddeposit.event.KafkaConsumerService;
+import com.bt.fixeddeposit.event.KafkaProducerService;
+import com.bt.fixeddeposit.event.KafkaRequestReplyClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/fd/kafka")
+@RequiredArgsConstructor
+public class KafkaMetricsController {
+
+    private final KafkaRequestReplyClient requestReplyClient;
+    private final KafkaConsumerService kafkaConsumerService;
+    private final KafkaProducerService kafkaProducerService;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("productLookups", requestReplyClient.productLookupMetrics());
+        metrics.put("productCatalog", requestReplyClient.productCatalogMetrics());
+        metrics.put("deadlines", requestReplyClient.deadlineMetrics());
+        metrics.put("fdCalculationRequests", kafkaConsumerService.metrics());
+        metrics.put("producer", kafkaProducerService.producerMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bt.fixeddeposit.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads both {@link EventCodec} payloads and JSON, so consumers keep working
+ * while producers move from one to the other. JSON goes through a
+ * {@link JsonDeserializer} configured from the same consumer properties.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (EventCodec.isBinary(data)) {
+            try {
+                return EventCodec.decode(data);
+            } catch (IllegalArgumentException e) {
+                throw new SerializationException("Failed to decode binary event from " + topic, e);
+            }
+        }
+        return headers != null ? json.deserialize(topic, headers, data) : json.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.bt.fixeddeposit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes events with {@link EventCodec} when {@link #CODEC_CONFIG} is
+ * {@code binary}, and as JSON otherwise. Values without a binary schema, and
+ * decimals too large for an unscaled long, always go out as JSON.
+ */
+@Slf4j
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    public static final String CODEC_CONFIG = "app.event.codec";
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private boolean binary;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        binary = "binary".equalsIgnoreCase(String.valueOf(configs.get(CODEC_CONFIG)));
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (binary && EventCodec.supports(data.getClass())) {
+            try {
+                return EventCodec.encode(data);
+            } catch (IllegalArgumentException e) {
+                log.warn("Falling back to JSON for {} on {}: {}", data.getClass().getSimpleName(), topic,
+                        e.getMessage());
+            }
+        }
+        return headers != null ? json.serialize(topic, headers, data) : json.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -1,23 +1,47 @@
 package com.bt.fixeddeposit.event;
 
 import com.bt.fixeddeposit.dto.FdCalculationRequest;
+import com.bt.fixeddeposit.dto.FdCalculationResponse;
 import com.bt.fixeddeposit.service.FdCalculationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumerService {
 
+    static final String FD_CALCULATION_LISTENER_ID = "fdCalculationRequests";
+
     private final RedisRequestResponseStore requestResponseStore;
     private final FdCalculationService fdCalculationService;
     private final KafkaProducerService kafkaProducerService;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final AtomicLong droppedExpired = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong pauses = new AtomicLong();
+    private boolean paused;
+
+    @Value("${app.kafka.fd-calculation.max-in-flight:200}")
+    private int maxInFlight;
 
     @KafkaListener(topics = "customer.validation.response", groupId = "fd-customer-response-consumer", containerFactory = "customerValidationKafkaListenerContainerFactory")
     public void handleCustomerValidationResponse(@Payload CustomerValidationResponse response) {
@@ -64,60 +88,144 @@ public class KafkaConsumerService {
         }
     }
 
-    @KafkaListener(topics = "fd.calculation.request", groupId = "fd-calculation-consumer", containerFactory = "fdCalculationRequestKafkaListenerContainerFactory")
-    public void handleFdCalculationRequest(@Payload FdCalculationRequestEvent request) {
+    /**
+     * Hands the request to {@link FdCalculationService#calculateFdAsync} and returns
+     * straight away, so a slow customer or product lookup no longer holds the
+     * partition. The reply is published from whichever thread completes the
+     * calculation.
+     *
+     * Once {@code max-in-flight} calculations are running the listener container
+     * is paused. Its consumers keep polling and heartbeating but get no new
+     * records until half of those calculations have finished. Records already
+     * fetched in the current poll are still handled, so the limit can be
+     * overshot by up to one poll's worth per consumer.
+     */
+    @KafkaListener(id = FD_CALCULATION_LISTENER_ID, topics = "fd.calculation.request", groupId = "fd-calculation-consumer", containerFactory = "fdCalculationRequestKafkaListenerContainerFactory")
+    public void handleFdCalculationRequest(@Payload FdCalculationRequestEvent request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = KafkaHeaders.CORRELATION_ID, required = false) byte[] correlationId,
+            @Header(name = RequestDeadline.HEADER, required = false) byte[] deadlineHeader) {
+        if (request == null || request.getRequestId() == null) {
+            log.error("Invalid FD calculation request - null request or null requestId");
+            return;
+        }
+        log.info("FD calculation request received: requestId={}, customerId={}, product={}, principal={}, tenure={} months",
+                request.getRequestId(), request.getCustomerId(), request.getProductCode(),
+                request.getPrincipalAmount(), request.getTenureMonths());
+
+        Instant deadline = RequestDeadline.of(deadlineHeader);
+        if (RequestDeadline.isExpired(deadline)) {
+            droppedExpired.incrementAndGet();
+            log.warn("Dropping expired FD calculation request: {}", request.getRequestId());
+            return;
+        }
+
+        ReplyAddress replyAddress = ReplyAddress.of(replyTopic, replyPartition, correlationId);
+        FdCalculationRequest calcRequest = new FdCalculationRequest();
+        calcRequest.setCustomerId(request.getCustomerId());
+        calcRequest.setProductCode(request.getProductCode());
+        calcRequest.setPrincipalAmount(request.getPrincipalAmount());
+        calcRequest.setTenureMonths(request.getTenureMonths());
+
+        inFlight.incrementAndGet();
+        updateBackpressure();
+        CompletableFuture<FdCalculationResponse> calculation;
         try {
-            log.info("============ FD CALCULATION REQUEST RECEIVED ============");
-            log.info("Request ID: {}, Customer ID: {}, Product: {}, Principal: {}, Tenure: {} months",
-                    request.getRequestId(), request.getCustomerId(), request.getProductCode(),
-                    request.getPrincipalAmount(), request.getTenureMonths());
-
-            if (request == null || request.getRequestId() == null) {
-                log.error("Invalid FD calculation request - null request or null requestId");
-                return;
+            calculation = fdCalculationService.calculateFdAsync(calcRequest, deadline);
+        } catch (Exception e) {
+            calculation = CompletableFuture.failedFuture(e);
+        }
+        calculation.whenComplete((calcResponse, error) -> {
+            inFlight.decrementAndGet();
+            updateBackpressure();
+            if (error != null) {
+                failed.incrementAndGet();
+                sendError(request, unwrap(error), replyAddress);
+            } else {
+                completed.incrementAndGet();
+                sendResult(request, calcResponse, replyAddress);
             }
+        });
+    }
 
-            // Convert event to service request
-            FdCalculationRequest calcRequest = new FdCalculationRequest();
-            calcRequest.setCustomerId(request.getCustomerId());
-            calcRequest.setProductCode(request.getProductCode());
-            calcRequest.setPrincipalAmount(request.getPrincipalAmount());
-            calcRequest.setTenureMonths(request.getTenureMonths());
-
-            // Perform calculation
-            var calcResponse = fdCalculationService.calculateFd(calcRequest, null);
-
-            // Build response event
-            FdCalculationResponseEvent response = FdCalculationResponseEvent.builder()
-                    .requestId(request.getRequestId())
-                    .calculationId(calcResponse.getId())
-                    .customerId(request.getCustomerId())
-                    .productCode(request.getProductCode())
-                    .principalAmount(calcResponse.getPrincipalAmount())
-                    .maturityAmount(calcResponse.getMaturityAmount())
-                    .interestEarned(calcResponse.getInterestEarned())
-                    .effectiveRate(calcResponse.getEffectiveRate())
-                    .tenureMonths(calcResponse.getTenureMonths())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            kafkaProducerService.sendFdCalculationResponse(response);
-            log.info("FD calculation response sent successfully for request: {}", request.getRequestId());
-            log.info("============ FD CALCULATION REQUEST PROCESSED ============");
-        } catch (Exception e) {
-            log.error("Error processing FD calculation request for requestId: {}",
-                    request != null ? request.getRequestId() : "unknown", e);
-
-            // Send error response
-            FdCalculationResponseEvent errorResponse = FdCalculationResponseEvent.builder()
-                    .requestId(request != null ? request.getRequestId() : "unknown")
-                    .customerId(request != null ? request.getCustomerId() : null)
-                    .productCode(request != null ? request.getProductCode() : null)
-                    .error(e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            kafkaProducerService.sendFdCalculationResponse(errorResponse);
+    /**
+     * Pauses or resumes the listener from the current in-flight count. Every
+     * change to the count is followed by a call, and the decision is made
+     * under the lock, so the last caller always sees the latest count.
+     */
+    private synchronized void updateBackpressure() {
+        long current = inFlight.get();
+        if (!paused && current >= maxInFlight) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(FD_CALCULATION_LISTENER_ID);
+            if (container != null) {
+                container.pause();
+                paused = true;
+                pauses.incrementAndGet();
+                log.warn("Pausing FD calculation requests: {} calculations in flight", current);
+            }
+        } else if (paused && current <= maxInFlight / 2) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(FD_CALCULATION_LISTENER_ID);
+            if (container != null) {
+                container.resume();
+            }
+            paused = false;
+            log.info("Resuming FD calculation requests: {} calculations in flight", current);
         }
     }
+
+    private void sendResult(FdCalculationRequestEvent request, FdCalculationResponse calcResponse,
+            ReplyAddress replyAddress) {
+        FdCalculationResponseEvent response = FdCalculationResponseEvent.builder()
+                .requestId(request.getRequestId())
+                .calculationId(calcResponse.getId())
+                .customerId(request.getCustomerId())
+                .productCode(request.getProductCode())
+                .principalAmount(calcResponse.getPrincipalAmount())
+                .maturityAmount(calcResponse.getMaturityAmount())
+                .interestEarned(calcResponse.getInterestEarned())
+                .effectiveRate(calcResponse.getEffectiveRate())
+                .tenureMonths(calcResponse.getTenureMonths())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        kafkaProducerService.sendFdCalculationResponse(response, replyAddress);
+        log.info("FD calculation response sent successfully for request: {}", request.getRequestId());
+    }
+
+    private void sendError(FdCalculationRequestEvent request, Throwable error, ReplyAddress replyAddress) {
+        log.error("Error processing FD calculation request for requestId: {}", request.getRequestId(), error);
+
+        FdCalculationResponseEvent errorResponse = FdCalculationResponseEvent.builder()
+                .requestId(request.getRequestId())
+                .customerId(request.getCustomerId())
+                .productCode(request.getProductCode())
+                .error(error.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        kafkaProducerService.sendFdCalculationResponse(errorResponse, replyAddress);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private synchronized boolean isPaused() {
+        return paused;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("droppedExpired", droppedExpired.get());
+        metrics.put("inFlight", inFlight.get());
+        metrics.put("completed", completed.get());
+        metrics.put("failed", failed.get());
+        metrics.put("paused", isPaused());
+        metrics.put("pauses", pauses.get());
+        return metrics;
+    }
 }
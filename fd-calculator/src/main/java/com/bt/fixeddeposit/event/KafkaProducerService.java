@@ -2,28 +2,41 @@ package com.bt.fixeddeposit.event;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerService {
 
+    private static final Set<String> PRODUCER_METRICS = Set.of(
+            "batch-size-avg", "batch-size-max", "records-per-request-avg",
+            "record-queue-time-avg", "record-queue-time-max", "compression-rate-avg",
+            "record-send-rate", "request-latency-avg", "record-retry-rate", "record-error-rate");
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    public void sendCustomerValidationRequest(CustomerValidationRequest request) {
+    public void sendCustomerValidationRequest(CustomerValidationRequest request, Instant deadline) {
         try {
-            kafkaTemplate.send(KafkaTopics.CUSTOMER_VALIDATION_REQUEST, request.getRequestId(), request);
+            kafkaTemplate.send(RequestDeadline.attach(
+                    new ProducerRecord<>(KafkaTopics.CUSTOMER_VALIDATION_REQUEST, request.getRequestId(), request), deadline));
             log.info("Customer validation request sent with ID: {}", request.getRequestId());
         } catch (Exception e) {
             log.error("Failed to send customer validation request with ID: {}", request.getRequestId(), e);
         }
     }
 
-    public void sendProductDetailsRequest(ProductDetailsRequest request) {
+    public void sendProductDetailsRequest(ProductDetailsRequest request, Instant deadline) {
         try {
-            kafkaTemplate.send(KafkaTopics.PRODUCT_DETAILS_REQUEST, request.getRequestId(), request);
+            kafkaTemplate.send(RequestDeadline.attach(
+                    new ProducerRecord<>(KafkaTopics.PRODUCT_DETAILS_REQUEST, request.getRequestId(), request), deadline));
             log.info("Product details request sent with ID: {}", request.getRequestId());
         } catch (Exception e) {
             log.error("Failed to send product details request with ID: {}", request.getRequestId(), e);
@@ -49,11 +62,36 @@ public class KafkaProducerService {
     }
 
     public void sendFdCalculationResponse(FdCalculationResponseEvent response) {
+        sendFdCalculationResponse(response, null);
+    }
+
+    public void sendFdCalculationResponse(FdCalculationResponseEvent response, ReplyAddress replyAddress) {
         try {
-            kafkaTemplate.send(KafkaTopics.FD_CALCULATION_RESPONSE, response.getRequestId(), response);
+            if (replyAddress != null) {
+                kafkaTemplate.send(replyAddress.toRecord(response.getRequestId(), response));
+            } else {
+                kafkaTemplate.send(KafkaTopics.FD_CALCULATION_RESPONSE, response.getRequestId(), response);
+            }
             log.info("FD calculation response sent for request: {}", response.getRequestId());
         } catch (Exception e) {
             log.error("Failed to send FD calculation response for request: {}", response.getRequestId(), e);
         }
     }
+
+    /**
+     * Batching and compression figures from the shared producer, for checking the
+     * producer profile against real traffic. Values are null until the producer
+     * has sent something.
+     */
+    public Map<String, Object> producerMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        kafkaTemplate.metrics().forEach((name, metric) -> {
+            if ("producer-metrics".equals(name.group()) && PRODUCER_METRICS.contains(name.name())) {
+                Object value = metric.metricValue();
+                boolean finite = value instanceof Double number && !number.isNaN() && !number.isInfinite();
+                metrics.put(name.name(), finite ? value : null);
+            }
+        });
+        return metrics;
+    }
 }
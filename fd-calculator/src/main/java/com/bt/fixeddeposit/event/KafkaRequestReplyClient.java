@@ -0,0 +1,163 @@
+package com.bt.fixeddeposit.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.requestreply.KafkaReplyTimeoutException;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Non-blocking request/reply over Kafka. Every call carries an absolute
+ * deadline; the returned future completes with the reply, or with
+ * {@code null} when the deadline passes first.
+ *
+ * The deadline travels in the {@link RequestDeadline} header. With the
+ * default {@code kafka} transport, requests also carry reply-topic,
+ * reply-partition and correlation headers and are correlated in memory by
+ * {@link ReplyingKafkaTemplate}. The {@code redis} transport keeps the shared
+ * response topics and {@link RedisRequestResponseStore} for rollback.
+ */
+@Service
+@Slf4j
+public class KafkaRequestReplyClient {
+
+    private final KafkaProducerService kafkaProducerService;
+    private final RedisRequestResponseStore requestResponseStore;
+    private final MeteredReplyingKafkaTemplate<String, Object, byte[]> replyingKafkaTemplate;
+    private final ProductCatalog productCatalog;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<String, ProductDetailsResponse> productLookups = new SingleFlight<>();
+    private final AtomicLong expiredBeforeSend = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    @Value("${app.kafka.reply-transport:kafka}")
+    private String replyTransport;
+
+    public KafkaRequestReplyClient(KafkaProducerService kafkaProducerService,
+            RedisRequestResponseStore requestResponseStore,
+            MeteredReplyingKafkaTemplate<String, Object, byte[]> replyingKafkaTemplate, ProductCatalog productCatalog) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.requestResponseStore = requestResponseStore;
+        this.replyingKafkaTemplate = replyingKafkaTemplate;
+        this.productCatalog = productCatalog;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    public CompletableFuture<CustomerValidationResponse> validateCustomer(Long customerId, Instant deadline) {
+        String requestId = UUID.randomUUID().toString();
+        CustomerValidationRequest request = CustomerValidationRequest.builder()
+                .customerId(customerId)
+                .requestId(requestId)
+                .timestamp(LocalDateTime.now())
+                .build();
+        return exchange(KafkaTopics.CUSTOMER_VALIDATION_REQUEST, requestId, request,
+                kafkaProducerService::sendCustomerValidationRequest, CustomerValidationResponse.class, deadline);
+    }
+
+    /**
+     * Served from the local {@link ProductCatalog} when the product is known;
+     * otherwise concurrent lookups for the same code share one request. Each
+     * caller still gives up at its own deadline.
+     */
+    public CompletableFuture<ProductDetailsResponse> fetchProductDetails(String productCode, Instant deadline) {
+        Optional<ProductDetailsResponse> cached = productCatalog.find(productCode);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        long remainingMillis = Duration.between(Instant.now(), deadline).toMillis();
+        return productLookups.execute(productCode, () -> {
+            String requestId = UUID.randomUUID().toString();
+            ProductDetailsRequest request = ProductDetailsRequest.builder()
+                    .productCode(productCode)
+                    .requestId(requestId)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            return exchange(KafkaTopics.PRODUCT_DETAILS_REQUEST, requestId, request,
+                    kafkaProducerService::sendProductDetailsRequest, ProductDetailsResponse.class, deadline);
+        }).completeOnTimeout(null, Math.max(remainingMillis, 0), TimeUnit.MILLISECONDS);
+    }
+
+    public Map<String, Object> productLookupMetrics() {
+        return productLookups.metrics();
+    }
+
+    /**
+     * Requests never sent because their deadline had passed, requests whose reply
+     * did not arrive in time, and replies that arrived after the caller gave up.
+     */
+    public Map<String, Object> deadlineMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("expiredBeforeSend", expiredBeforeSend.get());
+        metrics.put("timedOut", timedOut.get());
+        metrics.put("lateReplies", replyingKafkaTemplate.getLateReplies());
+        return metrics;
+    }
+
+    public Map<String, Object> productCatalogMetrics() {
+        return productCatalog.metrics();
+    }
+
+    private <R, T> CompletableFuture<T> exchange(String topic, String requestId, R request,
+            BiConsumer<R, Instant> sender, Class<T> responseType, Instant deadline) {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        if (remaining.isNegative() || remaining.isZero()) {
+            expiredBeforeSend.incrementAndGet();
+            log.warn("Deadline already passed, not sending request {}", requestId);
+            return CompletableFuture.completedFuture(null);
+        }
+        if ("redis".equalsIgnoreCase(replyTransport)) {
+            requestResponseStore.putRequest(requestId, null);
+            sender.accept(request, deadline);
+            return requestResponseStore.getResponseAsync(requestId, responseType, remaining);
+        }
+
+        ProducerRecord<String, Object> record = RequestDeadline.attach(new ProducerRecord<>(topic, requestId, request),
+                deadline);
+        return replyingKafkaTemplate.sendAndReceive(record, remaining)
+                .handle((reply, error) -> {
+                    if (error == null) {
+                        return decode(reply.value(), responseType);
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof KafkaReplyTimeoutException) {
+                        timedOut.incrementAndGet();
+                        log.warn("Request timed out: {}", requestId);
+                    } else {
+                        log.error("Request/reply failed for request: {}", requestId, cause);
+                    }
+                    return null;
+                });
+    }
+
+    private <T> T decode(byte[] payload, Class<T> responseType) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            if (EventCodec.isBinary(payload)) {
+                return EventCodec.decode(payload, responseType);
+            }
+            return objectMapper.readValue(payload, responseType);
+        } catch (Exception e) {
+            log.error("Failed to deserialize reply as {}", responseType.getSimpleName(), e);
+            return null;
+        }
+    }
+}
@@ -15,12 +15,14 @@ public class KafkaTopics {
     public static final String PRODUCT_UPDATED = "product.updated";
     public static final String PRODUCT_DETAILS_REQUEST = "product.details.request";
     public static final String PRODUCT_DETAILS_RESPONSE = "product.details.response";
+    public static final String PRODUCT_CATALOG = "product.catalog";
 
     // FD Calculator Service Topics
     public static final String FD_CALCULATION_REQUEST = "fd.calculation.request";
     public static final String FD_CALCULATION_RESPONSE = "fd.calculation.response";
     public static final String FD_HISTORY_REQUEST = "fd.history.request";
     public static final String FD_HISTORY_RESPONSE = "fd.history.response";
+    public static final String FD_CALCULATOR_REPLY = "fd-calculator.reply";
 
     // Account Service Topics
     public static final String ACCOUNT_CREATED = "account.created";
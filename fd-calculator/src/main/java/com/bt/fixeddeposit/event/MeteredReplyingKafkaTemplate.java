@@ -0,0 +1,35 @@
+package com.bt.fixeddeposit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.GenericMessageListenerContainer;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ReplyingKafkaTemplate} that counts replies arriving after their caller
+ * has already given up, i.e. work a downstream service did for nobody.
+ */
+@Slf4j
+public class MeteredReplyingKafkaTemplate<K, V, R> extends ReplyingKafkaTemplate<K, V, R> {
+
+    private final AtomicLong lateReplies = new AtomicLong();
+
+    public MeteredReplyingKafkaTemplate(ProducerFactory<K, V> producerFactory,
+            GenericMessageListenerContainer<K, R> replyContainer) {
+        super(producerFactory, replyContainer);
+    }
+
+    @Override
+    protected void logLateArrival(ConsumerRecord<K, R> record, Object correlationId) {
+        lateReplies.incrementAndGet();
+        log.debug("Late reply on {}-{}@{} for correlation {}", record.topic(), record.partition(), record.offset(),
+                correlationId);
+    }
+
+    public long getLateReplies() {
+        return lateReplies.get();
+    }
+}
@@ -0,0 +1,72 @@
+package com.bt.fixeddeposit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only, in-memory copy of the product catalog, rebuilt from the compacted
+ * {@link KafkaTopics#PRODUCT_CATALOG} topic. Every instance assigns itself
+ * all partitions without a consumer group, so it sees every product and
+ * replays the topic from the beginning on startup. No offsets are committed
+ * and no group is left behind when the instance goes away.
+ */
+@Component
+@Slf4j
+public class ProductCatalog {
+
+    private final Map<String, ProductDetailsResponse> products = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Instant lastAppliedAt;
+    private volatile long lastPropagationDelayMillis = -1;
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = KafkaTopics.PRODUCT_CATALOG,
+            partitions = "0-#{${app.kafka.product-catalog.partitions:3} - 1}",
+            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+            containerFactory = "productDetailsKafkaListenerContainerFactory")
+    public void onCatalogEntry(ConsumerRecord<String, ProductDetailsResponse> record) {
+        if (record.key() == null) {
+            return;
+        }
+        if (record.value() == null) {
+            products.remove(record.key());
+            log.info("Product removed from local catalog: {}", record.key());
+        } else {
+            products.put(record.key(), record.value());
+            log.debug("Product updated in local catalog: {}", record.key());
+        }
+        lastAppliedAt = Instant.now();
+        lastPropagationDelayMillis = Math.max(lastAppliedAt.toEpochMilli() - record.timestamp(), 0);
+    }
+
+    public Optional<ProductDetailsResponse> find(String productCode) {
+        ProductDetailsResponse product = productCode != null ? products.get(productCode) : null;
+        (product != null ? hits : misses).incrementAndGet();
+        return Optional.ofNullable(product);
+    }
+
+    public Map<String, Object> metrics() {
+        Instant applied = lastAppliedAt;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", products.size());
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("lastAppliedAt", applied != null ? applied.toString() : null);
+        metrics.put("secondsSinceLastUpdate",
+                applied != null ? Duration.between(applied, Instant.now()).toSeconds() : null);
+        metrics.put("lastPropagationDelayMillis", lastPropagationDelayMillis);
+        return metrics;
+    }
+}
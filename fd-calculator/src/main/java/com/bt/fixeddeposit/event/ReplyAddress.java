@@ -0,0 +1,41 @@
+package com.bt.fixeddeposit.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Where a request/reply caller is waiting for its answer, read from the
+ * reply-topic, reply-partition and correlation headers that Spring Kafka's
+ * ReplyingKafkaTemplate puts on each request. Requests sent without these
+ * headers resolve to {@code null} and are answered on the shared response topic.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReplyAddress {
+
+    private final String topic;
+    private final Integer partition;
+    private final byte[] correlationId;
+
+    public static ReplyAddress of(byte[] replyTopic, byte[] replyPartition, byte[] correlationId) {
+        if (replyTopic == null || correlationId == null) {
+            return null;
+        }
+        Integer partition = replyPartition != null && replyPartition.length == Integer.BYTES
+                ? ByteBuffer.wrap(replyPartition).getInt()
+                : null;
+        return new ReplyAddress(new String(replyTopic, StandardCharsets.UTF_8), partition, correlationId);
+    }
+
+    public <V> ProducerRecord<String, V> toRecord(String key, V value) {
+        ProducerRecord<String, V> record = new ProducerRecord<>(topic, partition, key, value);
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId);
+        return record;
+    }
+}
@@ -4,12 +4,8 @@ import com.bt.fixeddeposit.dto.FdCalculationRequest;
 import com.bt.fixeddeposit.dto.FdCalculationResponse;
 import com.bt.fixeddeposit.dto.external.ProductResponse;
 import com.bt.fixeddeposit.entity.FdCalculation;
-import com.bt.fixeddeposit.event.CustomerValidationRequest;
-import com.bt.fixeddeposit.event.CustomerValidationResponse;
-import com.bt.fixeddeposit.event.KafkaProducerService;
-import com.bt.fixeddeposit.event.ProductDetailsRequest;
+import com.bt.fixeddeposit.event.KafkaRequestReplyClient;
 import com.bt.fixeddeposit.event.ProductDetailsResponse;
-import com.bt.fixeddeposit.event.RedisRequestResponseStore;
 import com.bt.fixeddeposit.exception.*;
 import com.bt.fixeddeposit.repository.FdCalculationRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,10 +15,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,9 +29,9 @@ import java.util.stream.Collectors;
 public class FdCalculationService {
 
     private final FdCalculationRepository calculationRepository;
-    private final KafkaProducerService kafkaProducerService;
-    private final RedisRequestResponseStore requestResponseStore;
+    private final KafkaRequestReplyClient requestReplyClient;
     private final RedisFdCacheService redisFdCacheService;
+    private final Executor fdCalculationExecutor;
 
     @Value("${app.calculation.default-compounding-frequency}")
     private Integer defaultCompoundingFrequency;
@@ -44,24 +42,64 @@ public class FdCalculationService {
     @Value("${app.kafka.request-timeout-seconds:30}")
     private long requestTimeoutSeconds;
 
-    @Transactional
     public FdCalculationResponse calculateFd(FdCalculationRequest request, String authToken) {
+        return calculateFd(request, authToken, null);
+    }
+
+    /**
+     * Runs the calculation with the caller's deadline, so nested customer and
+     * product lookups give up when the original requester does.
+     */
+    public FdCalculationResponse calculateFd(FdCalculationRequest request, String authToken, Instant deadline) {
         log.info("Processing FD calculation request for customer: {} and product: {}",
                 request.getCustomerId(), request.getProductCode());
 
-        FdCalculationResponse cachedResult = redisFdCacheService.getCachedCalculation(
+        FdCalculationResponse cachedResult = getCachedCalculation(request);
+        if (cachedResult != null) {
+            log.info("Returning cached FD calculation result");
+            return cachedResult;
+        }
+
+        ProductResponse product = await(lookupCustomerAndProduct(request,
+                deadline != null ? deadline : requestDeadline()));
+        return completeCalculation(request, product);
+    }
+
+    /**
+     * Non-blocking variant for the Kafka request handler. The cache check and the
+     * calculation itself run on the calculation executor, and the customer and
+     * product lookups are awaited without holding any thread, so the listener
+     * thread can go straight back to polling.
+     */
+    public CompletableFuture<FdCalculationResponse> calculateFdAsync(FdCalculationRequest request, Instant deadline) {
+        Instant effectiveDeadline = deadline != null ? deadline : requestDeadline();
+        return CompletableFuture.supplyAsync(() -> getCachedCalculation(request), fdCalculationExecutor)
+                .thenCompose(cachedResult -> {
+                    if (cachedResult != null) {
+                        log.info("Returning cached FD calculation result");
+                        return CompletableFuture.completedFuture(cachedResult);
+                    }
+                    return lookupCustomerAndProduct(request, effectiveDeadline)
+                            .thenApplyAsync(product -> completeCalculation(request, product), fdCalculationExecutor);
+                });
+    }
+
+    private FdCalculationResponse getCachedCalculation(FdCalculationRequest request) {
+        return redisFdCacheService.getCachedCalculation(
                 request.getCustomerId(),
                 request.getProductCode(),
                 request.getTenureMonths(),
                 request.getPrincipalAmount());
+    }
 
-        if (cachedResult != null) {
-            log.info("Returning cached FD calculation result");
-            return cachedResult;
-        }
+    private CompletableFuture<ProductResponse> lookupCustomerAndProduct(FdCalculationRequest request,
+            Instant deadline) {
+        CompletableFuture<Void> customer = validateCustomer(request.getCustomerId(), deadline);
+        CompletableFuture<ProductResponse> productLookup = fetchProductDetails(request.getProductCode(), deadline);
+        return customer.thenCombine(productLookup, (ignored, product) -> product);
+    }
 
-        validateCustomer(request.getCustomerId());
-        ProductResponse product = fetchProductDetails(request.getProductCode());
+    private FdCalculationResponse completeCalculation(FdCalculationRequest request, ProductResponse product) {
         validateCalculationRequest(request, product);
 
         Integer compoundingFrequency = resolveCompoundingFrequency(request, product);
@@ -108,13 +146,13 @@ public class FdCalculationService {
         FdCalculation calculation = calculationRepository.findById(id)
                 .orElseThrow(() -> new CalculationNotFoundException("Calculation not found with ID: " + id));
 
-        ProductResponse product = fetchProductDetails(calculation.getProductCode());
+        ProductResponse product = await(fetchProductDetails(calculation.getProductCode(), requestDeadline()));
         return buildCalculationResponse(calculation, product.getProductName());
     }
 
     @Transactional(readOnly = true)
     public List<FdCalculationResponse> getCalculationHistory(Long customerId, String authToken) {
-        validateCustomer(customerId);
+        await(validateCustomer(customerId, requestDeadline()));
         List<FdCalculation> calculations = calculationRepository.findByCustomerIdOrderByCreatedAtDesc(customerId);
 
         return calculations.stream()
@@ -124,7 +162,7 @@ public class FdCalculationService {
 
     @Transactional(readOnly = true)
     public List<FdCalculationResponse> getRecentCalculations(Long customerId, Integer days, String authToken) {
-        validateCustomer(customerId);
+        await(validateCustomer(customerId, requestDeadline()));
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
         List<FdCalculation> calculations = calculationRepository.findRecentCalculationsByCustomer(customerId,
                 startDate);
@@ -134,95 +172,62 @@ public class FdCalculationService {
                 .collect(Collectors.toList());
     }
 
-    private void validateCustomer(Long customerId) {
-        try {
-            log.info("============ VALIDATING CUSTOMER {} ============", customerId);
-            String requestId = UUID.randomUUID().toString();
-            CustomerValidationRequest request = CustomerValidationRequest.builder()
-                    .customerId(customerId)
-                    .requestId(requestId)
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            log.info("Storing pending request with ID: {}", requestId);
-            requestResponseStore.putRequest(requestId, null);
-
-            log.info("Sending customer validation request via Kafka: requestId={}, customerId={}",
-                    requestId, customerId);
-            kafkaProducerService.sendCustomerValidationRequest(request);
-
-            log.info("Waiting for customer validation response (timeout: {} seconds)...", requestTimeoutSeconds);
-            CustomerValidationResponse response = requestResponseStore
-                    .getResponse(requestId, CustomerValidationResponse.class, requestTimeoutSeconds, TimeUnit.SECONDS);
-
-            log.info("Received customer validation response: response={}, valid={}, active={}",
-                    response != null ? "present" : "NULL",
-                    response != null ? response.getValid() : "N/A",
-                    response != null ? response.getActive() : "N/A");
-
-            if (response == null || !Boolean.TRUE.equals(response.getValid())) {
-                log.error("Customer validation FAILED: response null or invalid. Throwing CustomerNotFoundException");
-                throw new CustomerNotFoundException("Customer not found with ID: " + customerId);
-            }
+    private CompletableFuture<Void> validateCustomer(Long customerId, Instant deadline) {
+        log.info("Validating customer {} via Kafka", customerId);
+        return requestReplyClient.validateCustomer(customerId, deadline)
+                .thenAccept(response -> {
+                    log.info("Received customer validation response: response={}, valid={}, active={}",
+                            response != null ? "present" : "NULL",
+                            response != null ? response.getValid() : "N/A",
+                            response != null ? response.getActive() : "N/A");
+
+                    if (response == null || !Boolean.TRUE.equals(response.getValid())) {
+                        log.error("Customer validation FAILED: response null or invalid. Throwing CustomerNotFoundException");
+                        throw new CustomerNotFoundException("Customer not found with ID: " + customerId);
+                    }
+
+                    if (!Boolean.TRUE.equals(response.getActive())) {
+                        log.error("Customer account is INACTIVE. Throwing InvalidCalculationDataException");
+                        throw new InvalidCalculationDataException("Customer account is not active");
+                    }
+                });
+    }
 
-            if (!Boolean.TRUE.equals(response.getActive())) {
-                log.error("Customer account is INACTIVE. Throwing InvalidCalculationDataException");
-                throw new InvalidCalculationDataException("Customer account is not active");
-            }
+    private CompletableFuture<ProductResponse> fetchProductDetails(String productCode, Instant deadline) {
+        log.info("Requesting product details for code {} via Kafka", productCode);
+        return requestReplyClient.fetchProductDetails(productCode, deadline)
+                .thenApply(response -> {
+                    if (response == null || response.getProductId() == null) {
+                        log.error("Product not found - response null or productId null");
+                        throw new ProductNotFoundException("Product not found with code: " + productCode);
+                    }
+
+                    if (!"ACTIVE".equals(response.getStatus())) {
+                        throw new InvalidCalculationDataException("Product is not active: " + productCode);
+                    }
+
+                    return convertToProductResponse(response);
+                });
+    }
 
-            log.info("Customer validation SUCCESSFUL for ID: {}", customerId);
-            log.info("============ VALIDATION COMPLETE ============");
-        } catch (InterruptedException e) {
-            log.error("Interrupted while validating customer with ID: {}", customerId, e);
-            throw new ServiceIntegrationException("Failed to validate customer information", e);
-        }
+    private Instant requestDeadline() {
+        return Instant.now().plusSeconds(requestTimeoutSeconds);
     }
 
-    private ProductResponse fetchProductDetails(String productCode) {
+    private <T> T await(CompletableFuture<T> future) {
         try {
-            String requestId = UUID.randomUUID().toString();
-            log.info("============ REQUESTING PRODUCT DETAILS ============");
-            log.info("Product Code: {}", productCode);
-            log.info("Request ID: {}", requestId);
-
-            ProductDetailsRequest request = ProductDetailsRequest.builder()
-                    .productCode(productCode)
-                    .requestId(requestId)
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-            requestResponseStore.putRequest(requestId, null);
-            log.info("Stored request marker in Redis");
-
-            kafkaProducerService.sendProductDetailsRequest(request);
-            log.info("Sent product details request to Kafka");
-
-            log.info("Waiting for response (timeout: {} seconds)...", requestTimeoutSeconds);
-            ProductDetailsResponse response = requestResponseStore
-                    .getResponse(requestId, ProductDetailsResponse.class, requestTimeoutSeconds, TimeUnit.SECONDS);
-
-            log.info("Response received: {}", response);
-            log.info("Response product ID: {}", response != null ? response.getProductId() : "NULL");
-
-            if (response == null || response.getProductId() == null) {
-                log.error("Product not found - response null or productId null");
-                throw new ProductNotFoundException("Product not found with code: " + productCode);
-            }
-
-            if (!"ACTIVE".equals(response.getStatus())) {
-                throw new InvalidCalculationDataException("Product is not active: " + productCode);
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-
-            return convertToProductResponse(response);
-        } catch (InterruptedException e) {
-            log.error("Interrupted while fetching product details for code: {}", productCode, e);
-            throw new ServiceIntegrationException("Failed to fetch product information", e);
+            throw new ServiceIntegrationException("Cross-service request failed", e.getCause());
         }
     }
 
     private String fetchProductNameSafely(String productCode) {
         try {
-            ProductResponse product = fetchProductDetails(productCode);
+            ProductResponse product = await(fetchProductDetails(productCode, requestDeadline()));
             return product.getProductName();
         } catch (Exception e) {
             log.warn("Failed to fetch product name for code: {}", productCode);
@@ -0,0 +1,171 @@
+package com.bt.fixeddeposit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the old blocking FD calculation handler with the staged one against a
+ * real broker, at 1, 3 and 12 request partitions. Skipped unless run with
+ * {@code -Dbenchmark=true}; the broker defaults to localhost.
+ *
+ * The customer and product lookups are simulated with a fixed delay so the
+ * numbers show listener-thread occupancy rather than downstream speed.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class FdCalculationHandlerBenchmarkTest {
+
+    private final String bootstrapServers = System.getProperty("benchmark.kafka.bootstrap", "localhost:9092");
+    private final int requests = Integer.getInteger("benchmark.requests", 2000);
+    private final long lookupMillis = Long.getLong("benchmark.lookup-millis", 20);
+    private final int executorThreads = Integer.getInteger("benchmark.executor-threads", 8);
+
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private ExecutorService calculationExecutor;
+
+    @BeforeAll
+    void setUp() {
+        producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 5));
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        calculationExecutor = Executors.newFixedThreadPool(executorThreads);
+    }
+
+    @AfterAll
+    void tearDown() {
+        calculationExecutor.shutdownNow();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void compareHandlersByPartitionCount() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (int partitions : List.of(1, 3, 12)) {
+            results.add(run("blocking", partitions, this::blockingHandler));
+            results.add(run("staged", partitions, this::stagedHandler));
+        }
+        results.forEach(result -> log.info("{}", result));
+        assertTrue(results.stream().allMatch(result -> result.completed() == requests),
+                "Every request should be processed");
+    }
+
+    private void blockingHandler(ConsumerRecord<String, String> record, CountDownLatch done) {
+        // customer and product lookups awaited one after the other on the listener thread
+        sleep(lookupMillis);
+        sleep(lookupMillis);
+        calculate(record.value());
+        done.countDown();
+    }
+
+    private void stagedHandler(ConsumerRecord<String, String> record, CountDownLatch done) {
+        CompletableFuture<Void> customer = lookup();
+        CompletableFuture<Void> product = lookup();
+        customer.thenCombine(product, (ignored, other) -> record.value())
+                .thenApplyAsync(this::calculate, calculationExecutor)
+                .whenComplete((result, error) -> done.countDown());
+    }
+
+    private CompletableFuture<Void> lookup() {
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(lookupMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private double calculate(String payload) {
+        double amount = payload.hashCode() & 0xffff;
+        for (int i = 0; i < 48; i++) {
+            amount *= 1.0 + 0.07 / 4;
+        }
+        return amount;
+    }
+
+    private Result run(String name, int partitions, Handler handler) throws Exception {
+        String topic = "bench.fd.calculation." + partitions + "." + UUID.randomUUID();
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            admin.createTopics(List.of(new NewTopic(topic, partitions, (short) 1))).all().get();
+        }
+        for (int i = 0; i < requests; i++) {
+            String key = UUID.randomUUID().toString();
+            kafkaTemplate.send(topic, key, key);
+        }
+        kafkaTemplate.flush();
+
+        CountDownLatch done = new CountDownLatch(requests);
+        ContainerProperties properties = new ContainerProperties(topic);
+        properties.setGroupId("bench-fd-" + name + "-" + UUID.randomUUID());
+        properties.setMessageListener((MessageListener<String, String>) record -> handler.handle(record, done));
+        ConcurrentMessageListenerContainer<String, String> container = new ConcurrentMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(Map.of(
+                        ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                        ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                        ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest")),
+                properties);
+        container.setConcurrency(partitions);
+
+        long started = System.nanoTime();
+        container.start();
+        done.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - started;
+        container.stop();
+
+        int completed = (int) (requests - done.getCount());
+        return new Result(name, partitions, completed, completed / (elapsed / 1e9));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(ConsumerRecord<String, String> record, CountDownLatch done);
+    }
+
+    private record Result(String handler, int partitions, int completed, double throughputPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("%-8s partitions=%-2d completed=%d throughput=%.0f req/s",
+                    handler, partitions, completed, throughputPerSecond);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.bt.fixeddeposit.event;
+
+import com.bt.fixeddeposit.dto.FdCalculationResponse;
+import com.bt.fixeddeposit.service.FdCalculationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KafkaConsumerServiceTest {
+
+    @Mock
+    private RedisRequestResponseStore requestResponseStore;
+
+    @Mock
+    private FdCalculationService fdCalculationService;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    private KafkaConsumerService consumerService;
+
+    @BeforeEach
+    void setUp() {
+        consumerService = new KafkaConsumerService(requestResponseStore, fdCalculationService, kafkaProducerService,
+                listenerRegistry);
+        ReflectionTestUtils.setField(consumerService, "maxInFlight", 4);
+        when(listenerRegistry.getListenerContainer(KafkaConsumerService.FD_CALCULATION_LISTENER_ID))
+                .thenReturn(container);
+    }
+
+    @Test
+    void handleFdCalculationRequest_AtMaxInFlight_ShouldPauseUntilHalfHaveFinished() {
+        List<CompletableFuture<FdCalculationResponse>> calculations = new ArrayList<>();
+        when(fdCalculationService.calculateFdAsync(any(), any())).thenAnswer(invocation -> {
+            CompletableFuture<FdCalculationResponse> calculation = new CompletableFuture<>();
+            calculations.add(calculation);
+            return calculation;
+        });
+
+        for (int i = 0; i < 4; i++) {
+            consumerService.handleFdCalculationRequest(request(i), null, null, null, null);
+        }
+
+        verify(container, times(1)).pause();
+        assertEquals(true, consumerService.metrics().get("paused"));
+
+        calculations.get(0).complete(response());
+        verify(container, never()).resume();
+        calculations.get(1).complete(response());
+
+        verify(container, times(1)).resume();
+        assertEquals(false, consumerService.metrics().get("paused"));
+        assertEquals(2L, consumerService.metrics().get("inFlight"));
+    }
+
+    private FdCalculationRequestEvent request(int i) {
+        return FdCalculationRequestEvent.builder()
+                .requestId("REQ-" + i)
+                .customerId(1L)
+                .productCode("FD-1Y")
+                .principalAmount(new BigDecimal("1000"))
+                .tenureMonths(12)
+                .build();
+    }
+
+    private FdCalculationResponse response() {
+        return FdCalculationResponse.builder()
+                .id(1L)
+                .principalAmount(new BigDecimal("1000"))
+                .build();
+    }
+}
@@ -5,27 +5,28 @@ import com.bt.fixeddeposit.dto.FdCalculationResponse;
 import com.bt.fixeddeposit.dto.external.ProductResponse;
 import com.bt.fixeddeposit.entity.FdCalculation;
 import com.bt.fixeddeposit.event.CustomerValidationResponse;
-import com.bt.fixeddeposit.event.KafkaProducerService;
+import com.bt.fixeddeposit.event.KafkaRequestReplyClient;
 import com.bt.fixeddeposit.event.ProductDetailsResponse;
-import com.bt.fixeddeposit.event.RequestResponseStore;
 import com.bt.fixeddeposit.exception.*;
 import com.bt.fixeddeposit.repository.FdCalculationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,12 +40,11 @@ class FdCalculationServiceTest {
         private FdCalculationRepository calculationRepository;
 
         @Mock
-        private KafkaProducerService kafkaProducerService;
+        private KafkaRequestReplyClient requestReplyClient;
 
         @Mock
-        private RequestResponseStore requestResponseStore;
+        private RedisFdCacheService redisFdCacheService;
 
-        @InjectMocks
         private FdCalculationService calculationService;
 
         private FdCalculationRequest validRequest;
@@ -54,7 +54,10 @@ class FdCalculationServiceTest {
         private String authToken;
 
         @BeforeEach
-        void setUp() throws InterruptedException {
+        void setUp() {
+                // Runs the executor stages on the calling thread so the async path stays deterministic
+                calculationService = new FdCalculationService(calculationRepository, requestReplyClient,
+                                redisFdCacheService, Runnable::run);
                 ReflectionTestUtils.setField(calculationService, "defaultCompoundingFrequency", 4);
                 ReflectionTestUtils.setField(calculationService, "roundingScale", 2);
                 ReflectionTestUtils.setField(calculationService, "requestTimeoutSeconds", 30L);
@@ -100,44 +103,13 @@ class FdCalculationServiceTest {
                                 .createdAt(LocalDateTime.now())
                                 .build();
 
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenReturn(null);
+                replyWith(validCustomer(), product("ACTIVE"));
                 when(calculationRepository.findByCustomerIdOrderByCreatedAtDesc(any()))
                                 .thenReturn(Collections.emptyList());
         }
 
         @Test
-        void testCalculateFd_Success() throws InterruptedException {
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenAnswer(invocation -> {
-                                        String requestId = invocation.getArgument(0);
-                                        if (requestId.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .active(true)
-                                                                .requestId(requestId)
-                                                                .build();
-                                        } else {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-001")
-                                                                .minAmount(BigDecimal.valueOf(10000))
-                                                                .maxAmount(BigDecimal.valueOf(10000000))
-                                                                .minTermMonths(6)
-                                                                .maxTermMonths(120)
-                                                                .minInterestRate(BigDecimal.valueOf(6.5))
-                                                                .maxInterestRate(BigDecimal.valueOf(7.5))
-                                                                .status("ACTIVE")
-                                                                .requestId(requestId)
-                                                                .build();
-                                        }
-                                });
-
+        void testCalculateFd_Success() {
                 when(calculationRepository.save(any(FdCalculation.class))).thenReturn(savedCalculation);
 
                 FdCalculationResponse response = calculationService.calculateFd(validRequest, authToken);
@@ -150,37 +122,43 @@ class FdCalculationServiceTest {
                 assertTrue(response.getMaturityAmount().compareTo(response.getPrincipalAmount()) > 0);
 
                 verify(calculationRepository).save(any(FdCalculation.class));
+                verify(redisFdCacheService).cacheCalculation(eq(1L), eq("FD-001"), eq(12),
+                                eq(BigDecimal.valueOf(100000)), any(FdCalculationResponse.class));
         }
 
         @Test
-        void testCalculateFd_InvalidCustomer() throws InterruptedException {
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
+        void testCalculateFd_Cached_ShouldSkipLookups() {
+                FdCalculationResponse cached = FdCalculationResponse.builder().id(9L).build();
+                when(redisFdCacheService.getCachedCalculation(1L, "FD-001", 12, BigDecimal.valueOf(100000)))
+                                .thenReturn(cached);
 
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenReturn(CustomerValidationResponse.builder()
-                                                .valid(false)
-                                                .requestId("test-req-id")
-                                                .build());
+                assertSame(cached, calculationService.calculateFd(validRequest, authToken));
 
-                assertThrows(ServiceIntegrationException.class,
+                verifyNoInteractions(requestReplyClient);
+                verify(calculationRepository, never()).save(any());
+        }
+
+        @Test
+        void testCalculateFd_InvalidCustomer() {
+                replyWith(CustomerValidationResponse.builder()
+                                .valid(false)
+                                .requestId("test-req-id")
+                                .build(), product("ACTIVE"));
+
+                assertThrows(CustomerNotFoundException.class,
                                 () -> calculationService.calculateFd(validRequest, authToken));
 
                 verify(calculationRepository, never()).save(any());
         }
 
         @Test
-        void testCalculateFd_InactiveCustomer() throws InterruptedException {
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenReturn(CustomerValidationResponse.builder()
-                                                .customerId(1L)
-                                                .valid(true)
-                                                .active(false)
-                                                .requestId("test-req-id")
-                                                .build());
+        void testCalculateFd_InactiveCustomer() {
+                replyWith(CustomerValidationResponse.builder()
+                                .customerId(1L)
+                                .valid(true)
+                                .active(false)
+                                .requestId("test-req-id")
+                                .build(), product("ACTIVE"));
 
                 assertThrows(InvalidCalculationDataException.class,
                                 () -> calculationService.calculateFd(validRequest, authToken));
@@ -189,34 +167,8 @@ class FdCalculationServiceTest {
         }
 
         @Test
-        void testCalculateFd_InvalidProduct() throws InterruptedException {
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenAnswer(invocation -> {
-                                        String requestId = invocation.getArgument(0);
-                                        if (requestId.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .active(true)
-                                                                .requestId(requestId)
-                                                                .build();
-                                        } else {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-001")
-                                                                .status("INACTIVE")
-                                                                .minAmount(BigDecimal.valueOf(10000))
-                                                                .maxAmount(BigDecimal.valueOf(10000000))
-                                                                .minTermMonths(6)
-                                                                .maxTermMonths(120)
-                                                                .requestId(requestId)
-                                                                .build();
-                                        }
-                                });
+        void testCalculateFd_InvalidProduct() {
+                replyWith(validCustomer(), product("INACTIVE"));
 
                 assertThrows(InvalidCalculationDataException.class,
                                 () -> calculationService.calculateFd(validRequest, authToken));
@@ -225,35 +177,21 @@ class FdCalculationServiceTest {
         }
 
         @Test
-        void testCalculateFd_InvalidPrincipalAmount() throws InterruptedException {
+        void testCalculateFd_ProductNotFound() {
+                replyWith(validCustomer(), ProductDetailsResponse.builder()
+                                .productCode("FD-001")
+                                .requestId("test-req-id")
+                                .build());
+
+                assertThrows(ProductNotFoundException.class,
+                                () -> calculationService.calculateFd(validRequest, authToken));
+
+                verify(calculationRepository, never()).save(any());
+        }
+
+        @Test
+        void testCalculateFd_InvalidPrincipalAmount() {
                 validRequest.setPrincipalAmount(BigDecimal.valueOf(5000));
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenAnswer(invocation -> {
-                                        String requestId = invocation.getArgument(0);
-                                        if (requestId.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .active(true)
-                                                                .requestId(requestId)
-                                                                .build();
-                                        } else {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-001")
-                                                                .minAmount(BigDecimal.valueOf(10000))
-                                                                .maxAmount(BigDecimal.valueOf(10000000))
-                                                                .minTermMonths(6)
-                                                                .maxTermMonths(120)
-                                                                .status("ACTIVE")
-                                                                .requestId(requestId)
-                                                                .build();
-                                        }
-                                });
 
                 assertThrows(InvalidCalculationDataException.class,
                                 () -> calculationService.calculateFd(validRequest, authToken));
@@ -262,35 +200,8 @@ class FdCalculationServiceTest {
         }
 
         @Test
-        void testCalculateFd_InvalidTenure() throws InterruptedException {
+        void testCalculateFd_InvalidTenure() {
                 validRequest.setTenureMonths(3);
-                doNothing().when(kafkaProducerService).sendCustomerValidationRequest(any());
-                doNothing().when(kafkaProducerService).sendProductDetailsRequest(any());
-                doNothing().when(requestResponseStore).putRequest(any(), any());
-
-                when(requestResponseStore.getResponse(any(), anyLong(), any(TimeUnit.class)))
-                                .thenAnswer(invocation -> {
-                                        String requestId = invocation.getArgument(0);
-                                        if (requestId.contains("validation")) {
-                                                return CustomerValidationResponse.builder()
-                                                                .customerId(1L)
-                                                                .valid(true)
-                                                                .active(true)
-                                                                .requestId(requestId)
-                                                                .build();
-                                        } else {
-                                                return ProductDetailsResponse.builder()
-                                                                .productId(1L)
-                                                                .productCode("FD-001")
-                                                                .minAmount(BigDecimal.valueOf(10000))
-                                                                .maxAmount(BigDecimal.valueOf(10000000))
-                                                                .minTermMonths(6)
-                                                                .maxTermMonths(120)
-                                                                .status("ACTIVE")
-                                                                .requestId(requestId)
-                                                                .build();
-                                        }
-                                });
 
                 assertThrows(InvalidCalculationDataException.class,
                                 () -> calculationService.calculateFd(validRequest, authToken));
@@ -298,6 +209,58 @@ class FdCalculationServiceTest {
                 verify(calculationRepository, never()).save(any());
         }
 
+        @Test
+        void testCalculateFd_ReplyTimeout() {
+                when(requestReplyClient.validateCustomer(eq(1L), any()))
+                                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("no reply")));
+
+                ServiceIntegrationException exception = assertThrows(ServiceIntegrationException.class,
+                                () -> calculationService.calculateFd(validRequest, authToken));
+
+                assertInstanceOf(TimeoutException.class, exception.getCause());
+                verify(calculationRepository, never()).save(any());
+        }
+
+        @Test
+        void testCalculateFdAsync_Success() {
+                when(calculationRepository.save(any(FdCalculation.class))).thenReturn(savedCalculation);
+                Instant deadline = Instant.now().plusSeconds(5);
+
+                FdCalculationResponse response = calculationService.calculateFdAsync(validRequest, deadline).join();
+
+                assertEquals(1L, response.getId());
+                verify(requestReplyClient).validateCustomer(1L, deadline);
+                verify(requestReplyClient).fetchProductDetails("FD-001", deadline);
+                verify(calculationRepository).save(any(FdCalculation.class));
+        }
+
+        @Test
+        void testCalculateFdAsync_InvalidCustomer() {
+                replyWith(CustomerValidationResponse.builder()
+                                .valid(false)
+                                .requestId("test-req-id")
+                                .build(), product("ACTIVE"));
+
+                CompletableFuture<FdCalculationResponse> future = calculationService.calculateFdAsync(validRequest,
+                                null);
+
+                CompletionException exception = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(CustomerNotFoundException.class, exception.getCause());
+                verify(calculationRepository, never()).save(any());
+        }
+
+        @Test
+        void testCalculateFdAsync_InvalidTenure() {
+                validRequest.setTenureMonths(3);
+
+                CompletableFuture<FdCalculationResponse> future = calculationService.calculateFdAsync(validRequest,
+                                null);
+
+                CompletionException exception = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(InvalidCalculationDataException.class, exception.getCause());
+                verify(calculationRepository, never()).save(any());
+        }
+
         @Test
         void testGetCalculationById_Success() {
                 when(calculationRepository.findById(eq(1L))).thenReturn(Optional.of(savedCalculation));
@@ -330,10 +293,24 @@ class FdCalculationServiceTest {
 
                 assertNotNull(response);
                 assertEquals(2, response.size());
+                assertEquals("Fixed Deposit - Regular", response.get(0).getProductName());
 
                 verify(calculationRepository).findByCustomerIdOrderByCreatedAtDesc(eq(1L));
         }
 
+        @Test
+        void testGetCalculationHistory_InvalidCustomer() {
+                replyWith(CustomerValidationResponse.builder()
+                                .valid(false)
+                                .requestId("test-req-id")
+                                .build(), product("ACTIVE"));
+
+                assertThrows(CustomerNotFoundException.class,
+                                () -> calculationService.getCalculationHistory(1L, authToken));
+
+                verify(calculationRepository, never()).findByCustomerIdOrderByCreatedAtDesc(any());
+        }
+
         @Test
         void testGetRecentCalculations_Success() {
                 List<FdCalculation> calculations = Arrays.asList(savedCalculation);
@@ -347,4 +324,37 @@ class FdCalculationServiceTest {
 
                 verify(calculationRepository).findRecentCalculationsByCustomer(eq(1L), any(LocalDateTime.class));
         }
+
+        private void replyWith(CustomerValidationResponse customer, ProductDetailsResponse product) {
+                when(requestReplyClient.validateCustomer(eq(1L), any()))
+                                .thenReturn(CompletableFuture.completedFuture(customer));
+                when(requestReplyClient.fetchProductDetails(eq("FD-001"), any()))
+                                .thenReturn(CompletableFuture.completedFuture(product));
+        }
+
+        private CustomerValidationResponse validCustomer() {
+                return CustomerValidationResponse.builder()
+                                .customerId(1L)
+                                .valid(true)
+                                .active(true)
+                                .requestId("test-req-id")
+                                .build();
+        }
+
+        private ProductDetailsResponse product(String status) {
+                return ProductDetailsResponse.builder()
+                                .productId(1L)
+                                .productCode("FD-001")
+                                .productName("Fixed Deposit - Regular")
+                                .minAmount(BigDecimal.valueOf(10000))
+                                .maxAmount(BigDecimal.valueOf(10000000))
+                                .minTermMonths(6)
+                                .maxTermMonths(120)
+                                .minInterestRate(BigDecimal.valueOf(6.5))
+                                .maxInterestRate(BigDecimal.valueOf(7.5))
+                                .currency("USD")
+                                .status(status)
+                                .requestId("test-req-id")
+                                .build();
+        }
 }
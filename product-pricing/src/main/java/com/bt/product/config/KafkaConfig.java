@@ -1,9 +1,11 @@
 package com.bt.product.config;
 
 import com.bt.product.event.*;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
@@ -26,11 +28,18 @@ import java.util.Map;
 
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final KafkaProducerProperties producerProperties;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.product-catalog.partitions:3}")
+    private int productCatalogPartitions;
+
     @Bean
     public KafkaAdmin admin() {
         Map<String, Object> configs = new HashMap<>();
@@ -44,6 +53,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.CUSTOMER_VALIDATION_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_VALIDATION_REQUEST))
                 .build();
     }
 
@@ -52,6 +62,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.CUSTOMER_VALIDATION_RESPONSE))
                 .build();
     }
 
@@ -60,6 +71,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.PRODUCT_DETAILS_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_DETAILS_REQUEST))
                 .build();
     }
 
@@ -68,6 +80,17 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.PRODUCT_DETAILS_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_DETAILS_RESPONSE))
+                .build();
+    }
+
+    @Bean
+    public NewTopic productCatalogTopic() {
+        return TopicBuilder.name(KafkaTopics.PRODUCT_CATALOG)
+                .partitions(productCatalogPartitions)
+                .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.PRODUCT_CATALOG))
+                .compact()
                 .build();
     }
 
@@ -76,6 +99,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_CALCULATION_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATION_REQUEST))
                 .build();
     }
 
@@ -84,6 +108,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_CALCULATION_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_CALCULATION_RESPONSE))
                 .build();
     }
 
@@ -92,6 +117,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_HISTORY_REQUEST)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_HISTORY_REQUEST))
                 .build();
     }
 
@@ -100,6 +126,7 @@ public class KafkaConfig {
         return TopicBuilder.name(KafkaTopics.FD_HISTORY_RESPONSE)
                 .partitions(3)
                 .replicas(1)
+                .configs(producerProperties.topicConfigs(KafkaTopics.FD_HISTORY_RESPONSE))
                 .build();
     }
 
@@ -111,9 +138,8 @@ public class KafkaConfig {
         configProps.put(org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
                 StringSerializer.class);
         configProps.put(org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
-                JsonSerializer.class);
-        configProps.put(org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG, "all");
-        configProps.put(org.apache.kafka.clients.producer.ProducerConfig.RETRIES_CONFIG, 3);
+                BinaryEventSerializer.class);
+        configProps.putAll(producerProperties.toProducerConfigs());
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -131,7 +157,7 @@ public class KafkaConfig {
         props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
                 StringDeserializer.class);
         props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-                JsonDeserializer.class);
+                BinaryEventDeserializer.class);
         props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.bt.product.event.ProductDetailsRequest");
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
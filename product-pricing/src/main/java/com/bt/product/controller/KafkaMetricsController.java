@@ -0,0 +1,29 @@
+package com.bt.product.controller;
+
+import com.bt.product.event.KafkaProducerService;
+import com.bt.product.service.kafka.KafkaConsumerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/product/kafka")
+@RequiredArgsConstructor
+public class KafkaMetricsController {
+
+    private final KafkaConsumerService kafkaConsumerService;
+    private final KafkaProducerService kafkaProducerService;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("productDetailsRequests", kafkaConsumerService.metrics());
+        metrics.put("producer", kafkaProducerService.producerMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+}
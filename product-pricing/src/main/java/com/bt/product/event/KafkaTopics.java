@@ -15,6 +15,7 @@ public class KafkaTopics {
     public static final String PRODUCT_UPDATED = "product.updated";
     public static final String PRODUCT_DETAILS_REQUEST = "product.details.request";
     public static final String PRODUCT_DETAILS_RESPONSE = "product.details.response";
+    public static final String PRODUCT_CATALOG = "product.catalog";
 
     // FD Calculator Service Topics
     public static final String FD_CALCULATION_REQUEST = "fd.calculation.request";
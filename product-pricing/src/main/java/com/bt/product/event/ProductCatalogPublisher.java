@@ -0,0 +1,92 @@
+package com.bt.product.event;
+
+import com.bt.product.entity.Product;
+import com.bt.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publishes full product snapshots to the compacted {@link KafkaTopics#PRODUCT_CATALOG}
+ * topic, keyed by product code. A delete publishes a tombstone. Other services
+ * rebuild their read-only catalog by reading the topic from the beginning.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalogPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ProductRepository productRepository;
+
+    public void publishSnapshot(Product product) {
+        ProductDetailsResponse snapshot = toSnapshot(product);
+        afterCommit(() -> send(snapshot.getProductCode(), snapshot));
+    }
+
+    public void publishDeleted(String productCode) {
+        afterCommit(() -> send(productCode, null));
+    }
+
+    /**
+     * Re-publishes every product on startup so the topic also covers products
+     * created before the catalog existed. Compaction keeps only the latest copy.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishAll() {
+        try {
+            productRepository.findAll().forEach(product -> send(product.getProductCode(), toSnapshot(product)));
+            log.info("Published product catalog snapshot");
+        } catch (Exception e) {
+            log.error("Failed to publish product catalog snapshot", e);
+        }
+    }
+
+    private ProductDetailsResponse toSnapshot(Product product) {
+        return ProductDetailsResponse.builder()
+                .productId(product.getId())
+                .productCode(product.getProductCode())
+                .productName(product.getProductName())
+                .status(product.getStatus().toString())
+                .minAmount(product.getMinAmount())
+                .maxAmount(product.getMaxAmount())
+                .minTermMonths(product.getMinTermMonths())
+                .maxTermMonths(product.getMaxTermMonths())
+                .minInterestRate(product.getMinInterestRate())
+                .maxInterestRate(product.getMaxInterestRate())
+                .currency(product.getCurrency() != null ? product.getCurrency().toString() : "USD")
+                .compoundingFrequency(product.getCompoundingFrequency())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void send(String productCode, ProductDetailsResponse snapshot) {
+        try {
+            kafkaTemplate.send(KafkaTopics.PRODUCT_CATALOG, productCode, snapshot);
+            log.info("Product catalog {} published for code: {}", snapshot != null ? "snapshot" : "tombstone",
+                    productCode);
+        } catch (Exception e) {
+            log.error("Failed to publish product catalog entry for code: {}", productCode, e);
+        }
+    }
+}
@@ -2,31 +2,106 @@ package com.bt.product.event;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Correlates Kafka replies with the threads waiting for them.
+ *
+ * Waiters park on an in-memory future. When the reply is consumed by the same
+ * instance it is handed over directly; when another instance in the consumer
+ * group receives it, the reply is written to Redis and announced on a pub/sub
+ * channel so the owning instance can pick it up. Each request costs a constant
+ * number of Redis operations instead of one GET per polling interval.
+ */
 @Service
 @Slf4j
-public class RedisRequestResponseStore {
+public class RedisRequestResponseStore implements MessageListener {
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
     private final ObjectMapper objectMapper;
+    private final ExecutorService completionExecutor;
+    private final Map<String, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextSubscribeAttempt = new AtomicLong();
 
     private static final String REQUEST_PREFIX = "kafka:request:";
     private static final String RESPONSE_PREFIX = "kafka:response:";
+    private static final String RESPONSE_CHANNEL = "kafka:response:ready";
     private static final String PENDING_MARKER = "PENDING";
     private static final long DEFAULT_TTL_SECONDS = 60;
+    private static final long SUBSCRIBE_RETRY_MILLIS = 5000;
 
-    public RedisRequestResponseStore(StringRedisTemplate stringRedisTemplate) {
+    /**
+     * Waiters are completed on {@code completionThreads} threads of their own.
+     * Completion reads and deletes keys in Redis, which must not hold up the
+     * Kafka or pub/sub listener that delivered the reply, nor the JVM-wide
+     * timer thread that fires every {@code orTimeout} in the process.
+     */
+    public RedisRequestResponseStore(StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.kafka.reply.completion-threads:4}") int completionThreads) {
         this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.completionExecutor = Executors.newFixedThreadPool(completionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "reply-completion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void registerListener() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RESPONSE_CHANNEL));
+    }
+
+    /**
+     * Redis being down must not stop the service from starting. Until the
+     * subscription succeeds, replies consumed by another instance are still
+     * picked up by the read at each waiter's deadline, and new requests retry
+     * the subscription.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void subscribe() {
+        ensureSubscribed();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        completionExecutor.shutdown();
     }
 
     public void putRequest(String requestId, Object request) {
+        ensureSubscribed();
+        pending.put(requestId, new CompletableFuture<>());
         String key = REQUEST_PREFIX + requestId;
         stringRedisTemplate.opsForValue().set(key, PENDING_MARKER, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
         log.debug("Stored pending request: {}", requestId);
@@ -34,50 +109,131 @@ public class RedisRequestResponseStore {
 
     public <T> T getResponse(String requestId, Class<T> responseType, long timeout, TimeUnit unit)
             throws InterruptedException {
-        String responseKey = RESPONSE_PREFIX + requestId;
-        long endTime = System.currentTimeMillis() + unit.toMillis(timeout);
-
-        while (System.currentTimeMillis() < endTime) {
-            String responseJson = stringRedisTemplate.opsForValue().get(responseKey);
-            if (responseJson != null) {
-                stringRedisTemplate.delete(responseKey);
-                stringRedisTemplate.delete(REQUEST_PREFIX + requestId);
-                log.debug("Retrieved response for request: {}", requestId);
-                try {
-                    return objectMapper.readValue(responseJson, responseType);
-                } catch (Exception e) {
-                    log.error("Failed to deserialize response", e);
-                    return null;
-                }
-            }
-            Thread.sleep(100);
+        try {
+            return getResponseAsync(requestId, responseType, Duration.ofMillis(unit.toMillis(timeout))).get();
+        } catch (ExecutionException e) {
+            log.error("Response delivery failed for request: {}", requestId, e.getCause());
+            return null;
         }
+    }
 
-        stringRedisTemplate.delete(REQUEST_PREFIX + requestId);
-        log.warn("Request timed out: {}", requestId);
-        return null;
+    /**
+     * Returns a future that completes with the reply, or with {@code null} once
+     * the timeout elapses without one. The waiting caller's thread is not held.
+     */
+    public <T> CompletableFuture<T> getResponseAsync(String requestId, Class<T> responseType, Duration timeout) {
+        CompletableFuture<Object> future = pending.computeIfAbsent(requestId, id -> new CompletableFuture<>());
+        return future.orTimeout(Math.max(timeout.toMillis(), 0), TimeUnit.MILLISECONDS)
+                .handleAsync((response, error) -> {
+                    try {
+                        if (error == null) {
+                            log.debug("Retrieved response for request: {}", requestId);
+                            return convert(response, responseType);
+                        }
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (cause instanceof TimeoutException) {
+                            // Pub/sub is fire-and-forget, so check the stored reply once before giving up.
+                            String responseJson = stringRedisTemplate.opsForValue().get(RESPONSE_PREFIX + requestId);
+                            if (responseJson != null) {
+                                log.debug("Recovered response for request {} after missed notification", requestId);
+                                return convert(responseJson, responseType);
+                            }
+                            log.warn("Request timed out: {}", requestId);
+                            return null;
+                        }
+                        log.error("Response delivery failed for request: {}", requestId, cause);
+                        return null;
+                    } finally {
+                        pending.remove(requestId);
+                        stringRedisTemplate.delete(List.of(REQUEST_PREFIX + requestId, RESPONSE_PREFIX + requestId));
+                    }
+                }, completionExecutor);
     }
 
     public void putResponse(String requestId, Object response) {
+        CompletableFuture<Object> local = pending.get(requestId);
+        if (local != null) {
+            local.complete(response);
+            log.debug("Delivered response locally for request: {}", requestId);
+            return;
+        }
+
         String key = RESPONSE_PREFIX + requestId;
         try {
             String json = objectMapper.writeValueAsString(response);
             stringRedisTemplate.opsForValue().set(key, json, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
-            log.debug("Stored response for request: {}", requestId);
+            stringRedisTemplate.convertAndSend(RESPONSE_CHANNEL, requestId);
+            log.debug("Stored and published response for request: {}", requestId);
         } catch (Exception e) {
             log.error("Failed to serialize response", e);
         }
     }
 
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String requestId = new String(message.getBody(), StandardCharsets.UTF_8);
+        CompletableFuture<Object> future = pending.get(requestId);
+        if (future == null || future.isDone()) {
+            return;
+        }
+        String responseJson = stringRedisTemplate.opsForValue().get(RESPONSE_PREFIX + requestId);
+        if (responseJson != null) {
+            future.complete(responseJson);
+            log.debug("Delivered response via pub/sub for request: {}", requestId);
+        }
+    }
+
     public void removeRequest(String requestId) {
+        pending.remove(requestId);
         stringRedisTemplate.delete(REQUEST_PREFIX + requestId);
         stringRedisTemplate.delete(RESPONSE_PREFIX + requestId);
         log.debug("Removed request: {}", requestId);
     }
 
     public boolean hasRequest(String requestId) {
+        if (pending.containsKey(requestId)) {
+            return true;
+        }
         String key = REQUEST_PREFIX + requestId;
         Boolean exists = stringRedisTemplate.hasKey(key);
         return Boolean.TRUE.equals(exists);
     }
+
+    private void ensureSubscribed() {
+        if (listenerContainer.isListening()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long next = nextSubscribeAttempt.get();
+        if (now < next || !nextSubscribeAttempt.compareAndSet(next, now + SUBSCRIBE_RETRY_MILLIS)) {
+            return;
+        }
+        try {
+            // A failed start leaves the container marked running, so reset it before trying again
+            listenerContainer.stop();
+            listenerContainer.start();
+            log.info("Subscribed to {}", RESPONSE_CHANNEL);
+        } catch (RuntimeException e) {
+            log.warn("Could not subscribe to {}, replies from other instances wait for the deadline read: {}",
+                    RESPONSE_CHANNEL, e.getMessage());
+        }
+    }
+
+    private <T> T convert(Object response, Class<T> responseType) {
+        if (response == null) {
+            return null;
+        }
+        if (responseType.isInstance(response)) {
+            return responseType.cast(response);
+        }
+        try {
+            if (response instanceof String json) {
+                return objectMapper.readValue(json, responseType);
+            }
+            return objectMapper.convertValue(response, responseType);
+        } catch (Exception e) {
+            log.error("Failed to deserialize response", e);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.bt.product.event;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * The absolute time after which a request's caller no longer waits for the
+ * reply, carried in the {@value #HEADER} record header as epoch milliseconds.
+ * Requests without the header have no deadline.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "x-request-deadline";
+
+    private RequestDeadline() {
+    }
+
+    public static Instant of(byte[] value) {
+        return value != null && value.length == Long.BYTES ? Instant.ofEpochMilli(ByteBuffer.wrap(value).getLong()) : null;
+    }
+
+    public static Instant from(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        return header != null ? of(header.value()) : null;
+    }
+
+    public static boolean isExpired(Instant deadline) {
+        return deadline != null && Instant.now().isAfter(deadline);
+    }
+}
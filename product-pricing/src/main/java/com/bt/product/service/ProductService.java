@@ -5,6 +5,7 @@ import com.bt.product.entity.Product;
 import com.bt.product.entity.ProductStatus;
 import com.bt.product.exception.DuplicateProductException;
 import com.bt.product.exception.InvalidProductDataException;
+import com.bt.product.event.ProductCatalogPublisher;
 import com.bt.product.exception.ProductNotFoundException;
 import com.bt.product.repository.ProductRepository;
 import com.bt.product.repository.PricingRuleRepository;
@@ -23,6 +24,7 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final PricingRuleRepository pricingRuleRepository;
+    private final ProductCatalogPublisher productCatalogPublisher;
 
     @Transactional
     @CacheEvict(value = "products", allEntries = true)
@@ -54,6 +56,7 @@ public class ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        productCatalogPublisher.publishSnapshot(savedProduct);
         return mapToProductResponse(savedProduct);
     }
 
@@ -83,6 +86,7 @@ public class ProductService {
         product.setCompoundingFrequency(request.getCompoundingFrequency());
 
         Product updatedProduct = productRepository.save(product);
+        productCatalogPublisher.publishSnapshot(updatedProduct);
         return mapToProductResponse(updatedProduct);
     }
 
@@ -146,6 +150,7 @@ public class ProductService {
         Product product = productRepository.findByProductCode(productCode)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with code: " + productCode));
         productRepository.delete(product);
+        productCatalogPublisher.publishDeleted(productCode);
     }
 
     private void validateProductRequest(ProductRequest request) {
@@ -3,15 +3,22 @@ package com.bt.product.service.kafka;
 import com.bt.product.event.KafkaProducerService;
 import com.bt.product.event.ProductDetailsRequest;
 import com.bt.product.event.ProductDetailsResponse;
+import com.bt.product.event.ReplyAddress;
+import com.bt.product.event.RequestDeadline;
 import com.bt.product.service.ProductService;
 import com.bt.product.dto.ProductResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -20,9 +27,15 @@ public class KafkaConsumerService {
 
     private final ProductService productService;
     private final KafkaProducerService kafkaProducerService;
+    private final AtomicLong droppedExpired = new AtomicLong();
 
     @KafkaListener(topics = "product.details.request", groupId = "product-details-consumer")
-    public void handleProductDetailsRequest(@Payload ProductDetailsRequest request) {
+    public void handleProductDetailsRequest(@Payload ProductDetailsRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = KafkaHeaders.CORRELATION_ID, required = false) byte[] correlationId,
+            @Header(name = RequestDeadline.HEADER, required = false) byte[] deadline) {
+        ReplyAddress replyAddress = ReplyAddress.of(replyTopic, replyPartition, correlationId);
         try {
             log.info("============ PRODUCT DETAILS REQUEST RECEIVED ============");
             log.info("Request: {}", request);
@@ -34,6 +47,12 @@ public class KafkaConsumerService {
                 return;
             }
 
+            if (RequestDeadline.isExpired(RequestDeadline.of(deadline))) {
+                droppedExpired.incrementAndGet();
+                log.warn("Dropping expired product details request: {}", request.getRequestId());
+                return;
+            }
+
             log.info("Fetching product from service...");
             ProductResponse product = productService.getProductByCode(request.getProductCode());
             log.info("Product fetched: {}", product);
@@ -56,7 +75,7 @@ public class KafkaConsumerService {
                     .build();
 
             log.info("Sending product details response: {}", response);
-            kafkaProducerService.sendProductDetailsResponse(response);
+            kafkaProducerService.sendProductDetailsResponse(response, replyAddress);
             log.info("Product details response sent successfully for request ID: {}", request.getRequestId());
         } catch (Exception e) {
             log.error("Error handling product details request for code: {}",
@@ -70,7 +89,13 @@ public class KafkaConsumerService {
                     .build();
 
             log.info("Sending error response: {}", errorResponse);
-            kafkaProducerService.sendProductDetailsResponse(errorResponse);
+            kafkaProducerService.sendProductDetailsResponse(errorResponse, replyAddress);
         }
     }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("droppedExpired", droppedExpired.get());
+        return metrics;
+    }
 }
@@ -6,6 +6,7 @@ import com.bt.product.entity.Currency;
 import com.bt.product.entity.Product;
 import com.bt.product.entity.ProductStatus;
 import com.bt.product.entity.ProductType;
+import com.bt.product.event.ProductCatalogPublisher;
 import com.bt.product.exception.DuplicateProductException;
 import com.bt.product.exception.InvalidProductDataException;
 import com.bt.product.exception.ProductNotFoundException;
@@ -33,6 +34,9 @@ class ProductServiceTest {
     @Mock
     private PricingRuleRepository pricingRuleRepository;
 
+    @Mock
+    private ProductCatalogPublisher productCatalogPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -77,6 +81,7 @@ class ProductServiceTest {
         assertNotNull(response);
         assertEquals("SAV001", response.getProductCode());
         verify(productRepository).save(any(Product.class));
+        verify(productCatalogPublisher).publishSnapshot(product);
     }
 
     @Test
@@ -139,5 +144,6 @@ class ProductServiceTest {
         productService.deleteProduct("SAV001");
 
         verify(productRepository).delete(product);
+        verify(productCatalogPublisher).publishDeleted("SAV001");
     }
 }